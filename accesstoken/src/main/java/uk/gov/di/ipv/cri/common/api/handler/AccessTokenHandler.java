@@ -4,19 +4,34 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.oauth2.sdk.AccessTokenResponse;
 import com.nimbusds.oauth2.sdk.TokenRequest;
 import org.apache.logging.log4j.Level;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.lambda.powertools.logging.CorrelationIdPathConstants;
 import software.amazon.lambda.powertools.logging.Logging;
 import software.amazon.lambda.powertools.metrics.Metrics;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+import uk.gov.di.ipv.cri.common.api.persistence.AuthorizationCodeStore;
+import uk.gov.di.ipv.cri.common.api.persistence.DataStoreFactory;
+import uk.gov.di.ipv.cri.common.api.persistence.SessionTokenStore;
+import uk.gov.di.ipv.cri.common.api.service.AuthorizationCodeLookupService;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.util.ClientRateLimiter;
+import uk.gov.di.ipv.cri.common.api.util.ColdStartMetrics;
+import uk.gov.di.ipv.cri.common.api.util.HandlerInstrumentation;
+import uk.gov.di.ipv.cri.common.api.util.RetryableResponses;
 import uk.gov.di.ipv.cri.common.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.common.library.error.ErrorResponse;
 import uk.gov.di.ipv.cri.common.library.exception.AccessTokenValidationException;
 import uk.gov.di.ipv.cri.common.library.exception.AuthorizationCodeExpiredException;
 import uk.gov.di.ipv.cri.common.library.exception.SessionExpiredException;
 import uk.gov.di.ipv.cri.common.library.exception.SessionNotFoundException;
+import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
 import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
 import uk.gov.di.ipv.cri.common.library.service.AccessTokenService;
 import uk.gov.di.ipv.cri.common.library.service.ConfigurationService;
@@ -25,36 +40,104 @@ import uk.gov.di.ipv.cri.common.library.util.ApiGatewayResponseGenerator;
 import uk.gov.di.ipv.cri.common.library.util.ClientProviderFactory;
 import uk.gov.di.ipv.cri.common.library.util.EventProbe;
 
+import java.time.Clock;
+import java.util.Objects;
+
 public class AccessTokenHandler
         implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
     private EventProbe eventProbe;
     private AccessTokenService accessTokenService;
     private SessionService sessionService;
+    private WarmUpService warmUpService;
+    private AuthorizationCodeLookupService authorizationCodeLookupService;
+    private SessionTokenStore sessionTokenStore;
+    private ClientRateLimiter clientRateLimiter;
     static final String METRIC_NAME_ACCESS_TOKEN = "accesstoken";
     static final String JWT_VERIFICATION_FAILED = "jwt_verification_failed";
+    static final String AUTHORIZATION_CODE_DELETE_FAILED = "authorization_code_delete_failed";
 
     public AccessTokenHandler(
             AccessTokenService accessTokenService,
             SessionService sessionService,
-            EventProbe eventProbe) {
+            EventProbe eventProbe,
+            WarmUpService warmUpService,
+            AuthorizationCodeStore authorizationCodeStore,
+            SessionTokenStore sessionTokenStore,
+            ClientRateLimiter clientRateLimiter) {
         this.accessTokenService = accessTokenService;
         this.sessionService = sessionService;
         this.eventProbe = eventProbe;
+        this.warmUpService = warmUpService;
+        this.authorizationCodeLookupService =
+                new AuthorizationCodeLookupService(
+                        authorizationCodeStore, sessionService, Clock.systemUTC());
+        this.sessionTokenStore = sessionTokenStore;
+        this.clientRateLimiter = clientRateLimiter;
     }
 
     @ExcludeFromGeneratedCoverageReport
     public AccessTokenHandler() {
-        ClientProviderFactory clientProviderFactory = new ClientProviderFactory(true, true);
+        ColdStartMetrics coldStartMetrics = ColdStartMetrics.getInstance();
+        ClientProviderFactory clientProviderFactory =
+                coldStartMetrics.time(
+                        "ClientProviderFactory", () -> new ClientProviderFactory(true, true));
         ConfigurationService configurationService =
-                new ConfigurationService(
-                        clientProviderFactory.getSSMProvider(),
-                        clientProviderFactory.getSecretsProvider());
-        this.accessTokenService = new AccessTokenService(configurationService);
+                coldStartMetrics.time(
+                        "ConfigurationService",
+                        () ->
+                                new ConfigurationService(
+                                        clientProviderFactory.getSSMProvider(),
+                                        clientProviderFactory.getSecretsProvider()));
+        DataStore<SessionItem> sessionDataStore =
+                coldStartMetrics.time(
+                        "SessionDataStore",
+                        () ->
+                                DataStoreFactory.createSessionDataStore(
+                                        clientProviderFactory.getDynamoDbEnhancedClient()));
+        this.accessTokenService =
+                coldStartMetrics.time(
+                        "AccessTokenService", () -> new AccessTokenService(configurationService));
         this.sessionService =
-                new SessionService(
-                        configurationService, clientProviderFactory.getDynamoDbEnhancedClient());
-        this.eventProbe = new EventProbe();
+                coldStartMetrics.time(
+                        "SessionService",
+                        () ->
+                                new SessionService(
+                                        sessionDataStore, configurationService, Clock.systemUTC()));
+        this.sessionTokenStore =
+                coldStartMetrics.time(
+                        "SessionTokenStore",
+                        () ->
+                                DataStoreFactory.createSessionTokenStore(
+                                        clientProviderFactory.getDynamoDbEnhancedClient()));
+        this.eventProbe = coldStartMetrics.time("EventProbe", EventProbe::new);
+        this.authorizationCodeLookupService =
+                coldStartMetrics.time(
+                        "AuthorizationCodeLookupService",
+                        () ->
+                                new AuthorizationCodeLookupService(
+                                        DataStoreFactory.createAuthorizationCodeStore(
+                                                clientProviderFactory
+                                                        .getDynamoDbEnhancedClient()),
+                                        sessionService,
+                                        Clock.systemUTC()));
+        this.warmUpService =
+                coldStartMetrics.time(
+                        "WarmUpService",
+                        () ->
+                                WarmUpService.createDefault(
+                                        sessionDataStore,
+                                        configurationService,
+                                        new ObjectMapper()));
+        this.clientRateLimiter =
+                coldStartMetrics.time(
+                        "ClientRateLimiter",
+                        () ->
+                                ClientRateLimiter.fromEnvironment(
+                                        configurationService,
+                                        DataStoreFactory.createRateLimitStore(
+                                                clientProviderFactory
+                                                        .getDynamoDbEnhancedClient())));
     }
 
     @Override
@@ -62,17 +145,33 @@ public class AccessTokenHandler
     @Metrics(captureColdStart = true)
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
+        return HandlerInstrumentation.getInstance().instrument(input, context, this::handle);
+    }
+
+    private APIGatewayProxyResponseEvent handle(
+            APIGatewayProxyRequestEvent input, Context context) {
+        if (WarmUpService.isWarmUpEvent(input)) {
+            return warmUpService.warmUp(input);
+        }
         try {
             TokenRequest tokenRequest = accessTokenService.createTokenRequest(input.getBody());
+            // Charged on the client the request names, before the session read and the client
+            // assertion check
+            if (Objects.nonNull(clientRateLimiter)
+                    && !clientRateLimiter.tryAcquire(getClientId(tokenRequest))) {
+                return rateLimited("Client rate limit reached");
+            }
             String authCode = accessTokenService.getAuthorizationCode(tokenRequest);
-            SessionItem sessionItem = sessionService.getSessionByAuthorisationCode(authCode);
+            SessionItem sessionItem =
+                    authorizationCodeLookupService.getSessionByAuthorisationCode(authCode);
             eventProbe
                     .addJourneyIdToLoggingContext(sessionItem.getClientSessionId())
                     .log(Level.INFO, "found session");
             accessTokenService.validateTokenRequest(tokenRequest, sessionItem);
             AccessTokenResponse accessTokenResponse = accessTokenService.createToken(tokenRequest);
             accessTokenService.updateSessionAccessToken(sessionItem, accessTokenResponse);
-            sessionService.updateSession(sessionItem);
+            sessionTokenStore.saveAccessToken(sessionItem, authCode);
+            removeAuthorizationCode(authCode);
 
             eventProbe.counterMetric(METRIC_NAME_ACCESS_TOKEN);
 
@@ -95,6 +194,38 @@ public class AccessTokenHandler
             eventProbe.log(Level.ERROR, e).counterMetric(METRIC_NAME_ACCESS_TOKEN, 0d);
             return ApiGatewayResponseGenerator.proxyJsonResponse(
                     HttpStatusCode.FORBIDDEN, ErrorResponse.ACCESS_TOKEN_EXPIRED);
+        } catch (ConditionalCheckFailedException e) {
+            // The code was redeemed by another request between the read and the update
+            eventProbe.log(Level.ERROR, e).counterMetric(METRIC_NAME_ACCESS_TOKEN, 0d);
+            return ApiGatewayResponseGenerator.proxyJsonResponse(
+                    HttpStatusCode.FORBIDDEN, ErrorResponse.ACCESS_TOKEN_EXPIRED);
+        } catch (DeadlineExceededException | ApiCallTimeoutException e) {
+            eventProbe.log(Level.WARN, e).counterMetric(METRIC_NAME_ACCESS_TOKEN, 0d);
+            return RetryableResponses.temporarilyUnavailable(HttpStatusCode.SERVICE_UNAVAILABLE);
         }
     }
+
+    // The token is already issued and the session no longer holds the code, so a snapshot left
+    // behind cannot be redeemed again and is removed by the table's TTL
+    private void removeAuthorizationCode(String authCode) {
+        try {
+            authorizationCodeLookupService.removeAuthorizationCode(authCode);
+        } catch (SdkException e) {
+            eventProbe.log(Level.WARN, e).counterMetric(AUTHORIZATION_CODE_DELETE_FAILED);
+        }
+    }
+
+    private static String getClientId(TokenRequest tokenRequest) {
+        if (Objects.nonNull(tokenRequest.getClientAuthentication())) {
+            return tokenRequest.getClientAuthentication().getClientID().getValue();
+        }
+        return Objects.isNull(tokenRequest.getClientID())
+                ? null
+                : tokenRequest.getClientID().getValue();
+    }
+
+    private APIGatewayProxyResponseEvent rateLimited(String message) {
+        eventProbe.log(Level.WARN, message).counterMetric(METRIC_NAME_ACCESS_TOKEN, 0d);
+        return RetryableResponses.temporarilyUnavailable(HttpStatusCode.THROTTLING);
+    }
 }
@@ -0,0 +1,56 @@
+package uk.gov.di.ipv.cri.common.api.service;
+
+import uk.gov.di.ipv.cri.common.api.persistence.AuthorizationCodeStore;
+import uk.gov.di.ipv.cri.common.library.exception.AuthorizationCodeExpiredException;
+import uk.gov.di.ipv.cri.common.library.exception.SessionExpiredException;
+import uk.gov.di.ipv.cri.common.library.exception.SessionNotFoundException;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.SessionService;
+
+import java.time.Clock;
+import java.util.Objects;
+
+public class AuthorizationCodeLookupService {
+
+    private final AuthorizationCodeStore authorizationCodeStore;
+    private final SessionService sessionService;
+    private final Clock clock;
+
+    public AuthorizationCodeLookupService(
+            AuthorizationCodeStore authorizationCodeStore,
+            SessionService sessionService,
+            Clock clock) {
+        this.authorizationCodeStore = authorizationCodeStore;
+        this.sessionService = sessionService;
+        this.clock = clock;
+    }
+
+    public SessionItem getSessionByAuthorisationCode(String authorizationCode)
+            throws SessionExpiredException, AuthorizationCodeExpiredException,
+                    SessionNotFoundException {
+        if (Objects.isNull(authorizationCodeStore)) {
+            return sessionService.getSessionByAuthorisationCode(authorizationCode);
+        }
+
+        SessionItem sessionItem = authorizationCodeStore.getItem(authorizationCode);
+        if (Objects.isNull(sessionItem)) {
+            // Codes minted without a snapshot are still resolvable through the index
+            return sessionService.getSessionByAuthorisationCode(authorizationCode);
+        }
+
+        long now = clock.instant().getEpochSecond();
+        if (sessionItem.getExpiryDate() < now) {
+            throw new SessionExpiredException("session expired");
+        }
+        if (sessionItem.getAuthorizationCodeExpiryDate() < now) {
+            throw new AuthorizationCodeExpiredException("authorization code expired");
+        }
+        return sessionItem;
+    }
+
+    public void removeAuthorizationCode(String authorizationCode) {
+        if (Objects.nonNull(authorizationCodeStore)) {
+            authorizationCodeStore.delete(authorizationCode);
+        }
+    }
+}
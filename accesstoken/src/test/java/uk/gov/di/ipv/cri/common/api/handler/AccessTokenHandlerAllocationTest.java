@@ -0,0 +1,181 @@
+package uk.gov.di.ipv.cri.common.api.handler;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.util.URLUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.http.HttpStatusCode;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationBudget;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationBudgetExtension;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationMeter;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryConfigurationService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryDataStore;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemorySessionTokenStore;
+import uk.gov.di.ipv.cri.common.api.testfixtures.LocalContext;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.AccessTokenService;
+import uk.gov.di.ipv.cri.common.library.service.JWTVerifier;
+import uk.gov.di.ipv.cri.common.library.service.SessionService;
+import uk.gov.di.ipv.cri.common.library.util.EventProbe;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(AllocationBudgetExtension.class)
+class AccessTokenHandlerAllocationTest {
+    private static final String CLIENT_ID = "ipv-core";
+    private static final String REDIRECT_URI = "https://www.example.com/callback";
+    private static final String AUDIENCE =
+            InMemoryConfigurationService.VERIFIABLE_CREDENTIAL_ISSUER;
+
+    private InMemoryDataStore<SessionItem> sessionDataStore;
+    private AccessTokenHandler accessTokenHandler;
+    private ECKey signingKey;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        signingKey = new ECKeyGenerator(Curve.P_256).keyID("client-assertion").generate();
+        String publicSigningJwk = signingKey.toPublicJWK().toJSONString();
+        InMemoryConfigurationService configurationService =
+                new InMemoryConfigurationService()
+                        .withParametersForPath(
+                                "/clients/ipv-core/jwtAuthentication",
+                                Map.of(
+                                        "audience",
+                                        AUDIENCE,
+                                        "authenticationAlg",
+                                        JWSAlgorithm.ES256.getName(),
+                                        "issuer",
+                                        CLIENT_ID,
+                                        "redirectUri",
+                                        REDIRECT_URI,
+                                        "publicSigningJwkBase64",
+                                        Base64.getEncoder()
+                                                .encodeToString(
+                                                        publicSigningJwk.getBytes(
+                                                                StandardCharsets.UTF_8))));
+        sessionDataStore = new InMemoryDataStore<>(TableSchemaRegistry.sessionItemSchema());
+        accessTokenHandler =
+                new AccessTokenHandler(
+                        new AccessTokenService(configurationService, new JWTVerifier()),
+                        new SessionService(
+                                sessionDataStore, configurationService, Clock.systemUTC()),
+                        new EventProbe(),
+                        new WarmUpService(),
+                        null,
+                        new InMemorySessionTokenStore(sessionDataStore),
+                        null);
+    }
+
+    @Test
+    @DisplayName("token success")
+    @AllocationBudget(kilobytes = 1024)
+    void shouldStayWithinBudgetWhenIssuingAccessToken(AllocationMeter meter)
+            throws JOSEException {
+        SessionItem sessionItem = createSession();
+        APIGatewayProxyRequestEvent request = createRequest(sessionItem.getAuthorizationCode());
+
+        // Issuing a token consumes the code, so it is restored before each call
+        meter.measure(
+                () -> {
+                    sessionDataStore.update(sessionItem);
+                    return new LocalContext("token");
+                },
+                context -> {
+                    APIGatewayProxyResponseEvent response =
+                            accessTokenHandler.handleRequest(request, context);
+                    assertEquals(HttpStatusCode.OK, response.getStatusCode());
+                });
+    }
+
+    @Test
+    @DisplayName("token unknown authorization code")
+    @AllocationBudget(kilobytes = 1024)
+    void shouldStayWithinBudgetWhenAuthorizationCodeIsUnknown(AllocationMeter meter)
+            throws JOSEException {
+        createSession();
+        APIGatewayProxyRequestEvent request = createRequest(UUID.randomUUID().toString());
+
+        meter.measure(
+                () -> new LocalContext("token"),
+                context -> {
+                    APIGatewayProxyResponseEvent response =
+                            accessTokenHandler.handleRequest(request, context);
+                    assertEquals(HttpStatusCode.FORBIDDEN, response.getStatusCode());
+                });
+    }
+
+    private SessionItem createSession() {
+        Instant now = Instant.now();
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setSessionId(UUID.randomUUID());
+        sessionItem.setExpiryDate(now.plus(1, ChronoUnit.HOURS).getEpochSecond());
+        sessionItem.setClientId(CLIENT_ID);
+        sessionItem.setState("state");
+        sessionItem.setRedirectUri(URI.create(REDIRECT_URI));
+        sessionItem.setClientSessionId(UUID.randomUUID().toString());
+        sessionItem.setAuthorizationCode(UUID.randomUUID().toString());
+        sessionItem.setAuthorizationCodeExpiryDate(
+                now.plus(10, ChronoUnit.MINUTES).getEpochSecond());
+        sessionDataStore.create(sessionItem);
+        return sessionItem;
+    }
+
+    private APIGatewayProxyRequestEvent createRequest(String authorizationCode)
+            throws JOSEException {
+        Instant now = Instant.now();
+        SignedJWT clientAssertion =
+                new SignedJWT(
+                        new JWSHeader.Builder(JWSAlgorithm.ES256)
+                                .keyID(signingKey.getKeyID())
+                                .build(),
+                        new JWTClaimsSet.Builder()
+                                .issuer(CLIENT_ID)
+                                .subject(CLIENT_ID)
+                                .audience(AUDIENCE)
+                                .issueTime(Date.from(now))
+                                .expirationTime(Date.from(now.plus(1, ChronoUnit.HOURS)))
+                                .jwtID(UUID.randomUUID().toString())
+                                .build());
+        clientAssertion.sign(new ECDSASigner(signingKey));
+
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        parameters.put("grant_type", List.of("authorization_code"));
+        parameters.put("code", List.of(authorizationCode));
+        parameters.put("redirect_uri", List.of(REDIRECT_URI));
+        parameters.put(
+                "client_assertion_type",
+                List.of("urn:ietf:params:oauth:client-assertion-type:jwt-bearer"));
+        parameters.put("client_assertion", List.of(clientAssertion.serialize()));
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withPath("/token")
+                .withHeaders(Map.of("Content-Type", "application/x-www-form-urlencoded"))
+                .withBody(URLUtils.serializeParameters(parameters));
+    }
+}
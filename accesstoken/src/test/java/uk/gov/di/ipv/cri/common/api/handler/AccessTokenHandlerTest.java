@@ -9,16 +9,29 @@ import com.nimbusds.common.contenttype.ContentType;
 import com.nimbusds.oauth2.sdk.AccessTokenResponse;
 import com.nimbusds.oauth2.sdk.Scope;
 import com.nimbusds.oauth2.sdk.TokenRequest;
+import com.nimbusds.oauth2.sdk.auth.ClientSecretBasic;
+import com.nimbusds.oauth2.sdk.auth.Secret;
+import com.nimbusds.oauth2.sdk.id.ClientID;
 import com.nimbusds.oauth2.sdk.token.AccessToken;
 import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
 import com.nimbusds.oauth2.sdk.token.Tokens;
 import org.apache.logging.log4j.Level;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+import uk.gov.di.ipv.cri.common.api.persistence.AuthorizationCodeStore;
+import uk.gov.di.ipv.cri.common.api.persistence.SessionTokenStore;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.util.ClientRateLimiter;
 import uk.gov.di.ipv.cri.common.library.error.ErrorResponse;
 import uk.gov.di.ipv.cri.common.library.exception.AccessTokenValidationException;
 import uk.gov.di.ipv.cri.common.library.exception.AuthorizationCodeExpiredException;
@@ -33,12 +46,18 @@ import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.cri.common.api.handler.AccessTokenHandler.AUTHORIZATION_CODE_DELETE_FAILED;
 import static uk.gov.di.ipv.cri.common.api.handler.AccessTokenHandler.JWT_VERIFICATION_FAILED;
 import static uk.gov.di.ipv.cri.common.api.handler.AccessTokenHandler.METRIC_NAME_ACCESS_TOKEN;
 
@@ -51,6 +70,8 @@ class AccessTokenHandlerTest {
     @Mock private AccessTokenService mockAccessTokenService;
     @Mock private SessionService mockSessionService;
     @Mock private TokenRequest tokenRequest;
+    @Mock private WarmUpService mockWarmUpService;
+    @Mock private SessionTokenStore mockSessionTokenStore;
     @InjectMocks private AccessTokenHandler handler;
 
     @Test
@@ -96,11 +117,80 @@ class AccessTokenHandlerTest {
         verify(mockAccessTokenService).getAuthorizationCode(tokenRequest);
         verify(mockAccessTokenService).createToken(tokenRequest);
         verify(mockSessionService).getSessionByAuthorisationCode(authCodeValue);
+        verify(mockSessionTokenStore).saveAccessToken(mockSessionItem, authCodeValue);
         verify(mockEventProbe).addJourneyIdToLoggingContext(clientSessionId);
         verify(mockEventProbe).log(Level.INFO, FOUND_SESSION_LOG_MESSAGE);
         verify(mockEventProbe).counterMetric(METRIC_NAME_ACCESS_TOKEN);
     }
 
+    @Test
+    void shouldReturnAccessTokenWhenAuthorizationCodeSnapshotCannotBeDeleted() throws Exception {
+        AuthorizationCodeStore mockAuthorizationCodeStore = mock(AuthorizationCodeStore.class);
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.withBody("some body");
+        String authCode = String.valueOf(UUID.randomUUID());
+        SessionItem mockSessionItem = mock(SessionItem.class);
+        when(mockSessionItem.getClientSessionId()).thenReturn("client-session-id");
+        DynamoDbException exception =
+                DynamoDbException.builder().message("throughput exceeded").build();
+
+        when(mockAccessTokenService.createTokenRequest("some body")).thenReturn(tokenRequest);
+        when(mockAccessTokenService.getAuthorizationCode(tokenRequest)).thenReturn(authCode);
+        when(mockAccessTokenService.createToken(tokenRequest))
+                .thenReturn(createTestTokenResponse());
+        when(mockSessionService.getSessionByAuthorisationCode(authCode))
+                .thenReturn(mockSessionItem);
+        doThrow(exception).when(mockAuthorizationCodeStore).delete(authCode);
+        when(mockEventProbe.addJourneyIdToLoggingContext("client-session-id"))
+                .thenReturn(mockEventProbe);
+        when(mockEventProbe.log(Level.WARN, exception)).thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent response =
+                new AccessTokenHandler(
+                                mockAccessTokenService,
+                                mockSessionService,
+                                mockEventProbe,
+                                mockWarmUpService,
+                                mockAuthorizationCodeStore,
+                                mockSessionTokenStore,
+                                null)
+                        .handleRequest(event, null);
+
+        assertEquals(HttpStatusCode.OK, response.getStatusCode());
+        verify(mockSessionTokenStore).saveAccessToken(mockSessionItem, authCode);
+        verify(mockEventProbe).counterMetric(AUTHORIZATION_CODE_DELETE_FAILED);
+        verify(mockEventProbe).counterMetric(METRIC_NAME_ACCESS_TOKEN);
+    }
+
+    @Test
+    void shouldReturn403WhenAuthorizationCodeIsRedeemedConcurrently() throws Exception {
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.withBody("some body");
+        String authCode = String.valueOf(UUID.randomUUID());
+        SessionItem mockSessionItem = mock(SessionItem.class);
+        when(mockSessionItem.getClientSessionId()).thenReturn("client-session-id");
+        ConditionalCheckFailedException exception =
+                ConditionalCheckFailedException.builder().message("condition failed").build();
+
+        when(mockAccessTokenService.createTokenRequest("some body")).thenReturn(tokenRequest);
+        when(mockAccessTokenService.getAuthorizationCode(tokenRequest)).thenReturn(authCode);
+        when(mockAccessTokenService.createToken(tokenRequest))
+                .thenReturn(createTestTokenResponse());
+        when(mockSessionService.getSessionByAuthorisationCode(authCode))
+                .thenReturn(mockSessionItem);
+        doThrow(exception).when(mockSessionTokenStore).saveAccessToken(mockSessionItem, authCode);
+        when(mockEventProbe.addJourneyIdToLoggingContext("client-session-id"))
+                .thenReturn(mockEventProbe);
+        when(mockEventProbe.log(Level.ERROR, exception)).thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(event, null);
+
+        assertErrorResponse(response, ErrorResponse.ACCESS_TOKEN_EXPIRED);
+        assertEquals(HttpStatusCode.FORBIDDEN, response.getStatusCode());
+        verify(mockEventProbe).counterMetric(METRIC_NAME_ACCESS_TOKEN, 0d);
+        verify(mockEventProbe, never()).counterMetric(METRIC_NAME_ACCESS_TOKEN);
+    }
+
     @Test
     void shouldReturn400WhenCannotCreateTokenRequest()
             throws AccessTokenValidationException, JsonProcessingException {
@@ -203,6 +293,80 @@ class AccessTokenHandlerTest {
         verifyNoMoreInteractions(mockAccessTokenService);
     }
 
+    @ParameterizedTest
+    @MethodSource("deadlineFailures")
+    void shouldReturnRetryable503WhenTheDeadlineIsReached(RuntimeException exception)
+            throws Exception {
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent();
+        event.withBody("some body");
+        String authCode = String.valueOf(UUID.randomUUID());
+        when(mockAccessTokenService.createTokenRequest("some body")).thenReturn(tokenRequest);
+        when(mockAccessTokenService.getAuthorizationCode(tokenRequest)).thenReturn(authCode);
+        when(mockSessionService.getSessionByAuthorisationCode(authCode)).thenThrow(exception);
+        when(mockEventProbe.log(Level.WARN, exception)).thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(event, null);
+
+        assertEquals(HttpStatusCode.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().get("Retry-After"));
+        Map<?, ?> responseBody = new ObjectMapper().readValue(response.getBody(), Map.class);
+        assertEquals("temporarily_unavailable", responseBody.get("error"));
+        verify(mockEventProbe).counterMetric(METRIC_NAME_ACCESS_TOKEN, 0d);
+        verifyNoInteractions(mockSessionTokenStore);
+    }
+
+    static Stream<RuntimeException> deadlineFailures() {
+        return Stream.of(
+                new DeadlineExceededException("deadline reached"),
+                ApiCallTimeoutException.builder().message("call timed out").build());
+    }
+
+    @Test
+    void shouldReturnRetryable429BeforeReadingSessionWhenClientRateLimitIsReached()
+            throws Exception {
+        ClientRateLimiter mockClientRateLimiter = mock(ClientRateLimiter.class);
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent().withBody("some body");
+        when(mockAccessTokenService.createTokenRequest("some body")).thenReturn(tokenRequest);
+        when(tokenRequest.getClientAuthentication())
+                .thenReturn(new ClientSecretBasic(new ClientID("ipv-core"), new Secret()));
+        when(mockClientRateLimiter.tryAcquire("ipv-core")).thenReturn(false);
+        when(mockEventProbe.log(Level.WARN, "Client rate limit reached"))
+                .thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent response =
+                new AccessTokenHandler(
+                                mockAccessTokenService,
+                                mockSessionService,
+                                mockEventProbe,
+                                mockWarmUpService,
+                                null,
+                                mockSessionTokenStore,
+                                mockClientRateLimiter)
+                        .handleRequest(event, null);
+
+        assertEquals(HttpStatusCode.THROTTLING, response.getStatusCode());
+        assertEquals("1", response.getHeaders().get("Retry-After"));
+        Map<?, ?> responseBody = new ObjectMapper().readValue(response.getBody(), Map.class);
+        assertEquals("temporarily_unavailable", responseBody.get("error"));
+        verify(mockEventProbe).counterMetric(METRIC_NAME_ACCESS_TOKEN, 0d);
+        verify(mockAccessTokenService, never()).validateTokenRequest(any(), any());
+        verifyNoInteractions(mockSessionService, mockSessionTokenStore);
+    }
+
+    @Test
+    void shouldDelegateWarmUpEventToWarmUpService() {
+        APIGatewayProxyRequestEvent warmUpEvent =
+                new APIGatewayProxyRequestEvent().withResource(WarmUpService.WARM_UP_RESOURCE);
+        APIGatewayProxyResponseEvent warmUpResponse =
+                new APIGatewayProxyResponseEvent().withStatusCode(HttpStatusCode.OK);
+        when(mockWarmUpService.warmUp(warmUpEvent)).thenReturn(warmUpResponse);
+
+        APIGatewayProxyResponseEvent responseEvent = handler.handleRequest(warmUpEvent, null);
+
+        assertEquals(warmUpResponse, responseEvent);
+        verifyNoInteractions(mockAccessTokenService, mockSessionService, mockEventProbe);
+    }
+
     private AccessTokenResponse createTestTokenResponse() {
         AccessToken accessToken =
                 new BearerAccessToken(
@@ -23,6 +23,8 @@ import org.mockito.quality.Strictness;
 import uk.gov.di.ipv.cri.common.api.handler.AccessTokenHandler;
 import uk.gov.di.ipv.cri.common.api.handler.pact.utils.Injector;
 import uk.gov.di.ipv.cri.common.api.handler.pact.utils.MockHttpServer;
+import uk.gov.di.ipv.cri.common.api.persistence.SessionTokenStore;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
 import uk.gov.di.ipv.cri.common.library.domain.SessionRequest;
 import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
 import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
@@ -69,6 +71,7 @@ class AccessTokenHandlerTest {
 
     @Mock private ConfigurationService configurationService;
     @Mock private DataStore<SessionItem> dataStore;
+    @Mock private SessionTokenStore sessionTokenStore;
 
     @au.com.dius.pact.provider.junitsupport.loader.PactBrokerConsumerVersionSelectors
     public static SelectorBuilder consumerVersionSelectors() {
@@ -93,7 +96,11 @@ class AccessTokenHandlerTest {
                                 new AccessTokenService(configurationService, new JWTVerifier()),
                                 new SessionService(
                                         dataStore, configurationService, Clock.systemUTC()),
-                                new EventProbe()),
+                                new EventProbe(),
+                                new WarmUpService(),
+                                null,
+                                sessionTokenStore,
+                                null),
                         "/token",
                         "/");
         MockHttpServer.startServer(new ArrayList<>(List.of(tokenHandlerInjector)), PORT);
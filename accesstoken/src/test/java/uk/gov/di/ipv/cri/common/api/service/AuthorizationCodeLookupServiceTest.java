@@ -0,0 +1,116 @@
+package uk.gov.di.ipv.cri.common.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.di.ipv.cri.common.api.persistence.AuthorizationCodeStore;
+import uk.gov.di.ipv.cri.common.library.exception.AuthorizationCodeExpiredException;
+import uk.gov.di.ipv.cri.common.library.exception.SessionExpiredException;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.SessionService;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationCodeLookupServiceTest {
+    private static final String AUTHORIZATION_CODE = "auth-code";
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    @Mock private AuthorizationCodeStore mockAuthorizationCodeStore;
+    @Mock private SessionService mockSessionService;
+
+    @Test
+    void shouldReturnSnapshotWithoutQueryingIndex() throws Exception {
+        SessionItem sessionItem = createSessionItem(60, 30);
+        when(mockAuthorizationCodeStore.getItem(AUTHORIZATION_CODE)).thenReturn(sessionItem);
+
+        SessionItem result =
+                new AuthorizationCodeLookupService(
+                                mockAuthorizationCodeStore, mockSessionService, clock)
+                        .getSessionByAuthorisationCode(AUTHORIZATION_CODE);
+
+        assertEquals(sessionItem, result);
+        verifyNoInteractions(mockSessionService);
+    }
+
+    @Test
+    void shouldFallBackToIndexWhenNoSnapshotExists() throws Exception {
+        SessionItem sessionItem = createSessionItem(60, 30);
+        when(mockSessionService.getSessionByAuthorisationCode(AUTHORIZATION_CODE))
+                .thenReturn(sessionItem);
+
+        SessionItem result =
+                new AuthorizationCodeLookupService(
+                                mockAuthorizationCodeStore, mockSessionService, clock)
+                        .getSessionByAuthorisationCode(AUTHORIZATION_CODE);
+
+        assertEquals(sessionItem, result);
+        verify(mockAuthorizationCodeStore).getItem(AUTHORIZATION_CODE);
+    }
+
+    @Test
+    void shouldUseIndexWhenNoStoreIsConfigured() throws Exception {
+        SessionItem sessionItem = createSessionItem(60, 30);
+        when(mockSessionService.getSessionByAuthorisationCode(AUTHORIZATION_CODE))
+                .thenReturn(sessionItem);
+        AuthorizationCodeLookupService lookupService =
+                new AuthorizationCodeLookupService(null, mockSessionService, clock);
+
+        assertEquals(sessionItem, lookupService.getSessionByAuthorisationCode(AUTHORIZATION_CODE));
+        lookupService.removeAuthorizationCode(AUTHORIZATION_CODE);
+    }
+
+    @Test
+    void shouldThrowWhenSnapshotSessionHasExpired() {
+        when(mockAuthorizationCodeStore.getItem(AUTHORIZATION_CODE))
+                .thenReturn(createSessionItem(-1, 30));
+
+        assertThrows(
+                SessionExpiredException.class,
+                () ->
+                        new AuthorizationCodeLookupService(
+                                        mockAuthorizationCodeStore, mockSessionService, clock)
+                                .getSessionByAuthorisationCode(AUTHORIZATION_CODE));
+    }
+
+    @Test
+    void shouldThrowWhenSnapshotAuthorizationCodeHasExpired() {
+        when(mockAuthorizationCodeStore.getItem(AUTHORIZATION_CODE))
+                .thenReturn(createSessionItem(60, -1));
+
+        assertThrows(
+                AuthorizationCodeExpiredException.class,
+                () ->
+                        new AuthorizationCodeLookupService(
+                                        mockAuthorizationCodeStore, mockSessionService, clock)
+                                .getSessionByAuthorisationCode(AUTHORIZATION_CODE));
+    }
+
+    @Test
+    void shouldDeleteSnapshotWhenAuthorizationCodeIsRemoved() {
+        new AuthorizationCodeLookupService(mockAuthorizationCodeStore, mockSessionService, clock)
+                .removeAuthorizationCode(AUTHORIZATION_CODE);
+
+        verify(mockAuthorizationCodeStore).delete(AUTHORIZATION_CODE);
+    }
+
+    private SessionItem createSessionItem(
+            long sessionExpirySeconds, long authorizationCodeExpirySeconds) {
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setAuthorizationCode(AUTHORIZATION_CODE);
+        sessionItem.setExpiryDate(NOW.getEpochSecond() + sessionExpirySeconds);
+        sessionItem.setAuthorizationCodeExpiryDate(
+                NOW.getEpochSecond() + authorizationCodeExpirySeconds);
+        return sessionItem;
+    }
+}
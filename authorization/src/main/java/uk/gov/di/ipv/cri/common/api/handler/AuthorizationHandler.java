@@ -4,20 +4,33 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.oauth2.sdk.AuthorizationCode;
 import com.nimbusds.oauth2.sdk.AuthorizationSuccessResponse;
 import com.nimbusds.oauth2.sdk.ParseException;
 import com.nimbusds.openid.connect.sdk.AuthenticationRequest;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.http.HttpStatusCode;
 import software.amazon.awssdk.utils.StringUtils;
 import software.amazon.lambda.powertools.logging.CorrelationIdPathConstants;
 import software.amazon.lambda.powertools.logging.Logging;
 import software.amazon.lambda.powertools.metrics.Metrics;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+import uk.gov.di.ipv.cri.common.api.persistence.AuthorizationCodeStore;
+import uk.gov.di.ipv.cri.common.api.persistence.DataStoreFactory;
+import uk.gov.di.ipv.cri.common.api.service.AuthorizationResponseCache;
+import uk.gov.di.ipv.cri.common.api.service.AuthorizationResponseCache.CachedAuthorization;
 import uk.gov.di.ipv.cri.common.api.service.AuthorizationValidatorService;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.util.ClientRateLimiter;
+import uk.gov.di.ipv.cri.common.api.util.ColdStartMetrics;
+import uk.gov.di.ipv.cri.common.api.util.HandlerInstrumentation;
+import uk.gov.di.ipv.cri.common.api.util.RetryableResponses;
 import uk.gov.di.ipv.cri.common.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.common.library.error.ErrorResponse;
 import uk.gov.di.ipv.cri.common.library.error.OauthErrorResponse;
 import uk.gov.di.ipv.cri.common.library.exception.SessionValidationException;
+import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
 import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
 import uk.gov.di.ipv.cri.common.library.service.ConfigurationService;
 import uk.gov.di.ipv.cri.common.library.service.SessionService;
@@ -25,46 +38,121 @@ import uk.gov.di.ipv.cri.common.library.util.ApiGatewayResponseGenerator;
 import uk.gov.di.ipv.cri.common.library.util.ClientProviderFactory;
 import uk.gov.di.ipv.cri.common.library.util.EventProbe;
 
+import java.time.Clock;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static org.apache.logging.log4j.Level.ERROR;
 import static org.apache.logging.log4j.Level.INFO;
+import static org.apache.logging.log4j.Level.WARN;
 
 public class AuthorizationHandler
         implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
     private static final String HEADER_SESSION_ID = "session-id";
+    private static final String CLIENT_ID = "client_id";
     public static final String EVENT_AUTHORIZATION_SENT = "authorization_sent";
     public static final String EVENT_NO_AUTHORIZATION_CODE = "no_authorization_code";
+    public static final String EVENT_AUTHORIZATION_RESPONSE_REUSED =
+            "authorization_response_reused";
+    public static final String EVENT_AUTHORIZATION_CODE_SNAPSHOT_FAILED =
+            "authorization_code_snapshot_failed";
+
+    // Everything this handler reads from a session, which is also everything the token endpoint
+    // reads back from the authorization code snapshot written here
+    static final List<String> SESSION_ATTRIBUTES =
+            List.of(
+                    "sessionId",
+                    "expiryDate",
+                    "clientId",
+                    "clientSessionId",
+                    "redirectUri",
+                    "authorizationCode",
+                    "authorizationCodeExpiryDate");
+
     private SessionService sessionService;
     private EventProbe eventProbe;
     private AuthorizationValidatorService authorizationValidatorService;
+    private WarmUpService warmUpService;
+    private AuthorizationCodeStore authorizationCodeStore;
+    private ClientRateLimiter clientRateLimiter;
+    private AuthorizationResponseCache authorizationResponseCache;
 
     @ExcludeFromGeneratedCoverageReport
     public AuthorizationHandler() {
-        ClientProviderFactory clientProviderFactory = new ClientProviderFactory(true, true);
+        ColdStartMetrics coldStartMetrics = ColdStartMetrics.getInstance();
+        ClientProviderFactory clientProviderFactory =
+                coldStartMetrics.time(
+                        "ClientProviderFactory", () -> new ClientProviderFactory(true, true));
         ConfigurationService configurationService =
-                new ConfigurationService(
-                        clientProviderFactory.getSSMProvider(),
-                        clientProviderFactory.getSecretsProvider());
+                coldStartMetrics.time(
+                        "ConfigurationService",
+                        () ->
+                                new ConfigurationService(
+                                        clientProviderFactory.getSSMProvider(),
+                                        clientProviderFactory.getSecretsProvider()));
+        DataStore<SessionItem> sessionDataStore =
+                coldStartMetrics.time(
+                        "SessionDataStore",
+                        () ->
+                                DataStoreFactory.createProjectedSessionDataStore(
+                                        clientProviderFactory.getDynamoDbEnhancedClient(),
+                                        SESSION_ATTRIBUTES));
         this.sessionService =
-                new SessionService(
-                        configurationService, clientProviderFactory.getDynamoDbEnhancedClient());
-        this.eventProbe = new EventProbe();
+                coldStartMetrics.time(
+                        "SessionService",
+                        () ->
+                                new SessionService(
+                                        sessionDataStore, configurationService, Clock.systemUTC()));
+        this.eventProbe = coldStartMetrics.time("EventProbe", EventProbe::new);
+        this.authorizationCodeStore =
+                coldStartMetrics.time(
+                        "AuthorizationCodeStore",
+                        () ->
+                                DataStoreFactory.createAuthorizationCodeStore(
+                                        clientProviderFactory.getDynamoDbEnhancedClient()));
         this.authorizationValidatorService =
-                new AuthorizationValidatorService(configurationService);
+                coldStartMetrics.time(
+                        "AuthorizationValidatorService",
+                        () -> new AuthorizationValidatorService(configurationService));
+        this.warmUpService =
+                coldStartMetrics.time(
+                        "WarmUpService",
+                        () ->
+                                WarmUpService.createDefault(
+                                        sessionDataStore,
+                                        configurationService,
+                                        new ObjectMapper()));
+        this.clientRateLimiter =
+                coldStartMetrics.time(
+                        "ClientRateLimiter",
+                        () ->
+                                ClientRateLimiter.fromEnvironment(
+                                        configurationService,
+                                        DataStoreFactory.createRateLimitStore(
+                                                clientProviderFactory
+                                                        .getDynamoDbEnhancedClient())));
+        this.authorizationResponseCache = AuthorizationResponseCache.fromEnvironment();
     }
 
     public AuthorizationHandler(
             SessionService sessionService,
             EventProbe eventProbe,
-            AuthorizationValidatorService authorizationValidatorService) {
+            AuthorizationValidatorService authorizationValidatorService,
+            WarmUpService warmUpService,
+            AuthorizationCodeStore authorizationCodeStore,
+            ClientRateLimiter clientRateLimiter,
+            AuthorizationResponseCache authorizationResponseCache) {
         this.sessionService = sessionService;
         this.eventProbe = eventProbe;
         this.authorizationValidatorService = authorizationValidatorService;
+        this.warmUpService = warmUpService;
+        this.authorizationCodeStore = authorizationCodeStore;
+        this.clientRateLimiter = clientRateLimiter;
+        this.authorizationResponseCache = authorizationResponseCache;
     }
 
     @Override
@@ -72,13 +160,39 @@ public class AuthorizationHandler
     @Metrics(captureColdStart = true)
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
+        return HandlerInstrumentation.getInstance().instrument(input, context, this::handle);
+    }
+
+    private APIGatewayProxyResponseEvent handle(
+            APIGatewayProxyRequestEvent input, Context context) {
+        if (WarmUpService.isWarmUpEvent(input)) {
+            return warmUpService.warmUp(input);
+        }
+
+        // Charged on the client the request names, before the session and code table reads
+        if (Objects.nonNull(clientRateLimiter)
+                && !clientRateLimiter.tryAcquire(getClientId(input))) {
+            return rateLimited("Client rate limit reached");
+        }
 
         try {
+            String sessionId = input.getHeaders().get(HEADER_SESSION_ID);
+            CachedAuthorization cachedAuthorization =
+                    findReusableAuthorization(sessionId, input.getQueryStringParameters());
+            if (Objects.nonNull(cachedAuthorization)) {
+                eventProbe
+                        .addJourneyIdToLoggingContext(cachedAuthorization.getClientSessionId())
+                        .log(INFO, "reused authorization response");
+                // The response was counted as sent, and audited, when it was first built
+                eventProbe.counterMetric(EVENT_AUTHORIZATION_RESPONSE_REUSED);
+                return ApiGatewayResponseGenerator.proxyJsonResponse(
+                        HttpStatusCode.OK, cachedAuthorization.getResponse());
+            }
+
             // populate all details from incoming request
             Map<String, List<String>> queryStringParameters = getQueryStringParametersAsMap(input);
             AuthenticationRequest authenticationRequest =
                     AuthenticationRequest.parse(queryStringParameters);
-            String sessionId = input.getHeaders().get(HEADER_SESSION_ID);
             SessionItem sessionItem = sessionService.getSession(sessionId);
             eventProbe
                     .addJourneyIdToLoggingContext(sessionItem.getClientSessionId())
@@ -88,6 +202,9 @@ public class AuthorizationHandler
 
             // Return access denied if there is no authcode found
             if (StringUtils.isBlank(sessionItem.getAuthorizationCode())) {
+                if (Objects.nonNull(authorizationResponseCache)) {
+                    authorizationResponseCache.invalidate(sessionId);
+                }
 
                 eventProbe
                         .log(INFO, "No Auth Code retrieved returning Oauth access_denied")
@@ -97,6 +214,8 @@ public class AuthorizationHandler
                         HttpStatusCode.FORBIDDEN, OauthErrorResponse.ACCESS_DENIED_ERROR);
             }
 
+            saveAuthorizationCodeSnapshot(sessionItem);
+
             AuthorizationSuccessResponse authorizationSuccessResponse =
                     new AuthorizationSuccessResponse(
                             authenticationRequest.getRedirectionURI(),
@@ -105,6 +224,14 @@ public class AuthorizationHandler
                             authenticationRequest.getState(),
                             null);
 
+            if (Objects.nonNull(authorizationResponseCache)) {
+                authorizationResponseCache.put(
+                        sessionId,
+                        input.getQueryStringParameters(),
+                        sessionItem,
+                        authorizationSuccessResponse);
+            }
+
             eventProbe
                     .counterMetric(EVENT_AUTHORIZATION_SENT)
                     .auditEvent(authorizationSuccessResponse);
@@ -120,6 +247,9 @@ public class AuthorizationHandler
             eventProbe.log(ERROR, e).counterMetric(EVENT_AUTHORIZATION_SENT, 0d);
             return ApiGatewayResponseGenerator.proxyJsonResponse(
                     HttpStatusCode.BAD_REQUEST, ErrorResponse.SESSION_VALIDATION_ERROR);
+        } catch (DeadlineExceededException | ApiCallTimeoutException e) {
+            eventProbe.log(WARN, e).counterMetric(EVENT_AUTHORIZATION_SENT, 0d);
+            return RetryableResponses.temporarilyUnavailable(HttpStatusCode.SERVICE_UNAVAILABLE);
         } catch (Exception e) {
             eventProbe.log(ERROR, e).counterMetric(EVENT_AUTHORIZATION_SENT, 0d);
             return ApiGatewayResponseGenerator.proxyJsonResponse(
@@ -127,7 +257,58 @@ public class AuthorizationHandler
         }
     }
 
-    private Map<String, List<String>> getQueryStringParametersAsMap(
+    // Codes are issued to the session outside this function and cleared from it when redeemed,
+    // so a cached response is only reused while the session still holds the code it carries
+    private CachedAuthorization findReusableAuthorization(
+            String sessionId, Map<String, String> queryStringParameters) {
+        if (Objects.isNull(authorizationResponseCache)) {
+            return null;
+        }
+        CachedAuthorization cachedAuthorization =
+                authorizationResponseCache.get(sessionId, queryStringParameters);
+        if (Objects.isNull(cachedAuthorization)) {
+            return null;
+        }
+        String authorizationCode =
+                cachedAuthorization.getResponse().getAuthorizationCode().getValue();
+        try {
+            if (authorizationCode.equals(
+                    sessionService.getSession(sessionId).getAuthorizationCode())) {
+                return cachedAuthorization;
+            }
+        } catch (Exception e) {
+            // The request takes the normal path, which reports the failure if it persists
+            eventProbe.log(WARN, e);
+        }
+        authorizationResponseCache.invalidate(sessionId);
+        return null;
+    }
+
+    private APIGatewayProxyResponseEvent rateLimited(String message) {
+        eventProbe.log(WARN, message).counterMetric(EVENT_AUTHORIZATION_SENT, 0d);
+        return RetryableResponses.temporarilyUnavailable(HttpStatusCode.THROTTLING);
+    }
+
+    private void saveAuthorizationCodeSnapshot(SessionItem sessionItem) {
+        if (Objects.isNull(authorizationCodeStore)) {
+            return;
+        }
+        try {
+            authorizationCodeStore.put(sessionItem);
+        } catch (RuntimeException e) {
+            // The token endpoint falls back to the authorization code index without a snapshot
+            eventProbe.log(WARN, e).counterMetric(EVENT_AUTHORIZATION_CODE_SNAPSHOT_FAILED);
+        }
+    }
+
+    private static String getClientId(APIGatewayProxyRequestEvent input) {
+        return Objects.isNull(input.getQueryStringParameters())
+                ? null
+                : input.getQueryStringParameters().get(CLIENT_ID);
+    }
+
+    /** Converts the query string parameters into the multi-valued form the SDK parses. */
+    public static Map<String, List<String>> getQueryStringParametersAsMap(
             APIGatewayProxyRequestEvent input) {
         if (input.getQueryStringParameters() != null) {
             return input.getQueryStringParameters().entrySet().stream()
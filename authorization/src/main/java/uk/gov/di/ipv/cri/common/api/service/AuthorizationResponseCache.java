@@ -0,0 +1,134 @@
+package uk.gov.di.ipv.cri.common.api.service;
+
+import com.nimbusds.oauth2.sdk.AuthorizationSuccessResponse;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the last authorization response sent for each session, so a browser going back or a
+ * front-end retry with the same query parameters is answered without validating the request,
+ * writing the code snapshot or building the response again.
+ *
+ * <p>A response is reused for {@value #AUTHORIZATION_RESPONSE_CACHE_SECONDS} seconds at most, and
+ * never after its authorization code or its session expires. The handler must still check that
+ * the session holds the same code before reusing a response, as the code is cleared once redeemed
+ * and replaced when a new one is issued. Each session holds a single entry, which is replaced when
+ * a fresh read finds a different code and dropped when it finds none. The least recently used
+ * session is evicted once {@value #MAX_ENTRIES} are held.
+ */
+public class AuthorizationResponseCache {
+
+    static final String AUTHORIZATION_RESPONSE_CACHE_SECONDS =
+            "AUTHORIZATION_RESPONSE_CACHE_SECONDS";
+    static final int MAX_ENTRIES = 256;
+
+    private final long timeToLiveMillis;
+    private final Clock clock;
+    private final Map<String, CachedAuthorization> entries =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedAuthorization> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    public AuthorizationResponseCache(long timeToLiveMillis, Clock clock) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns {@code null} unless {@value #AUTHORIZATION_RESPONSE_CACHE_SECONDS} is set to a
+     * positive number of seconds.
+     */
+    public static AuthorizationResponseCache fromEnvironment() {
+        String seconds = System.getenv(AUTHORIZATION_RESPONSE_CACHE_SECONDS);
+        if (seconds == null || seconds.isBlank() || Long.parseLong(seconds) <= 0) {
+            return null;
+        }
+        return new AuthorizationResponseCache(Long.parseLong(seconds) * 1000, Clock.systemUTC());
+    }
+
+    /** Returns the response last sent for the session if it had the same query parameters. */
+    public synchronized CachedAuthorization get(
+            String sessionId, Map<String, String> queryStringParameters) {
+        if (Objects.isNull(sessionId)) {
+            return null;
+        }
+        CachedAuthorization cachedAuthorization = entries.get(sessionId);
+        if (Objects.isNull(cachedAuthorization)) {
+            return null;
+        }
+        if (clock.millis() >= cachedAuthorization.expiresAtMillis) {
+            entries.remove(sessionId);
+            return null;
+        }
+        return Objects.equals(cachedAuthorization.queryStringParameters, queryStringParameters)
+                ? cachedAuthorization
+                : null;
+    }
+
+    public synchronized void put(
+            String sessionId,
+            Map<String, String> queryStringParameters,
+            SessionItem sessionItem,
+            AuthorizationSuccessResponse response) {
+        if (Objects.isNull(sessionId)) {
+            return;
+        }
+        long nowMillis = clock.millis();
+        long expiresAtSeconds =
+                Math.min(sessionItem.getAuthorizationCodeExpiryDate(), sessionItem.getExpiryDate());
+        long expiresAtMillis = Math.min(nowMillis + timeToLiveMillis, expiresAtSeconds * 1000);
+        if (expiresAtMillis <= nowMillis) {
+            entries.remove(sessionId);
+            return;
+        }
+        entries.put(
+                sessionId,
+                new CachedAuthorization(
+                        Objects.isNull(queryStringParameters)
+                                ? null
+                                : new HashMap<>(queryStringParameters),
+                        sessionItem.getClientSessionId(),
+                        response,
+                        expiresAtMillis));
+    }
+
+    public synchronized void invalidate(String sessionId) {
+        if (Objects.nonNull(sessionId)) {
+            entries.remove(sessionId);
+        }
+    }
+
+    public static final class CachedAuthorization {
+        private final Map<String, String> queryStringParameters;
+        private final String clientSessionId;
+        private final AuthorizationSuccessResponse response;
+        private final long expiresAtMillis;
+
+        private CachedAuthorization(
+                Map<String, String> queryStringParameters,
+                String clientSessionId,
+                AuthorizationSuccessResponse response,
+                long expiresAtMillis) {
+            this.queryStringParameters = queryStringParameters;
+            this.clientSessionId = clientSessionId;
+            this.response = response;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getClientSessionId() {
+            return clientSessionId;
+        }
+
+        public AuthorizationSuccessResponse getResponse() {
+            return response;
+        }
+    }
+}
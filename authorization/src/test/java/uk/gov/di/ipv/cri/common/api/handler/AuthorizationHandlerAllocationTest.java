@@ -0,0 +1,126 @@
+package uk.gov.di.ipv.cri.common.api.handler;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.http.HttpStatusCode;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.api.service.AuthorizationValidatorService;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationBudget;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationBudgetExtension;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationMeter;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryConfigurationService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryDataStore;
+import uk.gov.di.ipv.cri.common.api.testfixtures.LocalContext;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.SessionService;
+import uk.gov.di.ipv.cri.common.library.util.EventProbe;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(AllocationBudgetExtension.class)
+class AuthorizationHandlerAllocationTest {
+    private static final String CLIENT_ID = "ipv-core";
+    private static final String REDIRECT_URI = "https://www.example.com/callback";
+
+    private InMemoryDataStore<SessionItem> sessionDataStore;
+    private AuthorizationHandler authorizationHandler;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryConfigurationService configurationService =
+                new InMemoryConfigurationService()
+                        .withParametersForPath(
+                                "/clients/ipv-core/jwtAuthentication",
+                                Map.of("redirectUri", REDIRECT_URI));
+        sessionDataStore = new InMemoryDataStore<>(TableSchemaRegistry.sessionItemSchema());
+        authorizationHandler =
+                new AuthorizationHandler(
+                        new SessionService(
+                                sessionDataStore, configurationService, Clock.systemUTC()),
+                        new EventProbe(),
+                        new AuthorizationValidatorService(configurationService),
+                        new WarmUpService(),
+                        null,
+                        null,
+                        null);
+    }
+
+    @Test
+    @DisplayName("authorization success")
+    @AllocationBudget(kilobytes = 512)
+    void shouldStayWithinBudgetWhenReturningAuthorizationCode(AllocationMeter meter) {
+        APIGatewayProxyRequestEvent request = createRequest(createSession(true));
+
+        meter.measure(
+                () -> new LocalContext("authorization"),
+                context -> {
+                    APIGatewayProxyResponseEvent response =
+                            authorizationHandler.handleRequest(request, context);
+                    assertEquals(HttpStatusCode.OK, response.getStatusCode());
+                });
+    }
+
+    @Test
+    @DisplayName("authorization access denied")
+    @AllocationBudget(kilobytes = 384)
+    void shouldStayWithinBudgetWhenSessionHasNoAuthorizationCode(AllocationMeter meter) {
+        APIGatewayProxyRequestEvent request = createRequest(createSession(false));
+
+        meter.measure(
+                () -> new LocalContext("authorization"),
+                context -> {
+                    APIGatewayProxyResponseEvent response =
+                            authorizationHandler.handleRequest(request, context);
+                    assertEquals(HttpStatusCode.FORBIDDEN, response.getStatusCode());
+                });
+    }
+
+    private SessionItem createSession(boolean withAuthorizationCode) {
+        Instant now = Instant.now();
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setSessionId(UUID.randomUUID());
+        sessionItem.setExpiryDate(now.plus(1, ChronoUnit.HOURS).getEpochSecond());
+        sessionItem.setClientId(CLIENT_ID);
+        sessionItem.setState("state");
+        sessionItem.setRedirectUri(URI.create(REDIRECT_URI));
+        sessionItem.setClientSessionId(UUID.randomUUID().toString());
+        if (withAuthorizationCode) {
+            sessionItem.setAuthorizationCode(UUID.randomUUID().toString());
+            sessionItem.setAuthorizationCodeExpiryDate(
+                    now.plus(10, ChronoUnit.MINUTES).getEpochSecond());
+        }
+        sessionDataStore.create(sessionItem);
+        return sessionItem;
+    }
+
+    private static APIGatewayProxyRequestEvent createRequest(SessionItem sessionItem) {
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/authorization")
+                .withHeaders(Map.of("session-id", sessionItem.getSessionId().toString()))
+                .withQueryStringParameters(
+                        Map.of(
+                                "client_id",
+                                CLIENT_ID,
+                                "redirect_uri",
+                                REDIRECT_URI,
+                                "response_type",
+                                "code",
+                                "scope",
+                                "openid",
+                                "state",
+                                sessionItem.getState()));
+    }
+}
@@ -11,22 +11,36 @@ import com.nimbusds.openid.connect.sdk.AuthenticationRequest;
 import org.apache.logging.log4j.Level;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.http.HttpStatusCode;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+import uk.gov.di.ipv.cri.common.api.persistence.AuthorizationCodeStore;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.api.service.AuthorizationResponseCache;
 import uk.gov.di.ipv.cri.common.api.service.AuthorizationValidatorService;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.util.ClientRateLimiter;
 import uk.gov.di.ipv.cri.common.library.exception.SessionValidationException;
 import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
 import uk.gov.di.ipv.cri.common.library.service.SessionService;
 import uk.gov.di.ipv.cri.common.library.util.EventProbe;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -35,6 +49,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +65,8 @@ class AuthorizationHandlerTest {
     @Mock private AuthorizationValidatorService mockAuthorizationValidatorService;
     @Mock private APIGatewayProxyRequestEvent apiGatewayProxyRequestEvent;
     @Mock private EventProbe mockEventProbe;
+    @Mock private WarmUpService mockWarmUpService;
+    @Mock private AuthorizationCodeStore mockAuthorizationCodeStore;
     @InjectMocks private AuthorizationHandler authorizationHandler;
 
     @Test
@@ -94,6 +111,44 @@ class AuthorizationHandlerTest {
         verify(mockEventProbe).log(Level.INFO, FOUND_SESSION_LOG_MESSAGE);
         verify(mockEventProbe).counterMetric(anyString());
         verify(mockEventProbe).auditEvent(any());
+        verify(mockAuthorizationCodeStore).put(mockSessionItem);
+    }
+
+    @Test
+    void shouldReturn200WhenAuthorizationCodeSnapshotCannotBeSaved()
+            throws JsonProcessingException {
+        Map<String, String> params = new HashMap<>();
+        params.put("redirect_uri", "https://example.com");
+        params.put("client_id", "ipv-core");
+        params.put("response_type", "code");
+        params.put("scope", "openid");
+        params.put("state", "state-ipv");
+        when(apiGatewayProxyRequestEvent.getQueryStringParameters()).thenReturn(params);
+        when(apiGatewayProxyRequestEvent.getHeaders()).thenReturn(Map.of("session-id", SESSION_ID));
+
+        SessionItem mockSessionItem = mock(SessionItem.class);
+        when(mockSessionItem.getAuthorizationCode()).thenReturn("auth-code");
+        when(mockSessionItem.getClientSessionId()).thenReturn(SESSION_ID);
+        when(mockSessionService.getSession(SESSION_ID)).thenReturn(mockSessionItem);
+
+        IllegalStateException exception = new IllegalStateException("table unavailable");
+        doThrow(exception).when(mockAuthorizationCodeStore).put(mockSessionItem);
+
+        when(mockEventProbe.addJourneyIdToLoggingContext(SESSION_ID)).thenReturn(mockEventProbe);
+        when(mockEventProbe.log(Level.INFO, FOUND_SESSION_LOG_MESSAGE)).thenReturn(mockEventProbe);
+        when(mockEventProbe.log(Level.WARN, exception)).thenReturn(mockEventProbe);
+        when(mockEventProbe.counterMetric(anyString())).thenReturn(mockEventProbe);
+        when(mockEventProbe.auditEvent(any())).thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                authorizationHandler.handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.OK, responseEvent.getStatusCode());
+        JsonNode node = objectMapper.readTree(responseEvent.getBody());
+        assertEquals("auth-code", node.get("authorizationCode").get("value").textValue());
+        verify(mockEventProbe)
+                .counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_CODE_SNAPSHOT_FAILED);
+        verify(mockEventProbe).counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_SENT);
     }
 
     @Test
@@ -158,6 +213,39 @@ class AuthorizationHandlerTest {
         verify(mockEventProbe).log(eq(Level.ERROR), any(SessionValidationException.class));
     }
 
+    @ParameterizedTest
+    @MethodSource("deadlineFailures")
+    void shouldReturnRetryable503WhenTheDeadlineIsReached(RuntimeException exception)
+            throws JsonProcessingException {
+        Map<String, String> params = new HashMap<>();
+        params.put("redirect_uri", "https://example.com");
+        params.put("client_id", "ipv-core");
+        params.put("response_type", "code");
+        params.put("scope", "openid");
+        params.put("state", "state-ipv");
+        when(apiGatewayProxyRequestEvent.getQueryStringParameters()).thenReturn(params);
+        when(apiGatewayProxyRequestEvent.getHeaders()).thenReturn(Map.of("session-id", SESSION_ID));
+        when(mockSessionService.getSession(SESSION_ID)).thenThrow(exception);
+        when(mockEventProbe.log(Level.WARN, exception)).thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent response =
+                authorizationHandler.handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().get("Retry-After"));
+        Map<String, Object> responseBody =
+                objectMapper.readValue(response.getBody(), new TypeReference<>() {});
+        assertEquals("temporarily_unavailable", responseBody.get("error"));
+        verify(mockEventProbe).counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_SENT, 0d);
+        verifyNoInteractions(mockAuthorizationValidatorService);
+    }
+
+    static Stream<RuntimeException> deadlineFailures() {
+        return Stream.of(
+                new DeadlineExceededException("deadline reached"),
+                ApiCallTimeoutException.builder().message("call timed out").build());
+    }
+
     @Test
     void shouldReturn403AndOAuthAccessDeniedWhenNoAuthCode() throws JsonProcessingException {
         String code = "access_denied";
@@ -206,4 +294,210 @@ class AuthorizationHandlerTest {
         verify(mockEventProbe, times(1)).counterMetric(anyString());
         verify(mockEventProbe, never()).auditEvent(any());
     }
+
+    @Test
+    void shouldReturnRetryable429BeforeReadingSessionWhenClientRateLimitIsReached()
+            throws JsonProcessingException {
+        ClientRateLimiter mockClientRateLimiter = mock(ClientRateLimiter.class);
+        when(apiGatewayProxyRequestEvent.getQueryStringParameters())
+                .thenReturn(Map.of("client_id", "ipv-core"));
+        when(mockClientRateLimiter.tryAcquire("ipv-core")).thenReturn(false);
+        when(mockEventProbe.log(Level.WARN, "Client rate limit reached"))
+                .thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                new AuthorizationHandler(
+                                mockSessionService,
+                                mockEventProbe,
+                                mockAuthorizationValidatorService,
+                                mockWarmUpService,
+                                mockAuthorizationCodeStore,
+                                mockClientRateLimiter,
+                                null)
+                        .handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.THROTTLING, responseEvent.getStatusCode());
+        assertEquals("1", responseEvent.getHeaders().get("Retry-After"));
+        Map<String, Object> responseBody =
+                new ObjectMapper().readValue(responseEvent.getBody(), new TypeReference<>() {});
+        assertEquals("temporarily_unavailable", responseBody.get("error"));
+        verify(mockEventProbe).counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_SENT, 0d);
+        verifyNoInteractions(
+                mockSessionService, mockAuthorizationValidatorService, mockAuthorizationCodeStore);
+    }
+
+    @Test
+    void shouldReuseResponseForRepeatedRequestWithSameParameters()
+            throws JsonProcessingException, SessionValidationException {
+        Instant now = Instant.parse("2026-10-18T12:00:00Z");
+        Map<String, String> params = new HashMap<>();
+        params.put("redirect_uri", "https://example.com");
+        params.put("client_id", "ipv-core");
+        params.put("response_type", "code");
+        params.put("scope", "openid");
+        params.put("state", "state-ipv");
+        when(apiGatewayProxyRequestEvent.getQueryStringParameters()).thenReturn(params);
+        when(apiGatewayProxyRequestEvent.getHeaders()).thenReturn(Map.of("session-id", SESSION_ID));
+
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setAuthorizationCode("auth-code");
+        sessionItem.setAuthorizationCodeExpiryDate(now.getEpochSecond() + 600);
+        sessionItem.setExpiryDate(now.getEpochSecond() + 3600);
+        sessionItem.setClientSessionId(SESSION_ID);
+        when(mockSessionService.getSession(SESSION_ID)).thenReturn(sessionItem);
+        when(mockEventProbe.addJourneyIdToLoggingContext(SESSION_ID)).thenReturn(mockEventProbe);
+        when(mockEventProbe.counterMetric(anyString())).thenReturn(mockEventProbe);
+
+        AuthorizationHandler handler =
+                new AuthorizationHandler(
+                        mockSessionService,
+                        mockEventProbe,
+                        mockAuthorizationValidatorService,
+                        mockWarmUpService,
+                        mockAuthorizationCodeStore,
+                        null,
+                        new AuthorizationResponseCache(5000, Clock.fixed(now, ZoneOffset.UTC)));
+
+        APIGatewayProxyResponseEvent first =
+                handler.handleRequest(apiGatewayProxyRequestEvent, null);
+        APIGatewayProxyResponseEvent second =
+                handler.handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.OK, second.getStatusCode());
+        assertEquals(
+                objectMapper.readTree(first.getBody()), objectMapper.readTree(second.getBody()));
+        verify(mockAuthorizationValidatorService)
+                .validate(any(AuthenticationRequest.class), eq(sessionItem));
+        verify(mockAuthorizationCodeStore).put(sessionItem);
+        verify(mockEventProbe)
+                .counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_RESPONSE_REUSED);
+        verify(mockEventProbe).counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_SENT);
+        verify(mockEventProbe).auditEvent(any());
+
+        params.put("state", "another-state");
+        handler.handleRequest(apiGatewayProxyRequestEvent, null);
+
+        verify(mockAuthorizationValidatorService, times(2))
+                .validate(any(AuthenticationRequest.class), eq(sessionItem));
+    }
+
+    @Test
+    void shouldNotReuseResponseOnceTheSessionHoldsAnotherCode()
+            throws JsonProcessingException, SessionValidationException {
+        Instant now = Instant.parse("2026-10-18T12:00:00Z");
+        Map<String, String> params = new HashMap<>();
+        params.put("redirect_uri", "https://example.com");
+        params.put("client_id", "ipv-core");
+        params.put("response_type", "code");
+        params.put("scope", "openid");
+        params.put("state", "state-ipv");
+        when(apiGatewayProxyRequestEvent.getQueryStringParameters()).thenReturn(params);
+        when(apiGatewayProxyRequestEvent.getHeaders()).thenReturn(Map.of("session-id", SESSION_ID));
+
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setAuthorizationCode("auth-code");
+        sessionItem.setAuthorizationCodeExpiryDate(now.getEpochSecond() + 600);
+        sessionItem.setExpiryDate(now.getEpochSecond() + 3600);
+        sessionItem.setClientSessionId(SESSION_ID);
+        when(mockSessionService.getSession(SESSION_ID)).thenReturn(sessionItem);
+        when(mockEventProbe.addJourneyIdToLoggingContext(SESSION_ID)).thenReturn(mockEventProbe);
+        when(mockEventProbe.counterMetric(anyString())).thenReturn(mockEventProbe);
+
+        AuthorizationHandler handler =
+                new AuthorizationHandler(
+                        mockSessionService,
+                        mockEventProbe,
+                        mockAuthorizationValidatorService,
+                        mockWarmUpService,
+                        mockAuthorizationCodeStore,
+                        null,
+                        new AuthorizationResponseCache(5000, Clock.fixed(now, ZoneOffset.UTC)));
+
+        handler.handleRequest(apiGatewayProxyRequestEvent, null);
+        sessionItem.setAuthorizationCode("new-auth-code");
+        APIGatewayProxyResponseEvent responseEvent =
+                handler.handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.OK, responseEvent.getStatusCode());
+        JsonNode node = objectMapper.readTree(responseEvent.getBody());
+        assertEquals("new-auth-code", node.get("authorizationCode").get("value").textValue());
+        verify(mockAuthorizationValidatorService, times(2))
+                .validate(any(AuthenticationRequest.class), eq(sessionItem));
+        verify(mockEventProbe, never())
+                .counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_RESPONSE_REUSED);
+        verify(mockEventProbe, times(2))
+                .counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_SENT);
+    }
+
+    @Test
+    void shouldBuildTheResponseAgainWhenTheCacheCheckCannotReadTheSession()
+            throws SessionValidationException {
+        Instant now = Instant.parse("2026-10-18T12:00:00Z");
+        Map<String, String> params = new HashMap<>();
+        params.put("redirect_uri", "https://example.com");
+        params.put("client_id", "ipv-core");
+        params.put("response_type", "code");
+        params.put("scope", "openid");
+        params.put("state", "state-ipv");
+        when(apiGatewayProxyRequestEvent.getQueryStringParameters()).thenReturn(params);
+        when(apiGatewayProxyRequestEvent.getHeaders()).thenReturn(Map.of("session-id", SESSION_ID));
+
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setAuthorizationCode("auth-code");
+        sessionItem.setAuthorizationCodeExpiryDate(now.getEpochSecond() + 600);
+        sessionItem.setExpiryDate(now.getEpochSecond() + 3600);
+        sessionItem.setClientSessionId(SESSION_ID);
+        RuntimeException readFailure = new RuntimeException("session table unavailable");
+        when(mockSessionService.getSession(SESSION_ID))
+                .thenReturn(sessionItem)
+                .thenThrow(readFailure)
+                .thenReturn(sessionItem);
+        when(mockEventProbe.addJourneyIdToLoggingContext(SESSION_ID)).thenReturn(mockEventProbe);
+        when(mockEventProbe.counterMetric(anyString())).thenReturn(mockEventProbe);
+
+        AuthorizationHandler handler =
+                new AuthorizationHandler(
+                        mockSessionService,
+                        mockEventProbe,
+                        mockAuthorizationValidatorService,
+                        mockWarmUpService,
+                        mockAuthorizationCodeStore,
+                        null,
+                        new AuthorizationResponseCache(5000, Clock.fixed(now, ZoneOffset.UTC)));
+
+        handler.handleRequest(apiGatewayProxyRequestEvent, null);
+        APIGatewayProxyResponseEvent responseEvent =
+                handler.handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.OK, responseEvent.getStatusCode());
+        verify(mockEventProbe).log(Level.WARN, readFailure);
+        verify(mockSessionService, times(3)).getSession(SESSION_ID);
+        verify(mockEventProbe, never())
+                .counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_RESPONSE_REUSED);
+        verify(mockEventProbe, times(2))
+                .counterMetric(AuthorizationHandler.EVENT_AUTHORIZATION_SENT);
+    }
+
+    @Test
+    void shouldDelegateWarmUpEventToWarmUpService() {
+        APIGatewayProxyRequestEvent warmUpEvent =
+                new APIGatewayProxyRequestEvent().withResource(WarmUpService.WARM_UP_RESOURCE);
+        APIGatewayProxyResponseEvent warmUpResponse =
+                new APIGatewayProxyResponseEvent().withStatusCode(HttpStatusCode.OK);
+        when(mockWarmUpService.warmUp(warmUpEvent)).thenReturn(warmUpResponse);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                authorizationHandler.handleRequest(warmUpEvent, null);
+
+        assertEquals(warmUpResponse, responseEvent);
+        verifyNoInteractions(mockSessionService, mockAuthorizationValidatorService, mockEventProbe);
+    }
+
+    @Test
+    void shouldOnlyProjectAttributesOfTheSessionSchema() {
+        assertTrue(
+                TableSchemaRegistry.sessionItemSchema()
+                        .attributeNames()
+                        .containsAll(AuthorizationHandler.SESSION_ATTRIBUTES));
+    }
 }
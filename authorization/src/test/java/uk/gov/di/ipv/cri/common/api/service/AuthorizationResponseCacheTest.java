@@ -0,0 +1,131 @@
+package uk.gov.di.ipv.cri.common.api.service;
+
+import com.nimbusds.oauth2.sdk.AuthorizationCode;
+import com.nimbusds.oauth2.sdk.AuthorizationSuccessResponse;
+import com.nimbusds.oauth2.sdk.id.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.net.URI;
+import java.time.Clock;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationResponseCacheTest {
+    private static final long NOW_MILLIS = 1_792_320_000_000L;
+    private static final Map<String, String> PARAMETERS =
+            Map.of("client_id", "ipv-core", "state", "state-ipv");
+
+    @Mock private Clock mockClock;
+
+    @Test
+    void shouldReturnResponseForSameSessionAndParameters() {
+        when(mockClock.millis()).thenReturn(NOW_MILLIS);
+        AuthorizationResponseCache cache = new AuthorizationResponseCache(5000, mockClock);
+        AuthorizationSuccessResponse response = response("auth-code");
+
+        cache.put("session-id", PARAMETERS, sessionItem(NOW_MILLIS / 1000 + 600), response);
+
+        assertEquals(response, cache.get("session-id", Map.copyOf(PARAMETERS)).getResponse());
+        assertEquals("journey-id", cache.get("session-id", PARAMETERS).getClientSessionId());
+        assertNull(cache.get("session-id", Map.of("client_id", "ipv-core", "state", "other")));
+        assertNull(cache.get("other-session-id", PARAMETERS));
+    }
+
+    @Test
+    void shouldExpireResponseAfterTimeToLive() {
+        when(mockClock.millis()).thenReturn(NOW_MILLIS, NOW_MILLIS + 4999, NOW_MILLIS + 5000);
+        AuthorizationResponseCache cache = new AuthorizationResponseCache(5000, mockClock);
+
+        cache.put(
+                "session-id",
+                PARAMETERS,
+                sessionItem(NOW_MILLIS / 1000 + 600),
+                response("auth-code"));
+
+        assertEquals(
+                "journey-id", cache.get("session-id", PARAMETERS).getClientSessionId());
+        assertNull(cache.get("session-id", PARAMETERS));
+    }
+
+    @Test
+    void shouldNotOutliveAuthorizationCode() {
+        when(mockClock.millis()).thenReturn(NOW_MILLIS, NOW_MILLIS + 2000);
+        AuthorizationResponseCache cache = new AuthorizationResponseCache(5000, mockClock);
+
+        cache.put("session-id", PARAMETERS, sessionItem(NOW_MILLIS / 1000 + 2), response("code"));
+
+        assertNull(cache.get("session-id", PARAMETERS));
+    }
+
+    @Test
+    void shouldNotOutliveSession() {
+        when(mockClock.millis()).thenReturn(NOW_MILLIS, NOW_MILLIS + 2000);
+        AuthorizationResponseCache cache = new AuthorizationResponseCache(5000, mockClock);
+
+        cache.put(
+                "session-id",
+                PARAMETERS,
+                sessionItem(NOW_MILLIS / 1000 + 600, NOW_MILLIS / 1000 + 2),
+                response("code"));
+
+        assertNull(cache.get("session-id", PARAMETERS));
+    }
+
+    @Test
+    void shouldReplaceOrDropSessionEntry() {
+        when(mockClock.millis()).thenReturn(NOW_MILLIS);
+        AuthorizationResponseCache cache = new AuthorizationResponseCache(5000, mockClock);
+        AuthorizationSuccessResponse newResponse = response("new-code");
+
+        cache.put("session-id", PARAMETERS, sessionItem(NOW_MILLIS / 1000 + 600), response("old"));
+        cache.put("session-id", PARAMETERS, sessionItem(NOW_MILLIS / 1000 + 600), newResponse);
+        assertEquals(newResponse, cache.get("session-id", PARAMETERS).getResponse());
+
+        cache.invalidate("session-id");
+        assertNull(cache.get("session-id", PARAMETERS));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedSession() {
+        when(mockClock.millis()).thenReturn(NOW_MILLIS);
+        AuthorizationResponseCache cache = new AuthorizationResponseCache(5000, mockClock);
+        SessionItem sessionItem = sessionItem(NOW_MILLIS / 1000 + 600);
+
+        for (int i = 0; i <= AuthorizationResponseCache.MAX_ENTRIES; i++) {
+            cache.put("session-" + i, PARAMETERS, sessionItem, response("code-" + i));
+            cache.get("session-0", PARAMETERS);
+        }
+
+        assertEquals("journey-id", cache.get("session-0", PARAMETERS).getClientSessionId());
+        assertNull(cache.get("session-1", PARAMETERS));
+    }
+
+    private static SessionItem sessionItem(long authorizationCodeExpiryDate) {
+        return sessionItem(authorizationCodeExpiryDate, authorizationCodeExpiryDate + 3600);
+    }
+
+    private static SessionItem sessionItem(long authorizationCodeExpiryDate, long expiryDate) {
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setClientSessionId("journey-id");
+        sessionItem.setAuthorizationCodeExpiryDate(authorizationCodeExpiryDate);
+        sessionItem.setExpiryDate(expiryDate);
+        return sessionItem;
+    }
+
+    private static AuthorizationSuccessResponse response(String authorizationCode) {
+        return new AuthorizationSuccessResponse(
+                URI.create("https://example.com"),
+                new AuthorizationCode(authorizationCode),
+                null,
+                new State("state-ipv"),
+                null);
+    }
+}
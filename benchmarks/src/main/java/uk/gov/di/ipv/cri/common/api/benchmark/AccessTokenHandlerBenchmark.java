@@ -0,0 +1,118 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.nimbusds.jose.jwk.ECKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.cri.common.api.handler.AccessTokenHandler;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryConfigurationService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryDataStore;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemorySessionTokenStore;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.AccessTokenService;
+import uk.gov.di.ipv.cri.common.library.service.JWTVerifier;
+import uk.gov.di.ipv.cri.common.library.service.SessionService;
+import uk.gov.di.ipv.cri.common.library.util.EventProbe;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link AccessTokenHandler#handleRequest} for a token request with a signed client
+ * assertion, against an in-memory session table and configuration. Each scenario drives one
+ * outcome: a token issued, an assertion signed with the wrong key, an expired session, an expired
+ * authorization code and an unknown code. The redeemed code is restored before each issuing
+ * invocation. Run with {@code -prof gc} for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AccessTokenHandlerBenchmark {
+
+    @Param({"success", "validationError", "sessionExpired", "codeExpired", "notFound"})
+    private String scenario;
+
+    private final Context context = new BenchmarkContext();
+    private InMemoryDataStore<SessionItem> sessionDataStore;
+    private SessionItem sessionItem;
+    private AccessTokenHandler accessTokenHandler;
+    private APIGatewayProxyRequestEvent request;
+
+    @Setup
+    public void setUp() {
+        ECKey signingKey = TokenRequests.generateSigningKey();
+        InMemoryConfigurationService configurationService =
+                new InMemoryConfigurationService()
+                        .withParametersForPath(
+                                SessionRequests.JWT_AUTHENTICATION_PATH,
+                                TokenRequests.createClientAuthenticationConfig(signingKey));
+        sessionDataStore = new InMemoryDataStore<>(TableSchemaRegistry.sessionItemSchema());
+        accessTokenHandler =
+                new AccessTokenHandler(
+                        new AccessTokenService(configurationService, new JWTVerifier()),
+                        new SessionService(
+                                sessionDataStore, configurationService, Clock.systemUTC()),
+                        new EventProbe(),
+                        new WarmUpService(),
+                        null,
+                        new InMemorySessionTokenStore(sessionDataStore),
+                        null);
+
+        sessionItem = SessionItems.createSessionItem();
+        Instant past = Instant.now().minus(1, ChronoUnit.MINUTES);
+        if ("sessionExpired".equals(scenario)) {
+            sessionItem.setExpiryDate(past.getEpochSecond());
+        } else if ("codeExpired".equals(scenario)) {
+            sessionItem.setAuthorizationCodeExpiryDate(past.getEpochSecond());
+        }
+        sessionDataStore.create(sessionItem);
+
+        String authorizationCode =
+                "notFound".equals(scenario)
+                        ? UUID.randomUUID().toString()
+                        : sessionItem.getAuthorizationCode();
+        ECKey assertionKey =
+                "validationError".equals(scenario)
+                        ? TokenRequests.generateSigningKey()
+                        : signingKey;
+        request =
+                new APIGatewayProxyRequestEvent()
+                        .withHttpMethod("POST")
+                        .withPath("/token")
+                        .withHeaders(Map.of("Content-Type", "application/x-www-form-urlencoded"))
+                        .withBody(TokenRequests.createRequestBody(authorizationCode, assertionKey));
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreAuthorizationCode() {
+        if ("success".equals(scenario)) {
+            sessionDataStore.update(sessionItem);
+        }
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent handleRequest() {
+        return accessTokenHandler.handleRequest(request, context);
+    }
+}
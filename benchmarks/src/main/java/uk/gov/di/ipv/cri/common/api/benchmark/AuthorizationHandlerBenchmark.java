@@ -0,0 +1,141 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.nimbusds.oauth2.sdk.AuthorizationCode;
+import com.nimbusds.oauth2.sdk.AuthorizationSuccessResponse;
+import com.nimbusds.oauth2.sdk.ParseException;
+import com.nimbusds.openid.connect.sdk.AuthenticationRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.http.HttpStatusCode;
+import uk.gov.di.ipv.cri.common.api.handler.AuthorizationHandler;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.api.service.AuthorizationValidatorService;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryConfigurationService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryDataStore;
+import uk.gov.di.ipv.cri.common.library.exception.SessionValidationException;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.SessionService;
+import uk.gov.di.ipv.cri.common.library.util.ApiGatewayResponseGenerator;
+import uk.gov.di.ipv.cri.common.library.util.EventProbe;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each stage of {@link AuthorizationHandler} for a successful authorization request:
+ * converting the query string parameters, parsing them into an {@link AuthenticationRequest},
+ * validating it against the session, and rendering the {@link AuthorizationSuccessResponse}, then
+ * the whole handler against an in-memory session table and configuration. The authorization code
+ * table, rate limits and response cache are left out. Run with {@code -prof gc} for the
+ * allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AuthorizationHandlerBenchmark {
+
+    private final Context context = new BenchmarkContext();
+    private AuthorizationHandler authorizationHandler;
+    private AuthorizationValidatorService authorizationValidatorService;
+    private APIGatewayProxyRequestEvent request;
+    private Map<String, List<String>> queryStringParameters;
+    private AuthenticationRequest authenticationRequest;
+    private SessionItem sessionItem;
+
+    @Setup
+    public void setUp() throws ParseException {
+        InMemoryConfigurationService configurationService =
+                new InMemoryConfigurationService()
+                        .withParametersForPath(
+                                SessionRequests.JWT_AUTHENTICATION_PATH,
+                                Map.of("redirectUri", SessionRequests.REDIRECT_URI));
+        InMemoryDataStore<SessionItem> sessionDataStore =
+                new InMemoryDataStore<>(TableSchemaRegistry.sessionItemSchema());
+        sessionItem = SessionItems.createSessionItem();
+        sessionDataStore.create(sessionItem);
+
+        authorizationValidatorService = new AuthorizationValidatorService(configurationService);
+        authorizationHandler =
+                new AuthorizationHandler(
+                        new SessionService(
+                                sessionDataStore, configurationService, Clock.systemUTC()),
+                        new EventProbe(),
+                        authorizationValidatorService,
+                        new WarmUpService(),
+                        null,
+                        null,
+                        null);
+        request = createRequest(sessionItem);
+        queryStringParameters = AuthorizationHandler.getQueryStringParametersAsMap(request);
+        authenticationRequest = AuthenticationRequest.parse(queryStringParameters);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> convertParameters() {
+        return AuthorizationHandler.getQueryStringParametersAsMap(request);
+    }
+
+    @Benchmark
+    public AuthenticationRequest parse() throws ParseException {
+        return AuthenticationRequest.parse(queryStringParameters);
+    }
+
+    @Benchmark
+    public AuthenticationRequest validate() throws SessionValidationException {
+        authorizationValidatorService.validate(authenticationRequest, sessionItem);
+        return authenticationRequest;
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent render() {
+        return ApiGatewayResponseGenerator.proxyJsonResponse(
+                HttpStatusCode.OK,
+                new AuthorizationSuccessResponse(
+                        authenticationRequest.getRedirectionURI(),
+                        new AuthorizationCode(sessionItem.getAuthorizationCode()),
+                        null,
+                        authenticationRequest.getState(),
+                        null));
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent handleRequest() {
+        return authorizationHandler.handleRequest(request, context);
+    }
+
+    private static APIGatewayProxyRequestEvent createRequest(SessionItem sessionItem) {
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/authorization")
+                .withHeaders(Map.of("session-id", sessionItem.getSessionId().toString()))
+                .withQueryStringParameters(
+                        Map.of(
+                                "client_id",
+                                SessionRequests.CLIENT_ID,
+                                "redirect_uri",
+                                SessionRequests.REDIRECT_URI,
+                                "response_type",
+                                "code",
+                                "scope",
+                                "openid",
+                                "state",
+                                sessionItem.getState()));
+    }
+}
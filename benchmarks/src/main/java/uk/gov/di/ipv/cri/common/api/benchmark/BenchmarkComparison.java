@@ -0,0 +1,382 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH run with the baseline committed to the repository and fails when a benchmark has
+ * slowed down, or allocates more per operation, by more than its threshold.
+ *
+ * <p>A change only counts when the two runs' 99.9% confidence intervals, as JMH reports them, do
+ * not overlap, so noise between runs is not mistaken for a regression. The allowed change is a
+ * percentage of the baseline score, read from a properties file where {@code score} and {@code
+ * alloc} keys hold the defaults and {@code <prefix>.score} and {@code <prefix>.alloc} keys override
+ * them for benchmarks whose class and method name start with the prefix. The longest prefix wins.
+ * Allocation is compared from {@code gc.alloc.rate.norm}, so only when both runs used {@code -prof
+ * gc}.
+ *
+ * <p>Options are {@code --baseline}, {@code --results}, {@code --thresholds} and {@code --report},
+ * where the text report is also written.
+ */
+public final class BenchmarkComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final String SCORE = "score";
+    private static final String ALLOCATION = "alloc";
+    private static final double DEFAULT_SCORE_THRESHOLD = 10;
+    private static final double DEFAULT_ALLOCATION_THRESHOLD = 5;
+    private static final String ROW_FORMAT = "%-72s %-6s %14s %14s %9s  %s%n";
+
+    enum Verdict {
+        UNCHANGED("unchanged"),
+        IMPROVED("improved"),
+        WITHIN_THRESHOLD("slower, within threshold"),
+        REGRESSED("REGRESSED"),
+        NEW("new"),
+        NOT_RUN("not run");
+
+        private final String label;
+
+        Verdict(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Properties thresholds;
+    private final List<Row> rows = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+
+    BenchmarkComparison(Properties thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baseline = null;
+        Path results = null;
+        Path thresholdsFile = null;
+        Path report = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baseline":
+                    baseline = Path.of(args[++i]);
+                    break;
+                case "--results":
+                    results = Path.of(args[++i]);
+                    break;
+                case "--thresholds":
+                    thresholdsFile = Path.of(args[++i]);
+                    break;
+                case "--report":
+                    report = Path.of(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (Objects.isNull(baseline) || Objects.isNull(results)) {
+            throw new IllegalArgumentException("Expected a --baseline and --results");
+        }
+        if (!Files.exists(baseline)) {
+            System.err.printf(
+                    "No baseline at %s, save one with benchmarks:jmhSaveBaseline%n", baseline);
+            System.exit(1);
+        }
+        if (!Files.exists(results)) {
+            System.err.printf("No results at %s, run benchmarks:jmh first%n", results);
+            System.exit(1);
+        }
+
+        Properties thresholds = new Properties();
+        if (Objects.nonNull(thresholdsFile) && Files.exists(thresholdsFile)) {
+            try (InputStream in = Files.newInputStream(thresholdsFile)) {
+                thresholds.load(in);
+            }
+        }
+        BenchmarkComparison comparison = new BenchmarkComparison(thresholds);
+        ObjectMapper objectMapper = new ObjectMapper();
+        comparison.compare(
+                objectMapper.readTree(baseline.toFile()), objectMapper.readTree(results.toFile()));
+
+        comparison.print(System.err);
+        if (Objects.nonNull(report)) {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            try (PrintStream out =
+                    new PrintStream(Files.newOutputStream(report), false, StandardCharsets.UTF_8)) {
+                comparison.print(out);
+            }
+        }
+        if (comparison.hasRegressions()) {
+            System.exit(1);
+        }
+    }
+
+    void compare(JsonNode baselineResults, JsonNode currentResults) {
+        Map<String, JsonNode> baseline = index(baselineResults);
+        Map<String, JsonNode> current = index(currentResults);
+        warnIfDifferent("JDK", baselineResults, currentResults, "jdkVersion");
+        warnIfDifferent("VM", baselineResults, currentResults, "vmName");
+
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            String name = getName(after);
+            if (Objects.isNull(before)) {
+                rows.add(
+                        new Row(
+                                entry.getKey(),
+                                SCORE,
+                                null,
+                                toMetric(after.path("primaryMetric")),
+                                Verdict.NEW,
+                                0,
+                                0));
+                continue;
+            }
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            rows.add(
+                    compareMetric(
+                            entry.getKey(),
+                            SCORE,
+                            toMetric(before.path("primaryMetric")),
+                            toMetric(after.path("primaryMetric")),
+                            higherIsBetter,
+                            getThreshold(name, SCORE, DEFAULT_SCORE_THRESHOLD)));
+
+            JsonNode beforeAllocation = findAllocation(before);
+            JsonNode afterAllocation = findAllocation(after);
+            if (Objects.nonNull(beforeAllocation) && Objects.nonNull(afterAllocation)) {
+                rows.add(
+                        compareMetric(
+                                entry.getKey(),
+                                ALLOCATION,
+                                toMetric(beforeAllocation),
+                                toMetric(afterAllocation),
+                                false,
+                                getThreshold(name, ALLOCATION, DEFAULT_ALLOCATION_THRESHOLD)));
+            }
+        }
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                rows.add(
+                        new Row(
+                                entry.getKey(),
+                                SCORE,
+                                toMetric(entry.getValue().path("primaryMetric")),
+                                null,
+                                Verdict.NOT_RUN,
+                                0,
+                                0));
+            }
+        }
+    }
+
+    boolean hasRegressions() {
+        return rows.stream().anyMatch(row -> row.verdict == Verdict.REGRESSED);
+    }
+
+    void print(PrintStream out) {
+        for (String warning : warnings) {
+            out.println(warning);
+        }
+        out.printf(ROW_FORMAT, "benchmark", "metric", "baseline", "current", "change", "verdict");
+        for (Row row : rows) {
+            out.printf(
+                    ROW_FORMAT,
+                    row.key,
+                    row.metric,
+                    format(row.baseline),
+                    format(row.current),
+                    Objects.isNull(row.baseline) || Objects.isNull(row.current)
+                            ? ""
+                            : String.format("%+.1f%%", row.changePercent),
+                    row.verdict == Verdict.REGRESSED
+                            ? String.format(
+                                    "%s, over %.0f%% threshold", row.verdict.label, row.threshold)
+                            : row.verdict.label);
+        }
+        long regressions = rows.stream().filter(row -> row.verdict == Verdict.REGRESSED).count();
+        out.printf(
+                "%n%d of %d comparisons regressed beyond their threshold%n",
+                regressions, rows.size());
+    }
+
+    private static Row compareMetric(
+            String key,
+            String metric,
+            Metric before,
+            Metric after,
+            boolean higherIsBetter,
+            double threshold) {
+        // A baseline that allocated nothing makes any allocation an unbounded increase
+        double changePercent =
+                (after.score - before.score)
+                        / Math.max(Math.abs(before.score), Double.MIN_NORMAL)
+                        * 100;
+        boolean worse = higherIsBetter ? after.upper < before.lower : after.lower > before.upper;
+        boolean better = higherIsBetter ? after.lower > before.upper : after.upper < before.lower;
+        double worsePercent = higherIsBetter ? -changePercent : changePercent;
+        Verdict verdict;
+        if (worse && worsePercent > threshold) {
+            verdict = Verdict.REGRESSED;
+        } else if (worse) {
+            verdict = Verdict.WITHIN_THRESHOLD;
+        } else if (better) {
+            verdict = Verdict.IMPROVED;
+        } else {
+            verdict = Verdict.UNCHANGED;
+        }
+        return new Row(key, metric, before, after, verdict, threshold, changePercent);
+    }
+
+    private double getThreshold(String name, String metric, double defaultThreshold) {
+        String matchedPrefix = null;
+        for (String key : thresholds.stringPropertyNames()) {
+            if (!key.endsWith("." + metric)) {
+                continue;
+            }
+            String prefix = key.substring(0, key.length() - metric.length() - 1);
+            if (name.startsWith(prefix)
+                    && (Objects.isNull(matchedPrefix)
+                            || prefix.length() > matchedPrefix.length())) {
+                matchedPrefix = prefix;
+            }
+        }
+        String value =
+                Objects.isNull(matchedPrefix)
+                        ? thresholds.getProperty(metric)
+                        : thresholds.getProperty(matchedPrefix + "." + metric);
+        return Objects.isNull(value) ? defaultThreshold : Double.parseDouble(value.trim());
+    }
+
+    private void warnIfDifferent(
+            String label, JsonNode baselineResults, JsonNode currentResults, String field) {
+        if (baselineResults.size() == 0 || currentResults.size() == 0) {
+            return;
+        }
+        String before = baselineResults.get(0).path(field).asText();
+        String after = currentResults.get(0).path(field).asText();
+        if (!before.equals(after)) {
+            warnings.add(
+                    String.format(
+                            "Warning: the baseline ran on %s %s but this run on %s %s",
+                            label, before, label, after));
+        }
+    }
+
+    /** Benchmarks by class, method, parameters and mode, in the order they ran. */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> benchmarks = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(getName(result));
+            JsonNode params = result.path("params");
+            if (params.size() > 0) {
+                Map<String, String> sortedParams = new TreeMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    sortedParams.put(field.getKey(), field.getValue().asText());
+                }
+                key.append(sortedParams);
+            }
+            key.append(' ').append(result.path("mode").asText());
+            benchmarks.put(key.toString(), result);
+        }
+        return benchmarks;
+    }
+
+    /** The benchmark's class and method, without the package. */
+    private static String getName(JsonNode result) {
+        String benchmark = result.path("benchmark").asText();
+        String[] parts = benchmark.split("\\.");
+        return parts.length < 2
+                ? benchmark
+                : parts[parts.length - 2] + "." + parts[parts.length - 1];
+    }
+
+    private static JsonNode findAllocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Metric toMetric(JsonNode metric) {
+        double score = metric.path(SCORE).asDouble();
+        JsonNode confidence = metric.path("scoreConfidence");
+        double lower = confidence.path(0).asDouble(Double.NaN);
+        double upper = confidence.path(1).asDouble(Double.NaN);
+        // A single measurement iteration has no interval, so the score stands alone
+        if (Double.isNaN(lower) || Double.isNaN(upper)) {
+            lower = score;
+            upper = score;
+        }
+        return new Metric(score, lower, upper, metric.path("scoreUnit").asText());
+    }
+
+    private static String format(Metric metric) {
+        if (Objects.isNull(metric)) {
+            return "";
+        }
+        return String.format("%.3f", metric.score) + " " + metric.unit;
+    }
+
+    private static final class Metric {
+        private final double score;
+        private final double lower;
+        private final double upper;
+        private final String unit;
+
+        private Metric(double score, double lower, double upper, String unit) {
+            this.score = score;
+            this.lower = lower;
+            this.upper = upper;
+            this.unit = unit;
+        }
+    }
+
+    private static final class Row {
+        private final String key;
+        private final String metric;
+        private final Metric baseline;
+        private final Metric current;
+        private final Verdict verdict;
+        private final double threshold;
+        private final double changePercent;
+
+        private Row(
+                String key,
+                String metric,
+                Metric baseline,
+                Metric current,
+                Verdict verdict,
+                double threshold,
+                double changePercent) {
+            this.key = key;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            this.verdict = verdict;
+            this.threshold = threshold;
+            this.changePercent = changePercent;
+        }
+    }
+}
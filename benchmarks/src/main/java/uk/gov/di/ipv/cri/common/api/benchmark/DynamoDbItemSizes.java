@@ -0,0 +1,45 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Item sizes as DynamoDB counts them for capacity: attribute name bytes plus value bytes, with
+ * numbers taking one byte per two significant digits plus one.
+ */
+final class DynamoDbItemSizes {
+
+    private DynamoDbItemSizes() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    static int itemSize(Map<String, AttributeValue> item) {
+        return item.entrySet().stream()
+                .mapToInt(entry -> utf8Length(entry.getKey()) + valueSize(entry.getValue()))
+                .sum();
+    }
+
+    private static int valueSize(AttributeValue value) {
+        if (value.s() != null) {
+            return utf8Length(value.s());
+        }
+        if (value.n() != null) {
+            String digits = new BigDecimal(value.n()).unscaledValue().abs().toString();
+            return (digits.length() + 1) / 2 + 1;
+        }
+        if (value.hasM()) {
+            return 3 + itemSize(value.m());
+        }
+        if (value.hasL()) {
+            return 3 + value.l().stream().mapToInt(element -> 1 + valueSize(element)).sum();
+        }
+        return 1;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
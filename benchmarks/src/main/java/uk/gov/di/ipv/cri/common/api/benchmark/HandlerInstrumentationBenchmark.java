@@ -0,0 +1,60 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-invocation overhead of the woven Powertools aspects against the explicit {@code
+ * HandlerInstrumentation} wrapper, with an uninstrumented handler as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HandlerInstrumentationBenchmark {
+
+    private final InstrumentedHandlers.AspectHandler aspectHandler =
+            new InstrumentedHandlers.AspectHandler();
+    private final InstrumentedHandlers.WrapperHandler wrapperHandler =
+            new InstrumentedHandlers.WrapperHandler();
+    private final InstrumentedHandlers.BareHandler bareHandler =
+            new InstrumentedHandlers.BareHandler();
+    private APIGatewayProxyRequestEvent request;
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        request = InstrumentedHandlers.createRequest();
+        context = new BenchmarkContext();
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent aspects() {
+        return aspectHandler.handleRequest(request, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent wrapper() {
+        return wrapperHandler.handleRequest(request, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent uninstrumented() {
+        return bareHandler.handleRequest(request, context);
+    }
+}
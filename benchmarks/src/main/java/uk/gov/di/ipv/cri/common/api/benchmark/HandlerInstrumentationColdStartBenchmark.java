@@ -0,0 +1,42 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First invocation of a handler in a fresh JVM, including AspectJ runtime and Powertools
+ * initialisation for the woven handler and the equivalent work for the wrapper.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class HandlerInstrumentationColdStartBenchmark {
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent aspects() {
+        return new InstrumentedHandlers.AspectHandler()
+                .handleRequest(InstrumentedHandlers.createRequest(), new BenchmarkContext());
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent wrapper() {
+        return new InstrumentedHandlers.WrapperHandler()
+                .handleRequest(InstrumentedHandlers.createRequest(), new BenchmarkContext());
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent uninstrumented() {
+        return new InstrumentedHandlers.BareHandler()
+                .handleRequest(InstrumentedHandlers.createRequest(), new BenchmarkContext());
+    }
+}
@@ -0,0 +1,186 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.ECKey;
+import uk.gov.di.ipv.cri.common.api.handler.AccessTokenHandler;
+import uk.gov.di.ipv.cri.common.api.handler.AuthorizationHandler;
+import uk.gov.di.ipv.cri.common.api.handler.SessionHandler;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.api.service.AuthorizationValidatorService;
+import uk.gov.di.ipv.cri.common.api.service.SessionRequestService;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryConfigurationService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryDataStore;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryKmsClient;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemorySessionTokenStore;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemorySqsClient;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityItem;
+import uk.gov.di.ipv.cri.common.library.service.AccessTokenService;
+import uk.gov.di.ipv.cri.common.library.service.AuditEventFactory;
+import uk.gov.di.ipv.cri.common.library.service.AuditService;
+import uk.gov.di.ipv.cri.common.library.service.JWTVerifier;
+import uk.gov.di.ipv.cri.common.library.service.PersonIdentityMapper;
+import uk.gov.di.ipv.cri.common.library.service.PersonIdentityService;
+import uk.gov.di.ipv.cri.common.library.service.SessionService;
+import uk.gov.di.ipv.cri.common.library.util.EventProbe;
+
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The session, authorization and access token handlers wired to one set of in-memory tables, a
+ * local KMS key and the session module's EC test key, so a whole journey runs in one process.
+ *
+ * <p>The core back-end signs both its session requests and its client assertions with the EC test
+ * key. Between the authorization and token requests the CRI's own Lambda would normally store an
+ * authorization code against the session, which {@link #issueAuthorizationCode} stands in for.
+ */
+final class InMemoryCri {
+
+    private final InMemoryConfigurationService configurationService;
+    private final InMemoryDataStore<SessionItem> sessionDataStore;
+    private final InMemoryDataStore<PersonIdentityItem> personIdentityDataStore;
+    private final InMemorySqsClient sqsClient = new InMemorySqsClient();
+    private final SessionService sessionService;
+    private final SessionHandler sessionHandler;
+    private final AuthorizationHandler authorizationHandler;
+    private final AccessTokenHandler accessTokenHandler;
+    private final RSAPublicKey encryptionKey;
+    private final RSAPublicKey foreignEncryptionKey;
+    private final ECKey signingKey = SessionRequests.readEcSigningKey();
+
+    InMemoryCri() {
+        InMemoryKmsClient kmsClient = new InMemoryKmsClient();
+        String kmsEncryptionKeyId = kmsClient.createKey();
+        encryptionKey = (RSAPublicKey) kmsClient.getKeyPair(kmsEncryptionKeyId).getPublic();
+        foreignEncryptionKey =
+                (RSAPublicKey) kmsClient.getKeyPair(kmsClient.createKey()).getPublic();
+
+        Map<String, String> clientAuthenticationConfig =
+                new HashMap<>(
+                        SessionRequests.createClientAuthenticationConfig(JWSAlgorithm.ES384));
+        clientAuthenticationConfig.putAll(
+                TokenRequests.createClientAuthenticationConfig(signingKey));
+        configurationService =
+                new InMemoryConfigurationService()
+                        .withKmsEncryptionKeyId(kmsEncryptionKeyId)
+                        .withParametersForPath(
+                                SessionRequests.JWT_AUTHENTICATION_PATH,
+                                clientAuthenticationConfig);
+
+        sessionDataStore = new InMemoryDataStore<>(TableSchemaRegistry.sessionItemSchema());
+        personIdentityDataStore =
+                new InMemoryDataStore<>(TableSchemaRegistry.personIdentityItemSchema());
+        sessionService =
+                new SessionService(sessionDataStore, configurationService, Clock.systemUTC());
+        EventProbe eventProbe = new EventProbe();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        sessionHandler =
+                new SessionHandler(
+                        sessionService,
+                        new SessionRequestService(
+                                configurationService, kmsClient, objectMapper, eventProbe),
+                        new PersonIdentityService(
+                                new PersonIdentityMapper(),
+                                configurationService,
+                                personIdentityDataStore),
+                        eventProbe,
+                        new AuditService(
+                                sqsClient,
+                                configurationService,
+                                objectMapper,
+                                new AuditEventFactory(configurationService, Clock.systemUTC())),
+                        new WarmUpService(),
+                        null,
+                        null);
+        authorizationHandler =
+                new AuthorizationHandler(
+                        sessionService,
+                        eventProbe,
+                        new AuthorizationValidatorService(configurationService),
+                        new WarmUpService(),
+                        null,
+                        null,
+                        null);
+        accessTokenHandler =
+                new AccessTokenHandler(
+                        new AccessTokenService(configurationService, new JWTVerifier()),
+                        sessionService,
+                        eventProbe,
+                        new WarmUpService(),
+                        null,
+                        new InMemorySessionTokenStore(sessionDataStore),
+                        null);
+    }
+
+    SessionHandler getSessionHandler() {
+        return sessionHandler;
+    }
+
+    AuthorizationHandler getAuthorizationHandler() {
+        return authorizationHandler;
+    }
+
+    AccessTokenHandler getAccessTokenHandler() {
+        return accessTokenHandler;
+    }
+
+    InMemoryDataStore<SessionItem> getSessionDataStore() {
+        return sessionDataStore;
+    }
+
+    InMemoryDataStore<PersonIdentityItem> getPersonIdentityDataStore() {
+        return personIdentityDataStore;
+    }
+
+    InMemorySqsClient getSqsClient() {
+        return sqsClient;
+    }
+
+    /** A session request body with one address in its shared claims, ready for /session. */
+    String createSessionRequest() {
+        return createSessionRequest(1);
+    }
+
+    String createSessionRequest(int addressCount) {
+        return SessionRequests.createRequestBody(
+                JWSAlgorithm.ES384, addressCount, false, encryptionKey);
+    }
+
+    /**
+     * A well-formed session request encrypted to a key other than the CRI's, which the session
+     * handler rejects once KMS fails to decrypt it.
+     */
+    String createUndecryptableSessionRequest(int addressCount) {
+        return SessionRequests.createRequestBody(
+                JWSAlgorithm.ES384, addressCount, false, foreignEncryptionKey);
+    }
+
+    /**
+     * Stores a new authorization code against the session as the CRI's own Lambda would, and
+     * returns it, or returns {@code null} when there is no such session.
+     */
+    String issueAuthorizationCode(String sessionId) {
+        SessionItem sessionItem = sessionDataStore.getItem(sessionId);
+        if (Objects.isNull(sessionItem)) {
+            return null;
+        }
+        sessionItem.setAuthorizationCode(UUID.randomUUID().toString());
+        sessionItem.setAuthorizationCodeExpiryDate(
+                configurationService.getAuthorizationCodeExpirationEpoch());
+        sessionService.updateSession(sessionItem);
+        return sessionItem.getAuthorizationCode();
+    }
+
+    /** A token request body redeeming {@code authorizationCode}, ready for /token. */
+    String createTokenRequest(String authorizationCode) {
+        return TokenRequests.createRequestBody(authorizationCode, signingKey);
+    }
+}
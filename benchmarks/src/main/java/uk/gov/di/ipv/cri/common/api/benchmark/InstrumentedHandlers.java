@@ -0,0 +1,69 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import software.amazon.lambda.powertools.logging.CorrelationIdPathConstants;
+import software.amazon.lambda.powertools.logging.Logging;
+import software.amazon.lambda.powertools.metrics.Metrics;
+import uk.gov.di.ipv.cri.common.api.util.HandlerInstrumentation;
+
+/**
+ * Handlers that do no work of their own, so benchmarks driving them measure only the cost of the
+ * Powertools aspects or of the {@link HandlerInstrumentation} wrapper.
+ */
+final class InstrumentedHandlers {
+
+    private InstrumentedHandlers() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    static APIGatewayProxyResponseEvent respond(APIGatewayProxyRequestEvent input) {
+        return new APIGatewayProxyResponseEvent().withStatusCode(200).withBody(input.getBody());
+    }
+
+    /** Woven with the Powertools aspects at build time, as the handler modules are by default. */
+    static class AspectHandler
+            implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+        @Override
+        @Logging(
+                correlationIdPath = CorrelationIdPathConstants.API_GATEWAY_REST,
+                clearState = true)
+        @Metrics(captureColdStart = true)
+        public APIGatewayProxyResponseEvent handleRequest(
+                APIGatewayProxyRequestEvent input, Context context) {
+            return respond(input);
+        }
+    }
+
+    static class WrapperHandler
+            implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+        private final HandlerInstrumentation handlerInstrumentation =
+                new HandlerInstrumentation(false, "benchmark");
+
+        @Override
+        public APIGatewayProxyResponseEvent handleRequest(
+                APIGatewayProxyRequestEvent input, Context context) {
+            return handlerInstrumentation.instrument(
+                    input, context, (event, ctx) -> respond(event));
+        }
+    }
+
+    static class BareHandler
+            implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+        @Override
+        public APIGatewayProxyResponseEvent handleRequest(
+                APIGatewayProxyRequestEvent input, Context context) {
+            return respond(input);
+        }
+    }
+
+    static APIGatewayProxyRequestEvent createRequest() {
+        return new APIGatewayProxyRequestEvent()
+                .withBody("{}")
+                .withRequestContext(
+                        new APIGatewayProxyRequestEvent.ProxyRequestContext()
+                                .withRequestId("benchmark-request-id"));
+    }
+}
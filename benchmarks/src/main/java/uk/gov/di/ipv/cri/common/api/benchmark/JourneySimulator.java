@@ -0,0 +1,330 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Recorder;
+import uk.gov.di.ipv.cri.common.api.testfixtures.LocalContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs complete journeys against an {@link InMemoryCri} in this JVM: a session request, an
+ * authorization code stored against the session, an authorization request and a token request.
+ *
+ * <p>Simulated users arrive at a constant rate, or at exponentially distributed intervals around
+ * it, optionally ramping up from one arrival a second. At most {@code --users} journeys run at
+ * once, and an arrival that finds every user busy is dropped and counted rather than queued. Each
+ * handler call is recorded in its endpoint's histogram. A journey is recorded from its scheduled
+ * arrival, so a stalled dispatcher shows up as latency rather than hiding it. Request bodies are
+ * signed and encrypted by the simulated user outside the timed calls, but share the same CPUs.
+ *
+ * <p>Options are {@code --users} (1000), {@code --rate} in journeys per second (200), {@code
+ * --duration} (60) and {@code --warmup} (10) in seconds, {@code --ramp-up} in seconds (0), {@code
+ * --poisson}, {@code --seed} and {@code --report-dir}. Nothing recorded during warm-up is
+ * reported.
+ */
+public final class JourneySimulator {
+
+    private static final String STATE = "state";
+    private static final String SESSION_ID = "session_id";
+
+    enum Step {
+        SESSION("session"),
+        AUTHORIZATION("authorization"),
+        TOKEN("token"),
+        JOURNEY("journey");
+
+        private final String label;
+
+        Step(String label) {
+            this.label = label;
+        }
+
+        String getLabel() {
+            return label;
+        }
+    }
+
+    private final InMemoryCri cri;
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Step, Recorder> recorders = new EnumMap<>(Step.class);
+    private final Map<Step, LongAdder> errors = new EnumMap<>(Step.class);
+    private final LongAdder dropped = new LongAdder();
+
+    JourneySimulator(InMemoryCri cri, Options options) {
+        this.cri = cri;
+        this.options = options;
+        for (Step step : Step.values()) {
+            recorders.put(step, new Recorder(3));
+            errors.put(step, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Options options = Options.parse(args);
+        LatencyReport report = new JourneySimulator(new InMemoryCri(), options).run();
+        report.print(System.err);
+        if (Objects.nonNull(options.reportDir)) {
+            report.write(options.reportDir);
+        }
+    }
+
+    LatencyReport run() throws InterruptedException {
+        ExecutorService executor =
+                Executors.newFixedThreadPool(options.users, new UserThreadFactory());
+        Semaphore idleUsers = new Semaphore(options.users);
+        Random random = new Random(options.seed);
+
+        long startNanos = System.nanoTime();
+        long warmupEndNanos = startNanos + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long endNanos = warmupEndNanos + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        boolean measuring = options.warmupSeconds == 0;
+        for (long arrivalNanos = startNanos;
+                arrivalNanos < endNanos;
+                arrivalNanos += nextIntervalNanos(arrivalNanos - startNanos, random)) {
+            if (!measuring && arrivalNanos >= warmupEndNanos) {
+                reset();
+                measuring = true;
+            }
+            parkUntil(arrivalNanos);
+            if (!idleUsers.tryAcquire()) {
+                dropped.increment();
+                continue;
+            }
+            long scheduledNanos = arrivalNanos;
+            executor.execute(
+                    () -> {
+                        try {
+                            runJourney(scheduledNanos);
+                        } finally {
+                            idleUsers.release();
+                        }
+                    });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Map<String, LatencyReport.StepResult> results = new LinkedHashMap<>();
+        for (Step step : Step.values()) {
+            results.put(
+                    step.getLabel(),
+                    new LatencyReport.StepResult(
+                            recorders.get(step).getIntervalHistogram(), errors.get(step).sum()));
+        }
+        LatencyReport.StepResult journeys = results.get(Step.JOURNEY.getLabel());
+        return new LatencyReport(
+                String.format(
+                        "%d journeys completed, %d failed and %d arrivals dropped",
+                        journeys.getHistogram().getTotalCount(),
+                        journeys.getErrors(),
+                        dropped.sum()),
+                results,
+                System.nanoTime() - warmupEndNanos);
+    }
+
+    private void runJourney(long scheduledNanos) {
+        try {
+            JsonNode session =
+                    call(
+                            Step.SESSION,
+                            cri.getSessionHandler(),
+                            new APIGatewayProxyRequestEvent()
+                                    .withHttpMethod("POST")
+                                    .withPath("/session")
+                                    .withHeaders(
+                                            Map.of(
+                                                    "content-type",
+                                                    "application/json",
+                                                    "x-forwarded-for",
+                                                    "192.0.2.0"))
+                                    .withBody(cri.createSessionRequest()));
+            if (Objects.isNull(session)) {
+                errors.get(Step.JOURNEY).increment();
+                return;
+            }
+            String sessionId = session.path(SESSION_ID).asText();
+            String authorizationCode = cri.issueAuthorizationCode(sessionId);
+
+            JsonNode authorization =
+                    call(
+                            Step.AUTHORIZATION,
+                            cri.getAuthorizationHandler(),
+                            new APIGatewayProxyRequestEvent()
+                                    .withHttpMethod("GET")
+                                    .withPath("/authorization")
+                                    .withHeaders(Map.of("session-id", sessionId))
+                                    .withQueryStringParameters(
+                                            Map.of(
+                                                    "client_id",
+                                                    SessionRequests.CLIENT_ID,
+                                                    "redirect_uri",
+                                                    SessionRequests.REDIRECT_URI,
+                                                    "response_type",
+                                                    "code",
+                                                    "scope",
+                                                    "openid",
+                                                    STATE,
+                                                    session.path(STATE).asText())));
+            if (Objects.isNull(authorization)) {
+                errors.get(Step.JOURNEY).increment();
+                return;
+            }
+
+            JsonNode token =
+                    call(
+                            Step.TOKEN,
+                            cri.getAccessTokenHandler(),
+                            new APIGatewayProxyRequestEvent()
+                                    .withHttpMethod("POST")
+                                    .withPath("/token")
+                                    .withHeaders(
+                                            Map.of(
+                                                    "content-type",
+                                                    "application/x-www-form-urlencoded"))
+                                    .withBody(cri.createTokenRequest(authorizationCode)));
+            if (Objects.isNull(token)) {
+                errors.get(Step.JOURNEY).increment();
+                return;
+            }
+            record(Step.JOURNEY, System.nanoTime() - scheduledNanos);
+        } catch (RuntimeException e) {
+            errors.get(Step.JOURNEY).increment();
+        }
+    }
+
+    /** Returns the response body, or {@code null} when the handler did not succeed. */
+    private JsonNode call(
+            Step step,
+            RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler,
+            APIGatewayProxyRequestEvent request) {
+        long startNanos = System.nanoTime();
+        APIGatewayProxyResponseEvent response =
+                handler.handleRequest(request, new LocalContext(step.getLabel()));
+        record(step, System.nanoTime() - startNanos);
+        if (Objects.isNull(response.getStatusCode()) || response.getStatusCode() / 100 != 2) {
+            errors.get(step).increment();
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.getBody());
+        } catch (JsonProcessingException e) {
+            errors.get(step).increment();
+            return null;
+        }
+    }
+
+    private void record(Step step, long elapsedNanos) {
+        recorders.get(step).recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    private void reset() {
+        for (Step step : Step.values()) {
+            recorders.get(step).reset();
+            errors.get(step).reset();
+        }
+        dropped.reset();
+    }
+
+    private long nextIntervalNanos(long elapsedNanos, Random random) {
+        double ratePerSecond = options.rate;
+        if (options.rampUpSeconds > 0) {
+            double rampedShare =
+                    (double) elapsedNanos / TimeUnit.SECONDS.toNanos(options.rampUpSeconds);
+            ratePerSecond = Math.max(1, options.rate * Math.min(1, rampedShare));
+        }
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        double intervalNanos =
+                options.poisson
+                        ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos
+                        : meanIntervalNanos;
+        return Math.max(1, (long) intervalNanos);
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        for (long remainingNanos = deadlineNanos - System.nanoTime();
+                remainingNanos > 0;
+                remainingNanos = deadlineNanos - System.nanoTime()) {
+            LockSupport.parkNanos(remainingNanos);
+        }
+    }
+
+    static final class Options {
+        private int users = 1000;
+        private double rate = 200;
+        private long durationSeconds = 60;
+        private long warmupSeconds = 10;
+        private long rampUpSeconds;
+        private boolean poisson;
+        private long seed = 42;
+        private Path reportDir;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--users":
+                        options.users = Integer.parseInt(args[++i]);
+                        break;
+                    case "--rate":
+                        options.rate = Double.parseDouble(args[++i]);
+                        break;
+                    case "--duration":
+                        options.durationSeconds = Long.parseLong(args[++i]);
+                        break;
+                    case "--warmup":
+                        options.warmupSeconds = Long.parseLong(args[++i]);
+                        break;
+                    case "--ramp-up":
+                        options.rampUpSeconds = Long.parseLong(args[++i]);
+                        break;
+                    case "--poisson":
+                        options.poisson = true;
+                        break;
+                    case "--seed":
+                        options.seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--report-dir":
+                        options.reportDir = Path.of(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (options.users < 1 || options.rate <= 0 || options.durationSeconds < 1) {
+                throw new IllegalArgumentException(
+                        "Expected at least one user, a positive rate and duration");
+            }
+            return options;
+        }
+    }
+
+    private static final class UserThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "user-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
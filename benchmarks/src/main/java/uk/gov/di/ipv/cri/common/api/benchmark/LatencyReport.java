@@ -0,0 +1,111 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint latency percentiles and throughput from a {@link JourneySimulator} or {@link
+ * TraceReplayer} run, with latencies recorded in microseconds and reported in milliseconds.
+ */
+final class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String ROW_FORMAT = "%-14s %10s %8s %9s %9s %9s %9s %9s %9s%n";
+
+    private final String headline;
+    private final Map<String, StepResult> results;
+    private final long elapsedNanos;
+
+    /**
+     * @param headline printed above the table
+     * @param results by label, in the order they are printed
+     */
+    LatencyReport(String headline, Map<String, StepResult> results, long elapsedNanos) {
+        this.headline = headline;
+        this.results = results;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void print(PrintStream out) {
+        double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf("%s in %.1fs%n%n", headline, elapsedSeconds);
+        out.printf(
+                ROW_FORMAT,
+                "endpoint",
+                "requests",
+                "errors",
+                "per sec",
+                "p50 ms",
+                "p90 ms",
+                "p99 ms",
+                "p99.9 ms",
+                "max ms");
+        for (Map.Entry<String, StepResult> entry : results.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            out.printf(
+                    ROW_FORMAT,
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    entry.getValue().errors,
+                    String.format("%.1f", histogram.getTotalCount() / elapsedSeconds),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+    }
+
+    /**
+     * Writes the summary and each endpoint's full percentile distribution, which HdrHistogram's
+     * plotter reads, to {@code directory}.
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out =
+                new PrintStream(
+                        Files.newOutputStream(directory.resolve("summary.txt")),
+                        false,
+                        StandardCharsets.UTF_8)) {
+            print(out);
+        }
+        for (Map.Entry<String, StepResult> entry : results.entrySet()) {
+            try (PrintStream out =
+                    new PrintStream(
+                            Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")),
+                            false,
+                            StandardCharsets.UTF_8)) {
+                entry.getValue().histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / MICROS_PER_MILLI);
+    }
+
+    static final class StepResult {
+        private final Histogram histogram;
+        private final long errors;
+
+        StepResult(Histogram histogram, long errors) {
+            this.histogram = histogram;
+            this.errors = errors;
+        }
+
+        Histogram getHistogram() {
+            return histogram;
+        }
+
+        long getErrors() {
+            return errors;
+        }
+    }
+}
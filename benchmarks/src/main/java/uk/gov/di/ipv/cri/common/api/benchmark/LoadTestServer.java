@@ -0,0 +1,158 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import software.amazon.awssdk.http.HttpStatusCode;
+import uk.gov.di.ipv.cri.common.api.testfixtures.LocalApiServer;
+import uk.gov.di.ipv.cri.common.api.util.RequestTraceWriter;
+import uk.gov.di.ipv.cri.common.library.util.ApiGatewayResponseGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Serves {@code /session}, {@code /authorization} and {@code /token} from one {@link InMemoryCri}
+ * until the process is stopped, as a target for sustained local load tests.
+ *
+ * <p>Three fixture routes let a load generator complete a journey without holding any keys:
+ *
+ * <ul>
+ *   <li>{@code GET /fixtures/session-request} returns a signed and encrypted body for {@code
+ *       /session}
+ *   <li>{@code POST /fixtures/authorization-code} stores an authorization code against the
+ *       session in the {@code session-id} header and returns it as {@code code}
+ *   <li>{@code GET /fixtures/token-request?code=} returns a form body for {@code /token} with a
+ *       signed client assertion
+ * </ul>
+ *
+ * <p>Options are {@code --port} (default 8080), {@code --threads}, {@code --virtual-threads},
+ * which needs Java 21, {@code --log} for a line per request, and {@code --trace} to capture the
+ * session, authorization and token requests to a {@link RequestTraceWriter} trace for the trace
+ * replayer. The trace is closed when the server stops.
+ */
+public final class LoadTestServer {
+
+    static final int DEFAULT_PORT = 8080;
+
+    private LoadTestServer() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    public static void main(String[] args) throws IOException {
+        LocalApiServer.Builder builder = LocalApiServer.builder().port(DEFAULT_PORT);
+        Path trace = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    builder.port(Integer.parseInt(args[++i]));
+                    break;
+                case "--threads":
+                    builder.threads(Integer.parseInt(args[++i]));
+                    break;
+                case "--virtual-threads":
+                    builder.virtualThreads(true);
+                    break;
+                case "--log":
+                    builder.requestLogging(true);
+                    break;
+                case "--trace":
+                    trace = Path.of(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        RequestTraceWriter traceWriter =
+                Objects.isNull(trace) ? null : RequestTraceWriter.create(trace);
+        LocalApiServer server = route(builder, new InMemoryCri(), traceWriter).build().start();
+        Runtime.getRuntime()
+                .addShutdownHook(
+                        new Thread(
+                                () -> {
+                                    server.close();
+                                    closeTrace(traceWriter);
+                                }));
+    }
+
+    static LocalApiServer.Builder route(
+            LocalApiServer.Builder builder, InMemoryCri cri, RequestTraceWriter traceWriter) {
+        return builder.route("/session", "session", traced(cri.getSessionHandler(), traceWriter))
+                .route(
+                        "/authorization",
+                        "authorization",
+                        traced(cri.getAuthorizationHandler(), traceWriter))
+                .route("/token", "token", traced(cri.getAccessTokenHandler(), traceWriter))
+                .route(
+                        "/fixtures/session-request",
+                        "fixtures",
+                        (input, context) -> ok(cri.createSessionRequest(), "application/json"))
+                .route(
+                        "/fixtures/authorization-code",
+                        "fixtures",
+                        (input, context) -> {
+                            String authorizationCode =
+                                    cri.issueAuthorizationCode(
+                                            input.getHeaders().get("session-id"));
+                            return Objects.isNull(authorizationCode)
+                                    ? ApiGatewayResponseGenerator.proxyJsonResponse(
+                                            HttpStatusCode.NOT_FOUND,
+                                            Map.of("message", "Session not found"))
+                                    : ApiGatewayResponseGenerator.proxyJsonResponse(
+                                            HttpStatusCode.OK, Map.of("code", authorizationCode));
+                        })
+                .route(
+                        "/fixtures/token-request",
+                        "fixtures",
+                        (input, context) -> {
+                            String authorizationCode =
+                                    Objects.isNull(input.getQueryStringParameters())
+                                            ? null
+                                            : input.getQueryStringParameters().get("code");
+                            return Objects.isNull(authorizationCode)
+                                    ? ApiGatewayResponseGenerator.proxyJsonResponse(
+                                            HttpStatusCode.BAD_REQUEST,
+                                            Map.of("message", "Missing code"))
+                                    : ok(
+                                            cri.createTokenRequest(authorizationCode),
+                                            "application/x-www-form-urlencoded");
+                        });
+    }
+
+    private static RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>
+            traced(
+                    RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>
+                            handler,
+                    RequestTraceWriter traceWriter) {
+        if (Objects.isNull(traceWriter)) {
+            return handler;
+        }
+        return (input, context) -> {
+            APIGatewayProxyResponseEvent response = handler.handleRequest(input, context);
+            traceWriter.capture(input, response);
+            return response;
+        };
+    }
+
+    private static void closeTrace(RequestTraceWriter traceWriter) {
+        if (Objects.isNull(traceWriter)) {
+            return;
+        }
+        try {
+            traceWriter.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static APIGatewayProxyResponseEvent ok(String body, String contentType) {
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(HttpStatusCode.OK)
+                .withHeaders(Map.of("Content-Type", contentType))
+                .withBody(body);
+    }
+}
@@ -0,0 +1,33 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+final class SessionItems {
+
+    private SessionItems() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    static SessionItem createSessionItem() {
+        Instant now = Instant.now();
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setSessionId(UUID.randomUUID());
+        sessionItem.setExpiryDate(now.plus(1, ChronoUnit.HOURS).getEpochSecond());
+        sessionItem.setClientId("ipv-core");
+        sessionItem.setState("state");
+        sessionItem.setRedirectUri(URI.create("https://www.example.com/callback"));
+        sessionItem.setAuthorizationCode(UUID.randomUUID().toString());
+        sessionItem.setAuthorizationCodeExpiryDate(
+                now.plus(10, ChronoUnit.MINUTES).getEpochSecond());
+        sessionItem.setSubject("urn:fdc:gov.uk:2022:" + UUID.randomUUID());
+        sessionItem.setPersistentSessionId(UUID.randomUUID().toString());
+        sessionItem.setClientSessionId(UUID.randomUUID().toString());
+        sessionItem.setClientIpAddress("192.0.2.0");
+        return sessionItem;
+    }
+}
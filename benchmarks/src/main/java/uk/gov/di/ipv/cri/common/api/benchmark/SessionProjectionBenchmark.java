@@ -0,0 +1,76 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Unmarshalling cost of the full session item against the attributes the authorization handler
+ * projects. Setup prints both item sizes, which are what the read response carries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SessionProjectionBenchmark {
+
+    // Mirrors AuthorizationHandler.SESSION_ATTRIBUTES
+    private static final List<String> PROJECTED_ATTRIBUTES =
+            List.of(
+                    "sessionId",
+                    "expiryDate",
+                    "clientId",
+                    "clientSessionId",
+                    "redirectUri",
+                    "authorizationCode",
+                    "authorizationCodeExpiryDate");
+
+    private TableSchema<SessionItem> tableSchema;
+    private Map<String, AttributeValue> fullItem;
+    private Map<String, AttributeValue> projectedItem;
+
+    @Setup
+    public void setUp() {
+        tableSchema = TableSchemaRegistry.sessionItemSchema();
+        fullItem = tableSchema.itemToMap(SessionItems.createSessionItem(), true);
+        projectedItem =
+                fullItem.entrySet().stream()
+                        .filter(entry -> PROJECTED_ATTRIBUTES.contains(entry.getKey()))
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        System.out.printf(
+                "%nFull session item: %d attributes, %d bytes%n"
+                        + "Projected session item: %d attributes, %d bytes%n",
+                fullItem.size(),
+                DynamoDbItemSizes.itemSize(fullItem),
+                projectedItem.size(),
+                DynamoDbItemSizes.itemSize(projectedItem));
+    }
+
+    @Benchmark
+    public SessionItem fullMapToItem() {
+        return tableSchema.mapToItem(fullItem);
+    }
+
+    @Benchmark
+    public SessionItem projectedMapToItem() {
+        return tableSchema.mapToItem(projectedItem);
+    }
+}
@@ -0,0 +1,82 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.RSADecrypter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.cri.common.api.service.SessionRequestService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryConfigurationService;
+import uk.gov.di.ipv.cri.common.library.domain.SessionRequest;
+import uk.gov.di.ipv.cri.common.library.exception.ClientConfigurationException;
+import uk.gov.di.ipv.cri.common.library.exception.SessionValidationException;
+import uk.gov.di.ipv.cri.common.library.service.JWTDecrypter;
+import uk.gov.di.ipv.cri.common.library.service.JWTVerifier;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link SessionRequestService#validateSessionRequest}: parsing the body, decrypting the
+ * request JWT, mapping its claims and verifying its signature. Decryption uses a local RSA key in
+ * place of the KMS call, so the figures exclude the KMS round trip. Run with {@code -prof gc} for
+ * the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SessionRequestValidationBenchmark {
+
+    @Param({"0", "1", "20"})
+    private int addressCount;
+
+    @Param({"RS256", "ES384"})
+    private String signingAlgorithm;
+
+    @Param({"false", "true"})
+    private boolean evidenceRequested;
+
+    private SessionRequestService sessionRequestService;
+    private String requestBody;
+
+    @Setup
+    public void setUp() {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(signingAlgorithm);
+        KeyPair encryptionKeyPair = SessionRequests.generateEncryptionKeyPair();
+        requestBody =
+                SessionRequests.createRequestBody(
+                        algorithm,
+                        addressCount,
+                        evidenceRequested,
+                        (RSAPublicKey) encryptionKeyPair.getPublic());
+        sessionRequestService =
+                new SessionRequestService(
+                        SessionRequestService.registerModules(new ObjectMapper()),
+                        new JWTVerifier(),
+                        new InMemoryConfigurationService()
+                                .withParametersForPath(
+                                        SessionRequests.JWT_AUTHENTICATION_PATH,
+                                        SessionRequests.createClientAuthenticationConfig(
+                                                algorithm)),
+                        new JWTDecrypter(new RSADecrypter(encryptionKeyPair.getPrivate())));
+    }
+
+    @Benchmark
+    public SessionRequest validateSessionRequest()
+            throws SessionValidationException, ClientConfigurationException {
+        return sessionRequestService.validateSessionRequest(requestBody);
+    }
+}
@@ -0,0 +1,241 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSAEncrypter;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Session requests as the core back-end sends them: a request JWT signed with one of the session
+ * module's test keys and encrypted to a locally generated RSA key that stands in for the KMS key.
+ */
+final class SessionRequests {
+
+    static final String CLIENT_ID = "ipv-core";
+    static final String JWT_AUTHENTICATION_PATH = "/clients/ipv-core/jwtAuthentication";
+    static final String REDIRECT_URI = "https://www.example.com/callback";
+
+    private SessionRequests() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    static KeyPair generateEncryptionKeyPair() {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            return keyPairGenerator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns a session request body whose shared claims hold {@code addressCount} addresses, with
+     * an evidence request when {@code evidenceRequested} is set.
+     */
+    static String createRequestBody(
+            JWSAlgorithm signingAlgorithm,
+            int addressCount,
+            boolean evidenceRequested,
+            RSAPublicKey encryptionKey) {
+        try {
+            SignedJWT signedJWT =
+                    new SignedJWT(
+                            new JWSHeader.Builder(signingAlgorithm)
+                                    .keyID(UUID.randomUUID().toString())
+                                    .build(),
+                            createClaims(addressCount, evidenceRequested));
+            signedJWT.sign(createSigner(signingAlgorithm));
+
+            JWEObject jweObject =
+                    new JWEObject(
+                            new JWEHeader.Builder(
+                                            JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM)
+                                    .contentType("JWT")
+                                    .build(),
+                            new Payload(signedJWT));
+            jweObject.encrypt(new RSAEncrypter(encryptionKey));
+
+            return new ObjectMapper()
+                    .writeValueAsString(
+                            Map.of("client_id", CLIENT_ID, "request", jweObject.serialize()));
+        } catch (JOSEException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** The client's JWT authentication parameters for verifying requests signed with the key. */
+    static Map<String, String> createClientAuthenticationConfig(JWSAlgorithm signingAlgorithm) {
+        try {
+            Map<String, String> config = new HashMap<>();
+            config.put("redirectUri", REDIRECT_URI);
+            config.put("authenticationAlg", signingAlgorithm.getName());
+            config.put("issuer", CLIENT_ID);
+            config.put(
+                    "publicCertificateToVerify",
+                    Base64.getEncoder()
+                            .encodeToString(readCertificate(signingAlgorithm).getEncoded()));
+            return config;
+        } catch (CertificateException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The EC test key as a JWK, so the same client can sign both its session requests and its
+     * token request client assertions with {@link JWSAlgorithm#ES384}.
+     */
+    static ECKey readEcSigningKey() {
+        try {
+            return new ECKey.Builder(
+                            ECKey.parse((X509Certificate) readCertificate(JWSAlgorithm.ES384)))
+                    .privateKey((ECPrivateKey) readPrivateKey(JWSAlgorithm.ES384))
+                    .keyID(CLIENT_ID)
+                    .build();
+        } catch (CertificateException | JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JWTClaimsSet createClaims(int addressCount, boolean evidenceRequested) {
+        Instant now = Instant.now();
+        JWTClaimsSet.Builder claimsBuilder =
+                new JWTClaimsSet.Builder()
+                        .audience(TokenRequests.AUDIENCE)
+                        .issueTime(Date.from(now))
+                        .issuer(CLIENT_ID)
+                        .notBeforeTime(Date.from(now))
+                        .expirationTime(Date.from(now.plus(1, ChronoUnit.HOURS)))
+                        .subject("urn:fdc:gov.uk:2022:" + UUID.randomUUID())
+                        .claim("claims", Map.of("vc_http_api", Map.of()))
+                        .claim("response_type", "code")
+                        .claim("client_id", CLIENT_ID)
+                        .claim("redirect_uri", REDIRECT_URI)
+                        .claim("state", UUID.randomUUID().toString())
+                        .claim("persistent_session_id", UUID.randomUUID().toString())
+                        .claim("govuk_signin_journey_id", UUID.randomUUID().toString())
+                        .claim("shared_claims", createSharedClaims(addressCount));
+        if (evidenceRequested) {
+            Map<String, Object> evidenceRequest = new HashMap<>();
+            evidenceRequest.put("scoringPolicy", "gpg45");
+            evidenceRequest.put("strengthScore", 2);
+            evidenceRequest.put("validityScore", 2);
+            evidenceRequest.put("verificationScore", 2);
+            claimsBuilder.claim("evidence_requested", evidenceRequest);
+        }
+        return claimsBuilder.build();
+    }
+
+    private static Map<String, Object> createSharedClaims(int addressCount) {
+        List<Map<String, Object>> addresses = new ArrayList<>(addressCount);
+        LocalDate validUntil = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < addressCount; i++) {
+            LocalDate validFrom = validUntil.minusYears(2L * (i + 1));
+            Map<String, Object> address = new HashMap<>();
+            address.put("uprn", 100120012077L + i);
+            address.put("buildingNumber", String.valueOf(i + 1));
+            address.put("buildingName", "Flat " + (i + 10));
+            address.put("streetName", "Hadley Road");
+            address.put("addressLocality", "Bath");
+            address.put("postalCode", "BA2 5AA");
+            address.put("addressCountry", "GB");
+            address.put("validFrom", validFrom.toString());
+            if (i > 0) {
+                address.put("validUntil", validUntil.toString());
+            }
+            addresses.add(address);
+            validUntil = validFrom;
+        }
+        return Map.of(
+                "@context",
+                List.of(
+                        "https://www.w3.org/2018/credentials/v1",
+                        "https://vocab.london.cloudapps.digital/contexts/identity-v1.jsonld"),
+                "name",
+                List.of(
+                        Map.of(
+                                "nameParts",
+                                List.of(
+                                        Map.of("type", "GivenName", "value", "KENNETH"),
+                                        Map.of("type", "FamilyName", "value", "DECERQUEIRA")))),
+                "birthDate",
+                List.of(Map.of("value", "1965-07-08")),
+                "address",
+                addresses);
+    }
+
+    private static JWSSigner createSigner(JWSAlgorithm signingAlgorithm) throws JOSEException {
+        PrivateKey privateKey = readPrivateKey(signingAlgorithm);
+        return JWSAlgorithm.Family.EC.contains(signingAlgorithm)
+                ? new ECDSASigner((ECPrivateKey) privateKey)
+                : new RSASSASigner(privateKey);
+    }
+
+    private static PrivateKey readPrivateKey(JWSAlgorithm signingAlgorithm) {
+        boolean ec = JWSAlgorithm.Family.EC.contains(signingAlgorithm);
+        try (InputStream is = getResource(ec ? "signing_ec.pk8" : "address-cri-test.pk8")) {
+            return KeyFactory.getInstance(ec ? "EC" : "RSA")
+                    .generatePrivate(new PKCS8EncodedKeySpec(is.readAllBytes()));
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Certificate readCertificate(JWSAlgorithm signingAlgorithm)
+            throws CertificateException {
+        boolean ec = JWSAlgorithm.Family.EC.contains(signingAlgorithm);
+        try (InputStream is =
+                getResource(ec ? "signing_ec.crt.pem" : "address-cri-test.crt.pem")) {
+            return CertificateFactory.getInstance("X.509").generateCertificate(is);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static InputStream getResource(String name) {
+        InputStream is = SessionRequests.class.getClassLoader().getResourceAsStream(name);
+        if (is == null) {
+            throw new IllegalStateException("Missing benchmark resource " + name);
+        }
+        return is;
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Steady-state cost of marshalling a session item with the bean and static table schemas. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TableSchemaMarshallingBenchmark {
+
+    private TableSchema<SessionItem> beanTableSchema;
+    private TableSchema<SessionItem> staticTableSchema;
+    private SessionItem sessionItem;
+    private Map<String, AttributeValue> sessionItemAttributes;
+
+    @Setup
+    public void setUp() {
+        beanTableSchema = TableSchema.fromBean(SessionItem.class);
+        staticTableSchema = TableSchemaRegistry.sessionItemSchema();
+        sessionItem = SessionItems.createSessionItem();
+        sessionItemAttributes = staticTableSchema.itemToMap(sessionItem, true);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> beanItemToMap() {
+        return beanTableSchema.itemToMap(sessionItem, true);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> staticItemToMap() {
+        return staticTableSchema.itemToMap(sessionItem, true);
+    }
+
+    @Benchmark
+    public SessionItem beanMapToItem() {
+        return beanTableSchema.mapToItem(sessionItemAttributes);
+    }
+
+    @Benchmark
+    public SessionItem staticMapToItem() {
+        return staticTableSchema.mapToItem(sessionItemAttributes);
+    }
+}
@@ -0,0 +1,41 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start cost of building a session table schema and marshalling the first item with it.
+ * Every measurement runs in a fresh JVM, so class loading and lambda metafactory bootstrap are
+ * included in the same way as on a Lambda cold start.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class TableSchemaStartupBenchmark {
+
+    @Benchmark
+    public Map<String, AttributeValue> beanTableSchemaFirstUse() {
+        return TableSchema.fromBean(SessionItem.class)
+                .itemToMap(SessionItems.createSessionItem(), true);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> staticTableSchemaFirstUse() {
+        return TableSchemaRegistry.sessionItemSchema()
+                .itemToMap(SessionItems.createSessionItem(), true);
+    }
+}
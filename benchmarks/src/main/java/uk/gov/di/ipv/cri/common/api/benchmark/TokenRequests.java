@@ -0,0 +1,106 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.impl.ECDSA;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.util.URLUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Form encoded token requests as the core back-end sends them, authenticated by a {@code
+ * client_assertion} signed with an EC key.
+ */
+final class TokenRequests {
+
+    static final String AUDIENCE = "https://review-c.account.gov.uk";
+    static final String CLIENT_ASSERTION_TYPE =
+            "urn:ietf:params:oauth:client-assertion-type:jwt-bearer";
+
+    private TokenRequests() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    static ECKey generateSigningKey() {
+        try {
+            return new ECKeyGenerator(Curve.P_256).keyID(UUID.randomUUID().toString()).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** The client's JWT authentication parameters for verifying assertions signed with the key. */
+    static Map<String, String> createClientAuthenticationConfig(ECKey signingKey) {
+        Map<String, String> config = new HashMap<>();
+        config.put("audience", AUDIENCE);
+        config.put("authenticationAlg", getSigningAlgorithm(signingKey).getName());
+        config.put("issuer", SessionRequests.CLIENT_ID);
+        config.put("redirectUri", SessionRequests.REDIRECT_URI);
+        config.put(
+                "publicSigningJwkBase64",
+                Base64.getEncoder()
+                        .encodeToString(
+                                signingKey
+                                        .toPublicJWK()
+                                        .toJSONString()
+                                        .getBytes(StandardCharsets.UTF_8)));
+        return config;
+    }
+
+    static String createRequestBody(String authorizationCode, ECKey signingKey) {
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        parameters.put("grant_type", List.of("authorization_code"));
+        parameters.put("code", List.of(authorizationCode));
+        parameters.put("redirect_uri", List.of(SessionRequests.REDIRECT_URI));
+        parameters.put("client_assertion_type", List.of(CLIENT_ASSERTION_TYPE));
+        parameters.put("client_assertion", List.of(createClientAssertion(signingKey)));
+        return URLUtils.serializeParameters(parameters);
+    }
+
+    private static JWSAlgorithm getSigningAlgorithm(ECKey signingKey) {
+        try {
+            return ECDSA.resolveAlgorithm(signingKey.getCurve());
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String createClientAssertion(ECKey signingKey) {
+        Instant now = Instant.now();
+        try {
+            SignedJWT clientAssertion =
+                    new SignedJWT(
+                            new JWSHeader.Builder(getSigningAlgorithm(signingKey))
+                                    .keyID(signingKey.getKeyID())
+                                    .build(),
+                            new JWTClaimsSet.Builder()
+                                    .issuer(SessionRequests.CLIENT_ID)
+                                    .subject(SessionRequests.CLIENT_ID)
+                                    .audience(AUDIENCE)
+                                    .issueTime(Date.from(now))
+                                    .expirationTime(Date.from(now.plus(1, ChronoUnit.HOURS)))
+                                    .jwtID(UUID.randomUUID().toString())
+                                    .build());
+            clientAssertion.sign(new ECDSASigner(signingKey));
+            return clientAssertion.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
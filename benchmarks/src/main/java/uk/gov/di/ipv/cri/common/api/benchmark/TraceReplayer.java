@@ -0,0 +1,389 @@
+package uk.gov.di.ipv.cri.common.api.benchmark;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.HdrHistogram.Recorder;
+import uk.gov.di.ipv.cri.common.api.testfixtures.LocalContext;
+import uk.gov.di.ipv.cri.common.api.util.RequestTraceReader;
+import uk.gov.di.ipv.cri.common.api.util.RequestTraceRecord;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a request trace captured by the {@link LoadTestServer} against an {@link InMemoryCri} in
+ * this JVM, at the pacing it was captured at or faster.
+ *
+ * <p>A trace holds no request bodies or ids, so each request is made again with the test keys.
+ * A session request gets as many addresses as bring its encrypted request closest to the captured
+ * size, and one that failed at capture is encrypted to a key the CRI does not hold. An
+ * authorization request that succeeded at capture uses the session its captured session request
+ * created in the replay, which is issued a new authorization code first, and a token request
+ * redeems the code its captured authorization request returned in the replay. Requests whose
+ * session or code was not created in the trace, or failed at capture, use unknown ids instead.
+ *
+ * <p>Options are {@code --trace}, {@code --speed} (1), which divides the captured intervals and
+ * replays as fast as possible when 0, {@code --users} (256), the most requests in flight at once,
+ * and {@code --report-dir}. The report counts the requests that failed at capture alongside those
+ * that fail in the replay.
+ */
+public final class TraceReplayer {
+
+    private static final int MAX_ADDRESS_COUNT = 16;
+    private static final long DEPENDENCY_TIMEOUT_SECONDS = 30;
+
+    private final InMemoryCri cri;
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int[] sessionRequestSizes = new int[MAX_ADDRESS_COUNT + 1];
+    private final Map<Long, CompletableFuture<JsonNode>> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<String>> authorizationCodes =
+            new ConcurrentHashMap<>();
+    private final Map<RequestTraceRecord.Endpoint, Recorder> recorders =
+            new EnumMap<>(RequestTraceRecord.Endpoint.class);
+    private final Map<RequestTraceRecord.Endpoint, LongAdder> errors =
+            new EnumMap<>(RequestTraceRecord.Endpoint.class);
+    private final Map<RequestTraceRecord.Endpoint, LongAdder> capturedErrors =
+            new EnumMap<>(RequestTraceRecord.Endpoint.class);
+
+    TraceReplayer(InMemoryCri cri, Options options) {
+        this.cri = cri;
+        this.options = options;
+        for (RequestTraceRecord.Endpoint endpoint : RequestTraceRecord.Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(3));
+            errors.put(endpoint, new LongAdder());
+            capturedErrors.put(endpoint, new LongAdder());
+        }
+        for (int addressCount = 1; addressCount <= MAX_ADDRESS_COUNT; addressCount++) {
+            JsonNode sessionRequest = readJson(cri.createSessionRequest(addressCount));
+            sessionRequestSizes[addressCount] = sessionRequest.path("request").asText().length();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Options options = Options.parse(args);
+        LatencyReport report;
+        try (RequestTraceReader trace = RequestTraceReader.open(options.trace)) {
+            report = new TraceReplayer(new InMemoryCri(), options).replay(trace);
+        }
+        report.print(System.err);
+        if (Objects.nonNull(options.reportDir)) {
+            report.write(options.reportDir);
+        }
+    }
+
+    LatencyReport replay(RequestTraceReader trace) throws InterruptedException {
+        // Every session and code the replay will create is known before any request depends on it
+        for (int index = 0; index < trace.size(); index++) {
+            RequestTraceRecord record = trace.get(index);
+            if (!record.isSuccessful()) {
+                continue;
+            }
+            if (record.getEndpoint() == RequestTraceRecord.Endpoint.SESSION
+                    && record.getSessionPseudonym() != 0) {
+                sessions.put(record.getSessionPseudonym(), new CompletableFuture<>());
+            } else if (record.getEndpoint() == RequestTraceRecord.Endpoint.AUTHORIZATION
+                    && record.getAuthorizationCodePseudonym() != 0) {
+                authorizationCodes.put(
+                        record.getAuthorizationCodePseudonym(), new CompletableFuture<>());
+            }
+        }
+
+        // Tasks start in trace order, so a request only waits on one that has already started
+        ExecutorService executor =
+                Executors.newFixedThreadPool(options.users, new ReplayThreadFactory());
+        long startNanos = System.nanoTime();
+        long firstOffsetMicros = trace.size() == 0 ? 0 : trace.get(0).getOffsetMicros();
+        for (int index = 0; index < trace.size(); index++) {
+            RequestTraceRecord record = trace.get(index);
+            if (options.speed > 0) {
+                parkUntil(
+                        startNanos
+                                + (long)
+                                        (TimeUnit.MICROSECONDS.toNanos(
+                                                        record.getOffsetMicros()
+                                                                - firstOffsetMicros)
+                                                / options.speed));
+            }
+            if (!record.isSuccessful()) {
+                capturedErrors.get(record.getEndpoint()).increment();
+            }
+            executor.execute(() -> replay(record));
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Map<String, LatencyReport.StepResult> results = new LinkedHashMap<>();
+        long replayedErrors = 0;
+        long originalErrors = 0;
+        for (RequestTraceRecord.Endpoint endpoint : RequestTraceRecord.Endpoint.values()) {
+            results.put(
+                    endpoint.name().toLowerCase(Locale.ROOT),
+                    new LatencyReport.StepResult(
+                            recorders.get(endpoint).getIntervalHistogram(),
+                            errors.get(endpoint).sum()));
+            replayedErrors += errors.get(endpoint).sum();
+            originalErrors += capturedErrors.get(endpoint).sum();
+        }
+        return new LatencyReport(
+                String.format(
+                        "%d requests replayed at %s speed, %d failed where %d failed at capture",
+                        trace.size(),
+                        options.speed > 0 ? options.speed + "x" : "unpaced",
+                        replayedErrors,
+                        originalErrors),
+                results,
+                elapsedNanos);
+    }
+
+    private void replay(RequestTraceRecord record) {
+        switch (record.getEndpoint()) {
+            case SESSION:
+                replaySession(record);
+                break;
+            case AUTHORIZATION:
+                replayAuthorization(record);
+                break;
+            case TOKEN:
+                replayToken(record);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + record.getEndpoint());
+        }
+    }
+
+    private void replaySession(RequestTraceRecord record) {
+        CompletableFuture<JsonNode> session = sessions.get(record.getSessionPseudonym());
+        JsonNode response = null;
+        try {
+            int addressCount = getAddressCount(record.getRequestSize());
+            response =
+                    call(
+                            RequestTraceRecord.Endpoint.SESSION,
+                            cri.getSessionHandler(),
+                            new APIGatewayProxyRequestEvent()
+                                    .withHttpMethod("POST")
+                                    .withPath("/session")
+                                    .withHeaders(
+                                            Map.of(
+                                                    "content-type",
+                                                    "application/json",
+                                                    "x-forwarded-for",
+                                                    "192.0.2.0"))
+                                    .withBody(
+                                            record.isSuccessful()
+                                                    ? cri.createSessionRequest(addressCount)
+                                                    : cri.createUndecryptableSessionRequest(
+                                                            addressCount)));
+        } finally {
+            if (Objects.nonNull(session)) {
+                session.complete(response);
+            }
+        }
+    }
+
+    private void replayAuthorization(RequestTraceRecord record) {
+        CompletableFuture<String> authorizationCode =
+                authorizationCodes.get(record.getAuthorizationCodePseudonym());
+        String issuedCode = null;
+        try {
+            JsonNode session =
+                    record.isSuccessful()
+                            ? await(sessions.get(record.getSessionPseudonym()))
+                            : null;
+            String sessionId =
+                    Objects.isNull(session)
+                            ? UUID.randomUUID().toString()
+                            : session.path("session_id").asText();
+            if (Objects.nonNull(authorizationCode)) {
+                issuedCode = cri.issueAuthorizationCode(sessionId);
+            }
+            JsonNode response =
+                    call(
+                            RequestTraceRecord.Endpoint.AUTHORIZATION,
+                            cri.getAuthorizationHandler(),
+                            new APIGatewayProxyRequestEvent()
+                                    .withHttpMethod("GET")
+                                    .withPath("/authorization")
+                                    .withHeaders(Map.of("session-id", sessionId))
+                                    .withQueryStringParameters(
+                                            Map.of(
+                                                    "client_id",
+                                                    SessionRequests.CLIENT_ID,
+                                                    "redirect_uri",
+                                                    SessionRequests.REDIRECT_URI,
+                                                    "response_type",
+                                                    "code",
+                                                    "scope",
+                                                    "openid",
+                                                    "state",
+                                                    Objects.isNull(session)
+                                                            ? "state"
+                                                            : session.path("state").asText())));
+            if (Objects.isNull(response)) {
+                issuedCode = null;
+            }
+        } finally {
+            if (Objects.nonNull(authorizationCode)) {
+                authorizationCode.complete(issuedCode);
+            }
+        }
+    }
+
+    private void replayToken(RequestTraceRecord record) {
+        String authorizationCode =
+                record.isSuccessful()
+                        ? await(authorizationCodes.get(record.getAuthorizationCodePseudonym()))
+                        : null;
+        call(
+                RequestTraceRecord.Endpoint.TOKEN,
+                cri.getAccessTokenHandler(),
+                new APIGatewayProxyRequestEvent()
+                        .withHttpMethod("POST")
+                        .withPath("/token")
+                        .withHeaders(Map.of("content-type", "application/x-www-form-urlencoded"))
+                        .withBody(
+                                cri.createTokenRequest(
+                                        Objects.isNull(authorizationCode)
+                                                ? UUID.randomUUID().toString()
+                                                : authorizationCode)));
+    }
+
+    /** Returns the response body, or {@code null} when the handler did not succeed. */
+    private JsonNode call(
+            RequestTraceRecord.Endpoint endpoint,
+            RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler,
+            APIGatewayProxyRequestEvent request) {
+        long startNanos = System.nanoTime();
+        APIGatewayProxyResponseEvent response;
+        try {
+            response =
+                    handler.handleRequest(
+                            request, new LocalContext(endpoint.name().toLowerCase(Locale.ROOT)));
+        } catch (RuntimeException e) {
+            errors.get(endpoint).increment();
+            return null;
+        } finally {
+            recorders
+                    .get(endpoint)
+                    .recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        }
+        if (Objects.isNull(response.getStatusCode()) || response.getStatusCode() / 100 != 2) {
+            errors.get(endpoint).increment();
+            return null;
+        }
+        JsonNode body = readJson(response.getBody());
+        return body.isMissingNode() ? null : body;
+    }
+
+    private int getAddressCount(int requestSize) {
+        int addressCount = 1;
+        for (int candidate = 2; candidate <= MAX_ADDRESS_COUNT; candidate++) {
+            if (Math.abs(sessionRequestSizes[candidate] - requestSize)
+                    < Math.abs(sessionRequestSizes[addressCount] - requestSize)) {
+                addressCount = candidate;
+            }
+        }
+        return addressCount;
+    }
+
+    private JsonNode readJson(String body) {
+        if (Objects.isNull(body)) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    /** Returns what the request the replay depends on produced, or {@code null}. */
+    private static <T> T await(CompletableFuture<T> dependency) {
+        if (Objects.isNull(dependency)) {
+            return null;
+        }
+        try {
+            return dependency.get(DEPENDENCY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        for (long remainingNanos = deadlineNanos - System.nanoTime();
+                remainingNanos > 0;
+                remainingNanos = deadlineNanos - System.nanoTime()) {
+            LockSupport.parkNanos(remainingNanos);
+        }
+    }
+
+    static final class Options {
+        private Path trace;
+        private double speed = 1;
+        private int users = 256;
+        private Path reportDir;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--trace":
+                        options.trace = Path.of(args[++i]);
+                        break;
+                    case "--speed":
+                        options.speed = Double.parseDouble(args[++i]);
+                        break;
+                    case "--users":
+                        options.users = Integer.parseInt(args[++i]);
+                        break;
+                    case "--report-dir":
+                        options.reportDir = Path.of(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (Objects.isNull(options.trace) || options.speed < 0 || options.users < 1) {
+                throw new IllegalArgumentException(
+                        "Expected a trace, a speed of at least 0 and at least one user");
+            }
+            return options;
+        }
+    }
+
+    private static final class ReplayThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "replay-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
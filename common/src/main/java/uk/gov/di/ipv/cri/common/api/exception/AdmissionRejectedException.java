@@ -0,0 +1,8 @@
+package uk.gov.di.ipv.cri.common.api.exception;
+
+/** Thrown when a call is shed by admission control, and is safe for the caller to retry. */
+public class AdmissionRejectedException extends RuntimeException {
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package uk.gov.di.ipv.cri.common.api.exception;
+
+/** Thrown instead of starting a downstream call that the invocation no longer has time for. */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,61 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+/**
+ * Session snapshots keyed by authorization code.
+ *
+ * <p>The authorization endpoint writes a snapshot before it hands a code to the client, so the
+ * token endpoint can resolve the code with a single strongly consistent GetItem instead of a
+ * query on the eventually consistent {@code authorizationCode-index} followed by a second read.
+ * Codes minted without a snapshot are still resolved through the index.
+ */
+public class AuthorizationCodeStore {
+
+    private final DynamoDbTable<SessionItem> table;
+    private final HedgedReads hedgedReads;
+
+    public AuthorizationCodeStore(String tableName, DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this(tableName, dynamoDbEnhancedClient, HedgedReads.direct());
+    }
+
+    public AuthorizationCodeStore(
+            String tableName,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient,
+            HedgedReads hedgedReads) {
+        this(
+                dynamoDbEnhancedClient.table(
+                        tableName, TableSchemaRegistry.authorizationCodeItemSchema()),
+                hedgedReads);
+    }
+
+    AuthorizationCodeStore(DynamoDbTable<SessionItem> table) {
+        this(table, HedgedReads.direct());
+    }
+
+    AuthorizationCodeStore(DynamoDbTable<SessionItem> table, HedgedReads hedgedReads) {
+        this.table = table;
+        this.hedgedReads = hedgedReads;
+    }
+
+    public void put(SessionItem sessionItem) {
+        table.putItem(sessionItem);
+    }
+
+    public SessionItem getItem(String authorizationCode) {
+        GetItemEnhancedRequest getItemEnhancedRequest =
+                GetItemEnhancedRequest.builder()
+                        .key(Key.builder().partitionValue(authorizationCode).build())
+                        .consistentRead(true)
+                        .build();
+        return hedgedReads.read(() -> table.getItem(getItemEnhancedRequest));
+    }
+
+    public void delete(String authorizationCode) {
+        table.deleteItem(Key.builder().partitionValue(authorizationCode).build());
+    }
+}
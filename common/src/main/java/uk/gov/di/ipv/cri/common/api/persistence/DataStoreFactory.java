@@ -0,0 +1,103 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityItem;
+
+import java.util.Collection;
+
+public final class DataStoreFactory {
+
+    static final String SESSION_TABLE = "SESSION_TABLE";
+    static final String PERSON_IDENTITY_TABLE = "PERSON_IDENTITY_TABLE";
+    static final String AUTHORIZATION_CODE_TABLE = "AUTHORIZATION_CODE_TABLE";
+    static final String SESSION_RESPONSE_TABLE = "SESSION_RESPONSE_TABLE";
+    static final String RATE_LIMIT_TABLE = "RATE_LIMIT_TABLE";
+
+    private DataStoreFactory() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    public static DataStore<SessionItem> createSessionDataStore(
+            DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        return new StaticSchemaDataStore<>(
+                getTableName(SESSION_TABLE),
+                TableSchemaRegistry.sessionItemSchema(),
+                dynamoDbEnhancedClient,
+                HedgedReads.fromEnvironment());
+    }
+
+    /** Reads only {@code attributesToProject} of each session and cannot write sessions. */
+    public static DataStore<SessionItem> createProjectedSessionDataStore(
+            DynamoDbEnhancedClient dynamoDbEnhancedClient, Collection<String> attributesToProject) {
+        return new ProjectedDataStore<>(
+                getTableName(SESSION_TABLE),
+                TableSchemaRegistry.sessionItemSchema(),
+                dynamoDbEnhancedClient,
+                attributesToProject,
+                HedgedReads.fromEnvironment());
+    }
+
+    public static DataStore<PersonIdentityItem> createPersonIdentityDataStore(
+            DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        return new StaticSchemaDataStore<>(
+                getTableName(PERSON_IDENTITY_TABLE),
+                TableSchemaRegistry.personIdentityItemSchema(),
+                dynamoDbEnhancedClient);
+    }
+
+    public static SessionTokenStore createSessionTokenStore(
+            DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        return new SessionTokenStore(getTableName(SESSION_TABLE), dynamoDbEnhancedClient);
+    }
+
+    /**
+     * Returns {@code null} when {@value #AUTHORIZATION_CODE_TABLE} is not set, in which case
+     * authorization codes are only resolved through the session table index.
+     */
+    public static AuthorizationCodeStore createAuthorizationCodeStore(
+            DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        String tableName = System.getenv(AUTHORIZATION_CODE_TABLE);
+        if (tableName == null || tableName.isBlank()) {
+            return null;
+        }
+        return new AuthorizationCodeStore(
+                tableName, dynamoDbEnhancedClient, HedgedReads.fromEnvironment());
+    }
+
+    /**
+     * Returns {@code null} when {@value #SESSION_RESPONSE_TABLE} is not set, in which case every
+     * session request creates a new session.
+     */
+    public static SessionResponseStore createSessionResponseStore(
+            DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        String tableName = System.getenv(SESSION_RESPONSE_TABLE);
+        if (tableName == null || tableName.isBlank()) {
+            return null;
+        }
+        return new SessionResponseStore(tableName, dynamoDbEnhancedClient);
+    }
+
+    /**
+     * Returns {@code null} when {@value #RATE_LIMIT_TABLE} is not set, in which case each
+     * execution environment only applies its own client rate limits.
+     */
+    public static RateLimitStore createRateLimitStore(
+            DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        String tableName = System.getenv(RATE_LIMIT_TABLE);
+        if (tableName == null || tableName.isBlank()) {
+            return null;
+        }
+        return new RateLimitStore(tableName, dynamoDbEnhancedClient);
+    }
+
+    private static String getTableName(String environmentVariable) {
+        String tableName = System.getenv(environmentVariable);
+        if (tableName == null || tableName.isBlank()) {
+            throw new IllegalStateException(
+                    String.format("Environment variable %s is not set", environmentVariable));
+        }
+        return tableName;
+    }
+}
@@ -0,0 +1,223 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+import uk.gov.di.ipv.cri.common.api.util.RequestDeadline;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Issues a second, identical read when the first has not answered within a percentile of recent
+ * read latencies, and returns whichever answers first.
+ *
+ * <p>Hedges are paid for from a budget that every read adds {@code maxHedgeRatio} to, so at most
+ * that fraction of reads is ever duplicated, even while the table is slow across the board. Until
+ * enough reads have been timed, hedges wait for {@link #INITIAL_DELAY_MILLIS}.
+ *
+ * <p>A read is timed by the caller when it returns. A primary that loses to its hedge can finish
+ * after the invocation, possibly once the execution environment has been frozen and thawed, so
+ * its own completion time is never sampled. The caller's wait is recorded instead, which is a
+ * lower bound on the primary's latency.
+ */
+public class HedgedReads {
+
+    static final String HEDGED_READ_PERCENTILE = "HEDGED_READ_PERCENTILE";
+    static final String HEDGED_READ_MAX_RATIO = "HEDGED_READ_MAX_RATIO";
+    static final String METRIC_HEDGED_READ = "HedgedRead";
+    static final String METRIC_HEDGED_READ_WON = "HedgedReadWon";
+    static final String METRIC_HEDGED_READ_SKIPPED = "HedgedReadSkipped";
+
+    static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+    static final long INITIAL_DELAY_MILLIS = 50;
+    static final int MIN_SAMPLES = 20;
+    private static final int WINDOW_SIZE = 256;
+    private static final double MAX_BUDGET = 10;
+    private static final long MIN_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final HedgedReads DIRECT = new HedgedReads(null, 100, 0);
+
+    private final ExecutorService executor;
+    private final double percentile;
+    private final double maxHedgeRatio;
+    private final long[] latencies = new long[WINDOW_SIZE];
+    private int sampleCount;
+    private double budget;
+    private final AtomicLong hedgesIssued = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    HedgedReads(ExecutorService executor, double percentile, double maxHedgeRatio) {
+        this.executor = executor;
+        this.percentile = percentile;
+        this.maxHedgeRatio = maxHedgeRatio;
+    }
+
+    /** Reads without hedging. */
+    public static HedgedReads direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Hedges reads when {@value #HEDGED_READ_PERCENTILE} is set, capped at {@value
+     * #HEDGED_READ_MAX_RATIO} of reads (default {@value #DEFAULT_MAX_HEDGE_RATIO}).
+     */
+    public static HedgedReads fromEnvironment() {
+        String percentile = System.getenv(HEDGED_READ_PERCENTILE);
+        if (percentile == null || percentile.isBlank()) {
+            return DIRECT;
+        }
+        String maxHedgeRatio = System.getenv(HEDGED_READ_MAX_RATIO);
+        return new HedgedReads(
+                ExecutorHolder.EXECUTOR,
+                Double.parseDouble(percentile),
+                maxHedgeRatio == null || maxHedgeRatio.isBlank()
+                        ? DEFAULT_MAX_HEDGE_RATIO
+                        : Double.parseDouble(maxHedgeRatio));
+    }
+
+    public <T> T read(Supplier<T> supplier) {
+        if (Objects.isNull(executor)) {
+            return supplier.get();
+        }
+        Supplier<T> read = RequestDeadline.propagate(supplier);
+        depositBudget();
+        long hedgeDelayNanos = getHedgeDelayNanos();
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(read, executor);
+        T value = awaitPrimaryOrHedge(read, primary, hedgeDelayNanos);
+        recordLatency(System.nanoTime() - startNanos);
+        return value;
+    }
+
+    private <T> T awaitPrimaryOrHedge(
+            Supplier<T> read, CompletableFuture<T> primary, long hedgeDelayNanos) {
+        try {
+            return primary.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return hedge(read, primary);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a read", e);
+        }
+    }
+
+    private <T> T hedge(Supplier<T> read, CompletableFuture<T> primary) {
+        if (!withdrawBudget()) {
+            MetricsUtils.metricsLogger().putMetric(METRIC_HEDGED_READ_SKIPPED, 1, Unit.COUNT);
+            return join(primary);
+        }
+        hedgesIssued.incrementAndGet();
+        MetricsUtils.metricsLogger().putMetric(METRIC_HEDGED_READ, 1, Unit.COUNT);
+
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<T>> winner = new AtomicReference<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete(
+                (value, error) -> complete(first, primary, value, error, winner, failures));
+        CompletableFuture<T> hedge = CompletableFuture.supplyAsync(read, executor);
+        hedge.whenComplete(
+                (value, error) -> complete(first, hedge, value, error, winner, failures));
+
+        T value = join(first);
+        if (winner.get() == hedge) {
+            hedgesWon.incrementAndGet();
+            MetricsUtils.metricsLogger().putMetric(METRIC_HEDGED_READ_WON, 1, Unit.COUNT);
+        }
+        return value;
+    }
+
+    // Succeeds with the first value, or fails once both reads have failed
+    private static <T> void complete(
+            CompletableFuture<T> first,
+            CompletableFuture<T> source,
+            T value,
+            Throwable error,
+            AtomicReference<CompletableFuture<T>> winner,
+            AtomicInteger failures) {
+        if (Objects.isNull(error)) {
+            if (winner.compareAndSet(null, source)) {
+                first.complete(value);
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && Objects.nonNull(cause.getCause())) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    synchronized long getHedgeDelayNanos() {
+        if (sampleCount < MIN_SAMPLES) {
+            return TimeUnit.MILLISECONDS.toNanos(INITIAL_DELAY_MILLIS);
+        }
+        int size = Math.min(sampleCount, WINDOW_SIZE);
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return Math.max(MIN_DELAY_NANOS, sorted[Math.max(0, Math.min(index, size - 1))]);
+    }
+
+    synchronized void recordLatency(long latencyNanos) {
+        latencies[sampleCount % WINDOW_SIZE] = latencyNanos;
+        sampleCount = sampleCount == Integer.MAX_VALUE ? WINDOW_SIZE : sampleCount + 1;
+    }
+
+    private synchronized void depositBudget() {
+        budget = Math.min(MAX_BUDGET, budget + maxHedgeRatio);
+    }
+
+    private synchronized boolean withdrawBudget() {
+        if (budget < 1) {
+            return false;
+        }
+        budget--;
+        return true;
+    }
+
+    long getHedgesIssued() {
+        return hedgesIssued.get();
+    }
+
+    long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    // Daemon threads, so reads still in flight never hold a finished invocation open
+    private static final class ExecutorHolder {
+        private static final ExecutorService EXECUTOR =
+                Executors.newCachedThreadPool(
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "hedged-read");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+}
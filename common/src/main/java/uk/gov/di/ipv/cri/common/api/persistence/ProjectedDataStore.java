@@ -0,0 +1,72 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A read-only {@link StaticSchemaDataStore} that only fetches the attributes the caller declares,
+ * through a ProjectionExpression.
+ *
+ * <p>The enhanced client cannot project a GetItem, so items are read with a Query on the
+ * partition key, which reads the same single item for the same capacity. DynamoDB charges read
+ * capacity on the size of the stored item either way; the projection reduces the response payload
+ * and the unmarshalling work. Writes are rejected, as writing a projected item back through the
+ * full schema would remove every attribute that was not read.
+ */
+public class ProjectedDataStore<T> extends StaticSchemaDataStore<T> {
+
+    private final List<String> attributesToProject;
+
+    public ProjectedDataStore(
+            String tableName,
+            TableSchema<T> tableSchema,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient,
+            Collection<String> attributesToProject) {
+        this(
+                tableName,
+                tableSchema,
+                dynamoDbEnhancedClient,
+                attributesToProject,
+                HedgedReads.direct());
+    }
+
+    public ProjectedDataStore(
+            String tableName,
+            TableSchema<T> tableSchema,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient,
+            Collection<String> attributesToProject,
+            HedgedReads hedgedReads) {
+        super(tableName, tableSchema, dynamoDbEnhancedClient, hedgedReads);
+        this.attributesToProject = List.copyOf(attributesToProject);
+    }
+
+    @Override
+    public T getItem(String partitionValue) {
+        QueryEnhancedRequest queryEnhancedRequest =
+                QueryEnhancedRequest.builder()
+                        .queryConditional(
+                                QueryConditional.keyEqualTo(
+                                        Key.builder().partitionValue(partitionValue).build()))
+                        .attributesToProject(attributesToProject)
+                        .limit(1)
+                        .build();
+        return hedgedReads.read(
+                () -> table.query(queryEnhancedRequest).items().stream().findFirst().orElse(null));
+    }
+
+    @Override
+    public void create(T item) {
+        throw new UnsupportedOperationException("Projected items cannot be written");
+    }
+
+    @Override
+    public T update(T item) {
+        throw new UnsupportedOperationException("Projected items cannot be written");
+    }
+}
@@ -0,0 +1,102 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Token buckets kept in DynamoDB, so a client's rate can be capped across every execution
+ * environment rather than in each one.
+ *
+ * <p>A token is taken with a strongly consistent read followed by a put conditional on the bucket's
+ * version. When other environments keep winning that race for {@value #MAX_ATTEMPTS} attempts the
+ * client is busy enough that the token is refused.
+ */
+public class RateLimitStore {
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final long EXPIRY_SECONDS = 3600;
+
+    private final DynamoDbTable<RateLimitItem> table;
+    private final Clock clock;
+
+    public RateLimitStore(String tableName, DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this(
+                dynamoDbEnhancedClient.table(tableName, TableSchemaRegistry.rateLimitItemSchema()),
+                Clock.systemUTC());
+    }
+
+    RateLimitStore(DynamoDbTable<RateLimitItem> table, Clock clock) {
+        this.table = table;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token from the client's bucket, which refills at {@code ratePerSecond} up to {@code
+     * burst}.
+     */
+    public boolean tryConsume(String clientId, double ratePerSecond, double burst) {
+        GetItemEnhancedRequest getItemEnhancedRequest =
+                GetItemEnhancedRequest.builder()
+                        .key(Key.builder().partitionValue(clientId).build())
+                        .consistentRead(true)
+                        .build();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            RateLimitItem current = table.getItem(getItemEnhancedRequest);
+            long nowMillis = clock.millis();
+            double tokens =
+                    Objects.isNull(current)
+                            ? burst
+                            : Math.min(
+                                    burst,
+                                    current.getTokens()
+                                            + Math.max(0, nowMillis - current.getUpdatedAt())
+                                                    * ratePerSecond
+                                                    / 1000);
+            if (tokens < 1) {
+                return false;
+            }
+
+            RateLimitItem next = new RateLimitItem();
+            next.setClientId(clientId);
+            next.setTokens(tokens - 1);
+            next.setUpdatedAt(nowMillis);
+            next.setVersion(Objects.isNull(current) ? 0 : current.getVersion() + 1);
+            next.setExpiryDate(clock.instant().getEpochSecond() + EXPIRY_SECONDS);
+            try {
+                table.putItem(
+                        PutItemEnhancedRequest.builder(RateLimitItem.class)
+                                .item(next)
+                                .conditionExpression(unchanged(current))
+                                .build());
+                return true;
+            } catch (ConditionalCheckFailedException e) {
+                // Another environment took a token since the read, so read the bucket again
+            }
+        }
+        return false;
+    }
+
+    private static Expression unchanged(RateLimitItem current) {
+        if (Objects.isNull(current)) {
+            return Expression.builder().expression("attribute_not_exists(clientId)").build();
+        }
+        return Expression.builder()
+                .expression("#version = :version")
+                .expressionNames(Map.of("#version", "version"))
+                .expressionValues(
+                        Map.of(
+                                ":version",
+                                AttributeValue.fromN(String.valueOf(current.getVersion()))))
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Clock;
+import java.util.Objects;
+
+/**
+ * Session responses keyed by a hash of the request that created them.
+ *
+ * <p>A resent session request is answered with the stored response for {@value
+ * #RESPONSE_TTL_SECONDS} seconds, instead of decrypting and verifying it again and creating a
+ * second session. Expired responses are ignored before the table's TTL removes them.
+ */
+public class SessionResponseStore {
+
+    static final long RESPONSE_TTL_SECONDS = 120;
+
+    private final DynamoDbTable<SessionResponseItem> table;
+    private final Clock clock;
+
+    public SessionResponseStore(String tableName, DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this(
+                dynamoDbEnhancedClient.table(
+                        tableName, TableSchemaRegistry.sessionResponseItemSchema()),
+                Clock.systemUTC());
+    }
+
+    SessionResponseStore(DynamoDbTable<SessionResponseItem> table, Clock clock) {
+        this.table = table;
+        this.clock = clock;
+    }
+
+    /** Returns the response stored for {@code requestHash}, or {@code null} if it has expired. */
+    public SessionResponseItem getItem(String requestHash) {
+        SessionResponseItem item =
+                table.getItem(
+                        GetItemEnhancedRequest.builder()
+                                .key(Key.builder().partitionValue(requestHash).build())
+                                .consistentRead(true)
+                                .build());
+        if (Objects.isNull(item) || item.getExpiryDate() <= clock.instant().getEpochSecond()) {
+            return null;
+        }
+        return item;
+    }
+
+    /** Stores the response unless a concurrent duplicate of the request stored one first. */
+    public void put(String requestHash, String sessionId, String state, String redirectUri) {
+        long nowSeconds = clock.instant().getEpochSecond();
+        SessionResponseItem item = new SessionResponseItem();
+        item.setRequestHash(requestHash);
+        item.setSessionId(sessionId);
+        item.setState(state);
+        item.setRedirectUri(redirectUri);
+        item.setExpiryDate(nowSeconds + RESPONSE_TTL_SECONDS);
+        Expression absentOrExpired =
+                Expression.builder()
+                        .expression("attribute_not_exists(requestHash) OR expiryDate <= :now")
+                        .putExpressionValue(
+                                ":now", AttributeValue.fromN(String.valueOf(nowSeconds)))
+                        .build();
+        table.putItem(
+                PutItemEnhancedRequest.builder(SessionResponseItem.class)
+                        .item(item)
+                        .conditionExpression(absentOrExpired)
+                        .build());
+    }
+}
@@ -0,0 +1,60 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+/**
+ * Writes an issued access token onto the session with a single conditional UpdateItem.
+ *
+ * <p>The update sets {@code accessToken} and {@code accessTokenExpiryDate} and removes {@code
+ * authorizationCode}, on the condition that the stored code is still the one being redeemed.
+ * Removing the code makes it single use, so a concurrent or repeated redemption fails the
+ * condition instead of overwriting the first token. No other session attribute is written.
+ */
+public class SessionTokenStore {
+
+    static final String AUTHORIZATION_CODE_MATCHES = "authorizationCode = :authorizationCode";
+
+    private final DynamoDbTable<SessionItem> table;
+
+    public SessionTokenStore(String tableName, DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this(
+                dynamoDbEnhancedClient.table(
+                        tableName, TableSchemaRegistry.sessionAccessTokenSchema()));
+    }
+
+    protected SessionTokenStore(DynamoDbTable<SessionItem> table) {
+        this.table = table;
+    }
+
+    /**
+     * @throws ConditionalCheckFailedException if the session no longer holds {@code
+     *     authorizationCode}
+     */
+    public void saveAccessToken(SessionItem sessionItem, String authorizationCode) {
+        SessionItem accessTokenUpdate = new SessionItem();
+        accessTokenUpdate.setSessionId(sessionItem.getSessionId());
+        accessTokenUpdate.setAccessToken(sessionItem.getAccessToken());
+        accessTokenUpdate.setAccessTokenExpiryDate(sessionItem.getAccessTokenExpiryDate());
+        // Left null so ignoreNulls(false) removes it
+        accessTokenUpdate.setAuthorizationCode(null);
+
+        table.updateItem(
+                UpdateItemEnhancedRequest.builder(SessionItem.class)
+                        .item(accessTokenUpdate)
+                        .ignoreNulls(false)
+                        .conditionExpression(
+                                Expression.builder()
+                                        .expression(AUTHORIZATION_CODE_MATCHES)
+                                        .putExpressionValue(
+                                                ":authorizationCode",
+                                                AttributeValue.fromS(authorizationCode))
+                                        .build())
+                        .build());
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link DataStore} backed by an explicitly supplied {@link TableSchema}, so the library
+ * services can be handed a store that never falls back to bean introspection.
+ */
+public class StaticSchemaDataStore<T> extends DataStore<T> {
+
+    protected final DynamoDbTable<T> table;
+    protected final HedgedReads hedgedReads;
+
+    public StaticSchemaDataStore(
+            String tableName,
+            TableSchema<T> tableSchema,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this(tableName, tableSchema, dynamoDbEnhancedClient, HedgedReads.direct());
+    }
+
+    public StaticSchemaDataStore(
+            String tableName,
+            TableSchema<T> tableSchema,
+            DynamoDbEnhancedClient dynamoDbEnhancedClient,
+            HedgedReads hedgedReads) {
+        super(tableName, tableSchema.itemType().rawClass(), dynamoDbEnhancedClient);
+        this.table = dynamoDbEnhancedClient.table(tableName, tableSchema);
+        this.hedgedReads = hedgedReads;
+    }
+
+    @Override
+    public void create(T item) {
+        table.putItem(item);
+    }
+
+    @Override
+    public T getItem(String partitionValue) {
+        Key key = Key.builder().partitionValue(partitionValue).build();
+        return hedgedReads.read(() -> table.getItem(key));
+    }
+
+    @Override
+    public List<T> getItemByIndex(String indexName, String value) {
+        QueryEnhancedRequest queryEnhancedRequest =
+                QueryEnhancedRequest.builder()
+                        .queryConditional(
+                                QueryConditional.keyEqualTo(
+                                        Key.builder().partitionValue(value).build()))
+                        .build();
+        return table.index(indexName).query(queryEnhancedRequest).stream()
+                .flatMap(page -> page.items().stream())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public T update(T item) {
+        return table.updateItem(item);
+    }
+}
@@ -0,0 +1,626 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTag;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import uk.gov.di.ipv.cri.common.library.persistence.item.CanonicalAddress;
+import uk.gov.di.ipv.cri.common.library.persistence.item.EvidenceRequest;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityDateOfBirth;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityDrivingPermit;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityItem;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityName;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityNamePart;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentitySocialSecurityRecord;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Hand-built {@link StaticTableSchema} definitions for the items the Java handlers persist.
+ *
+ * <p>{@link TableSchema#fromBean(Class)} introspects the item class and generates accessors
+ * through the lambda metafactory the first time a table is used, which lands on every cold
+ * start. These schemas are declared explicitly instead, so building them is plain object
+ * construction. The attribute names must stay identical to the bean-derived names, which is
+ * asserted by {@code TableSchemaRegistryTest}. The nested documents (evidence request, names,
+ * addresses etc.) are declared the same way, so no schema here falls back to bean introspection.
+ */
+public final class TableSchemaRegistry {
+
+    static final String ACCESS_TOKEN_INDEX_WITH_EVENT_DATA = "access-token-index-with-event-data";
+
+    private TableSchemaRegistry() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    public static TableSchema<SessionItem> sessionItemSchema() {
+        return SessionItemSchemaHolder.SCHEMA;
+    }
+
+    public static TableSchema<SessionItem> authorizationCodeItemSchema() {
+        return AuthorizationCodeItemSchemaHolder.SCHEMA;
+    }
+
+    /**
+     * Maps only the session id and the attributes written when an access token is issued, so an
+     * update through this schema touches nothing else on the session item.
+     */
+    public static TableSchema<SessionItem> sessionAccessTokenSchema() {
+        return SessionAccessTokenSchemaHolder.SCHEMA;
+    }
+
+    public static TableSchema<PersonIdentityItem> personIdentityItemSchema() {
+        return PersonIdentityItemSchemaHolder.SCHEMA;
+    }
+
+    public static TableSchema<RateLimitItem> rateLimitItemSchema() {
+        return RateLimitItemSchemaHolder.SCHEMA;
+    }
+
+    public static TableSchema<SessionResponseItem> sessionResponseItemSchema() {
+        return SessionResponseItemSchemaHolder.SCHEMA;
+    }
+
+    // Holders keep each schema lazy, so a handler only builds the schemas it actually uses
+    private static final class SessionItemSchemaHolder {
+        private static final TableSchema<SessionItem> SCHEMA = createSessionItemSchema(false);
+    }
+
+    private static final class AuthorizationCodeItemSchemaHolder {
+        private static final TableSchema<SessionItem> SCHEMA = createSessionItemSchema(true);
+    }
+
+    private static final class SessionAccessTokenSchemaHolder {
+        private static final TableSchema<SessionItem> SCHEMA = createSessionAccessTokenSchema();
+    }
+
+    private static final class PersonIdentityItemSchemaHolder {
+        private static final TableSchema<PersonIdentityItem> SCHEMA =
+                createPersonIdentityItemSchema();
+    }
+
+    private static final class RateLimitItemSchemaHolder {
+        private static final TableSchema<RateLimitItem> SCHEMA = createRateLimitItemSchema();
+    }
+
+    private static final class SessionResponseItemSchemaHolder {
+        private static final TableSchema<SessionResponseItem> SCHEMA =
+                createSessionResponseItemSchema();
+    }
+
+    // The authorization code table holds session snapshots under the same attribute names, keyed
+    // by the code instead of the session id and without the session table's indexes
+    private static TableSchema<SessionItem> createSessionItemSchema(
+            boolean keyedByAuthorizationCode) {
+        StaticAttributeTag[] sessionIdTags =
+                keyedByAuthorizationCode
+                        ? new StaticAttributeTag[0]
+                        : new StaticAttributeTag[] {StaticAttributeTags.primaryPartitionKey()};
+        StaticAttributeTag[] authorizationCodeTags =
+                keyedByAuthorizationCode
+                        ? new StaticAttributeTag[] {StaticAttributeTags.primaryPartitionKey()}
+                        : new StaticAttributeTag[] {
+                            StaticAttributeTags.secondaryPartitionKey(
+                                    SessionItem.AUTHORIZATION_CODE_INDEX)
+                        };
+        StaticAttributeTag[] accessTokenTags =
+                keyedByAuthorizationCode
+                        ? new StaticAttributeTag[0]
+                        : new StaticAttributeTag[] {
+                            StaticAttributeTags.secondaryPartitionKey(
+                                    SessionItem.ACCESS_TOKEN_INDEX),
+                            StaticAttributeTags.secondaryPartitionKey(
+                                    ACCESS_TOKEN_INDEX_WITH_EVENT_DATA)
+                        };
+        return StaticTableSchema.builder(SessionItem.class)
+                .newItemSupplier(SessionItem::new)
+                .addAttribute(
+                        UUID.class,
+                        a ->
+                                a.name("sessionId")
+                                        .getter(SessionItem::getSessionId)
+                                        .setter(SessionItem::setSessionId)
+                                        .tags(sessionIdTags))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("expiryDate")
+                                        .getter(SessionItem::getExpiryDate)
+                                        .setter(SessionItem::setExpiryDate))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("clientId")
+                                        .getter(SessionItem::getClientId)
+                                        .setter(SessionItem::setClientId))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("state")
+                                        .getter(SessionItem::getState)
+                                        .setter(SessionItem::setState))
+                .addAttribute(
+                        URI.class,
+                        a ->
+                                a.name("redirectUri")
+                                        .getter(SessionItem::getRedirectUri)
+                                        .setter(SessionItem::setRedirectUri))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("authorizationCode")
+                                        .getter(SessionItem::getAuthorizationCode)
+                                        .setter(SessionItem::setAuthorizationCode)
+                                        .tags(authorizationCodeTags))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("authorizationCodeExpiryDate")
+                                        .getter(SessionItem::getAuthorizationCodeExpiryDate)
+                                        .setter(SessionItem::setAuthorizationCodeExpiryDate))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("accessToken")
+                                        .getter(SessionItem::getAccessToken)
+                                        .setter(SessionItem::setAccessToken)
+                                        .tags(accessTokenTags))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("accessTokenExpiryDate")
+                                        .getter(SessionItem::getAccessTokenExpiryDate)
+                                        .setter(SessionItem::setAccessTokenExpiryDate))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("subject")
+                                        .getter(SessionItem::getSubject)
+                                        .setter(SessionItem::setSubject))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("persistentSessionId")
+                                        .getter(SessionItem::getPersistentSessionId)
+                                        .setter(SessionItem::setPersistentSessionId))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("clientSessionId")
+                                        .getter(SessionItem::getClientSessionId)
+                                        .setter(SessionItem::setClientSessionId))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("clientIpAddress")
+                                        .getter(SessionItem::getClientIpAddress)
+                                        .setter(SessionItem::setClientIpAddress))
+                .addAttribute(
+                        int.class,
+                        a ->
+                                a.name("attemptCount")
+                                        .getter(SessionItem::getAttemptCount)
+                                        .setter(SessionItem::setAttemptCount))
+                .addAttribute(
+                        EnhancedType.documentOf(
+                                EvidenceRequest.class, createEvidenceRequestSchema()),
+                        a ->
+                                a.name("evidenceRequest")
+                                        .getter(SessionItem::getEvidenceRequest)
+                                        .setter(SessionItem::setEvidenceRequest))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("context")
+                                        .getter(SessionItem::getContext)
+                                        .setter(SessionItem::setContext))
+                .build();
+    }
+
+    private static TableSchema<SessionItem> createSessionAccessTokenSchema() {
+        return StaticTableSchema.builder(SessionItem.class)
+                .newItemSupplier(SessionItem::new)
+                .addAttribute(
+                        UUID.class,
+                        a ->
+                                a.name("sessionId")
+                                        .getter(SessionItem::getSessionId)
+                                        .setter(SessionItem::setSessionId)
+                                        .tags(StaticAttributeTags.primaryPartitionKey()))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("authorizationCode")
+                                        .getter(SessionItem::getAuthorizationCode)
+                                        .setter(SessionItem::setAuthorizationCode))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("accessToken")
+                                        .getter(SessionItem::getAccessToken)
+                                        .setter(SessionItem::setAccessToken))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("accessTokenExpiryDate")
+                                        .getter(SessionItem::getAccessTokenExpiryDate)
+                                        .setter(SessionItem::setAccessTokenExpiryDate))
+                .build();
+    }
+
+    private static TableSchema<RateLimitItem> createRateLimitItemSchema() {
+        return StaticTableSchema.builder(RateLimitItem.class)
+                .newItemSupplier(RateLimitItem::new)
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("clientId")
+                                        .getter(RateLimitItem::getClientId)
+                                        .setter(RateLimitItem::setClientId)
+                                        .tags(StaticAttributeTags.primaryPartitionKey()))
+                .addAttribute(
+                        double.class,
+                        a ->
+                                a.name("tokens")
+                                        .getter(RateLimitItem::getTokens)
+                                        .setter(RateLimitItem::setTokens))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("updatedAt")
+                                        .getter(RateLimitItem::getUpdatedAt)
+                                        .setter(RateLimitItem::setUpdatedAt))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("version")
+                                        .getter(RateLimitItem::getVersion)
+                                        .setter(RateLimitItem::setVersion))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("expiryDate")
+                                        .getter(RateLimitItem::getExpiryDate)
+                                        .setter(RateLimitItem::setExpiryDate))
+                .build();
+    }
+
+    private static TableSchema<SessionResponseItem> createSessionResponseItemSchema() {
+        return StaticTableSchema.builder(SessionResponseItem.class)
+                .newItemSupplier(SessionResponseItem::new)
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("requestHash")
+                                        .getter(SessionResponseItem::getRequestHash)
+                                        .setter(SessionResponseItem::setRequestHash)
+                                        .tags(StaticAttributeTags.primaryPartitionKey()))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("sessionId")
+                                        .getter(SessionResponseItem::getSessionId)
+                                        .setter(SessionResponseItem::setSessionId))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("state")
+                                        .getter(SessionResponseItem::getState)
+                                        .setter(SessionResponseItem::setState))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("redirectUri")
+                                        .getter(SessionResponseItem::getRedirectUri)
+                                        .setter(SessionResponseItem::setRedirectUri))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("expiryDate")
+                                        .getter(SessionResponseItem::getExpiryDate)
+                                        .setter(SessionResponseItem::setExpiryDate))
+                .build();
+    }
+
+    private static TableSchema<PersonIdentityItem> createPersonIdentityItemSchema() {
+        return StaticTableSchema.builder(PersonIdentityItem.class)
+                .newItemSupplier(PersonIdentityItem::new)
+                .addAttribute(
+                        UUID.class,
+                        a ->
+                                a.name("sessionId")
+                                        .getter(PersonIdentityItem::getSessionId)
+                                        .setter(PersonIdentityItem::setSessionId)
+                                        .tags(StaticAttributeTags.primaryPartitionKey()))
+                .addAttribute(
+                        long.class,
+                        a ->
+                                a.name("expiryDate")
+                                        .getter(PersonIdentityItem::getExpiryDate)
+                                        .setter(PersonIdentityItem::setExpiryDate))
+                .addAttribute(
+                        EnhancedType.listOf(
+                                EnhancedType.documentOf(
+                                        PersonIdentityName.class, createNameSchema())),
+                        a ->
+                                a.name("names")
+                                        .getter(PersonIdentityItem::getNames)
+                                        .setter(PersonIdentityItem::setNames))
+                .addAttribute(
+                        EnhancedType.listOf(
+                                EnhancedType.documentOf(
+                                        PersonIdentityDateOfBirth.class,
+                                        createDateOfBirthSchema())),
+                        a ->
+                                a.name("birthDates")
+                                        .getter(PersonIdentityItem::getBirthDates)
+                                        .setter(PersonIdentityItem::setBirthDates))
+                .addAttribute(
+                        EnhancedType.listOf(
+                                EnhancedType.documentOf(
+                                        CanonicalAddress.class, createAddressSchema())),
+                        a ->
+                                a.name("addresses")
+                                        .getter(PersonIdentityItem::getAddresses)
+                                        .setter(PersonIdentityItem::setAddresses))
+                .addAttribute(
+                        EnhancedType.listOf(
+                                EnhancedType.documentOf(
+                                        PersonIdentityDrivingPermit.class,
+                                        createDrivingPermitSchema())),
+                        a ->
+                                a.name("drivingPermits")
+                                        .getter(PersonIdentityItem::getDrivingPermits)
+                                        .setter(PersonIdentityItem::setDrivingPermits))
+                .addAttribute(
+                        EnhancedType.listOf(
+                                EnhancedType.documentOf(
+                                        PersonIdentitySocialSecurityRecord.class,
+                                        createSocialSecurityRecordSchema())),
+                        a ->
+                                a.name("socialSecurityRecords")
+                                        .getter(PersonIdentityItem::getSocialSecurityRecords)
+                                        .setter(PersonIdentityItem::setSocialSecurityRecords))
+                .build();
+    }
+
+    static TableSchema<EvidenceRequest> createEvidenceRequestSchema() {
+        return StaticTableSchema.builder(EvidenceRequest.class)
+                .newItemSupplier(EvidenceRequest::new)
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("scoringPolicy")
+                                        .getter(EvidenceRequest::getScoringPolicy)
+                                        .setter(EvidenceRequest::setScoringPolicy))
+                .addAttribute(
+                        Integer.class,
+                        a ->
+                                a.name("strengthScore")
+                                        .getter(EvidenceRequest::getStrengthScore)
+                                        .setter(EvidenceRequest::setStrengthScore))
+                .addAttribute(
+                        Integer.class,
+                        a ->
+                                a.name("validityScore")
+                                        .getter(EvidenceRequest::getValidityScore)
+                                        .setter(EvidenceRequest::setValidityScore))
+                .addAttribute(
+                        Integer.class,
+                        a ->
+                                a.name("verificationScore")
+                                        .getter(EvidenceRequest::getVerificationScore)
+                                        .setter(EvidenceRequest::setVerificationScore))
+                .addAttribute(
+                        Integer.class,
+                        a ->
+                                a.name("activityHistoryScore")
+                                        .getter(EvidenceRequest::getActivityHistoryScore)
+                                        .setter(EvidenceRequest::setActivityHistoryScore))
+                .addAttribute(
+                        Integer.class,
+                        a ->
+                                a.name("identityFraudScore")
+                                        .getter(EvidenceRequest::getIdentityFraudScore)
+                                        .setter(EvidenceRequest::setIdentityFraudScore))
+                .build();
+    }
+
+    static TableSchema<PersonIdentityName> createNameSchema() {
+        return StaticTableSchema.builder(PersonIdentityName.class)
+                .newItemSupplier(PersonIdentityName::new)
+                .addAttribute(
+                        EnhancedType.listOf(
+                                EnhancedType.documentOf(
+                                        PersonIdentityNamePart.class, createNamePartSchema())),
+                        a ->
+                                a.name("nameParts")
+                                        .getter(PersonIdentityName::getNameParts)
+                                        .setter(PersonIdentityName::setNameParts))
+                .build();
+    }
+
+    static TableSchema<PersonIdentityNamePart> createNamePartSchema() {
+        return StaticTableSchema.builder(PersonIdentityNamePart.class)
+                .newItemSupplier(PersonIdentityNamePart::new)
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("type")
+                                        .getter(PersonIdentityNamePart::getType)
+                                        .setter(PersonIdentityNamePart::setType))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("value")
+                                        .getter(PersonIdentityNamePart::getValue)
+                                        .setter(PersonIdentityNamePart::setValue))
+                .build();
+    }
+
+    static TableSchema<PersonIdentityDateOfBirth> createDateOfBirthSchema() {
+        return StaticTableSchema.builder(PersonIdentityDateOfBirth.class)
+                .newItemSupplier(PersonIdentityDateOfBirth::new)
+                .addAttribute(
+                        LocalDate.class,
+                        a ->
+                                a.name("value")
+                                        .getter(PersonIdentityDateOfBirth::getValue)
+                                        .setter(PersonIdentityDateOfBirth::setValue))
+                .build();
+    }
+
+    static TableSchema<CanonicalAddress> createAddressSchema() {
+        return StaticTableSchema.builder(CanonicalAddress.class)
+                .newItemSupplier(CanonicalAddress::new)
+                .addAttribute(
+                        Long.class,
+                        a ->
+                                a.name("uprn")
+                                        .getter(CanonicalAddress::getUprn)
+                                        .setter(CanonicalAddress::setUprn))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("organisationName")
+                                        .getter(CanonicalAddress::getOrganisationName)
+                                        .setter(CanonicalAddress::setOrganisationName))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("departmentName")
+                                        .getter(CanonicalAddress::getDepartmentName)
+                                        .setter(CanonicalAddress::setDepartmentName))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("subBuildingName")
+                                        .getter(CanonicalAddress::getSubBuildingName)
+                                        .setter(CanonicalAddress::setSubBuildingName))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("buildingNumber")
+                                        .getter(CanonicalAddress::getBuildingNumber)
+                                        .setter(CanonicalAddress::setBuildingNumber))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("buildingName")
+                                        .getter(CanonicalAddress::getBuildingName)
+                                        .setter(CanonicalAddress::setBuildingName))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("dependentStreetName")
+                                        .getter(CanonicalAddress::getDependentStreetName)
+                                        .setter(CanonicalAddress::setDependentStreetName))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("streetName")
+                                        .getter(CanonicalAddress::getStreetName)
+                                        .setter(CanonicalAddress::setStreetName))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("doubleDependentAddressLocality")
+                                        .getter(CanonicalAddress::getDoubleDependentAddressLocality)
+                                        .setter(CanonicalAddress::setDoubleDependentAddressLocality))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("dependentAddressLocality")
+                                        .getter(CanonicalAddress::getDependentAddressLocality)
+                                        .setter(CanonicalAddress::setDependentAddressLocality))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("addressLocality")
+                                        .getter(CanonicalAddress::getAddressLocality)
+                                        .setter(CanonicalAddress::setAddressLocality))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("postalCode")
+                                        .getter(CanonicalAddress::getPostalCode)
+                                        .setter(CanonicalAddress::setPostalCode))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("addressCountry")
+                                        .getter(CanonicalAddress::getAddressCountry)
+                                        .setter(CanonicalAddress::setAddressCountry))
+                .addAttribute(
+                        LocalDate.class,
+                        a ->
+                                a.name("validFrom")
+                                        .getter(CanonicalAddress::getValidFrom)
+                                        .setter(CanonicalAddress::setValidFrom))
+                .addAttribute(
+                        LocalDate.class,
+                        a ->
+                                a.name("validUntil")
+                                        .getter(CanonicalAddress::getValidUntil)
+                                        .setter(CanonicalAddress::setValidUntil))
+                .build();
+    }
+
+    static TableSchema<PersonIdentityDrivingPermit> createDrivingPermitSchema() {
+        return StaticTableSchema.builder(PersonIdentityDrivingPermit.class)
+                .newItemSupplier(PersonIdentityDrivingPermit::new)
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("personalNumber")
+                                        .getter(PersonIdentityDrivingPermit::getPersonalNumber)
+                                        .setter(PersonIdentityDrivingPermit::setPersonalNumber))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("expiryDate")
+                                        .getter(PersonIdentityDrivingPermit::getExpiryDate)
+                                        .setter(PersonIdentityDrivingPermit::setExpiryDate))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("issueDate")
+                                        .getter(PersonIdentityDrivingPermit::getIssueDate)
+                                        .setter(PersonIdentityDrivingPermit::setIssueDate))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("issueNumber")
+                                        .getter(PersonIdentityDrivingPermit::getIssueNumber)
+                                        .setter(PersonIdentityDrivingPermit::setIssueNumber))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("issuedBy")
+                                        .getter(PersonIdentityDrivingPermit::getIssuedBy)
+                                        .setter(PersonIdentityDrivingPermit::setIssuedBy))
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("fullAddress")
+                                        .getter(PersonIdentityDrivingPermit::getFullAddress)
+                                        .setter(PersonIdentityDrivingPermit::setFullAddress))
+                .build();
+    }
+
+    static TableSchema<PersonIdentitySocialSecurityRecord> createSocialSecurityRecordSchema() {
+        return StaticTableSchema.builder(PersonIdentitySocialSecurityRecord.class)
+                .newItemSupplier(PersonIdentitySocialSecurityRecord::new)
+                .addAttribute(
+                        String.class,
+                        a ->
+                                a.name("personalNumber")
+                                        .getter(PersonIdentitySocialSecurityRecord::getPersonalNumber)
+                                        .setter(PersonIdentitySocialSecurityRecord::setPersonalNumber))
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package uk.gov.di.ipv.cri.common.api.service;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.ConfigurationService;
+import uk.gov.di.ipv.cri.common.library.util.ApiGatewayResponseGenerator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles synthetic warm-up invocations, for example from a scheduled rule, by exercising the
+ * handler's real dependency paths without side effects and returning how long each step took.
+ *
+ * <p>A warm-up event is an {@link APIGatewayProxyRequestEvent} with the resource {@value
+ * #WARM_UP_RESOURCE} and no request context, which API Gateway never sends. The SSM step fetches
+ * the client configuration for the {@code client_id} query string parameter when one is given.
+ * Each step that fails is logged at WARN and counted in {@value #METRIC_WARM_UP_STEP_FAILED}, so a
+ * dependency the function cannot reach shows up before real traffic does.
+ */
+public class WarmUpService {
+
+    public static final String WARM_UP_RESOURCE = "lambda-warm-up";
+    static final String SENTINEL_SESSION_ID = "00000000-0000-0000-0000-000000000000";
+    static final String DEFAULT_CLIENT_ID = "ipv-core";
+    static final String METRIC_WARM_UP_STEP_FAILED = "WarmUpStepFailed";
+    private static final String CLIENT_ID = "client_id";
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Map<String, WarmUpStep> steps = new LinkedHashMap<>();
+
+    @FunctionalInterface
+    public interface WarmUpStep {
+        void run(APIGatewayProxyRequestEvent input) throws Exception;
+    }
+
+    public static WarmUpService createDefault(
+            DataStore<SessionItem> sessionDataStore,
+            ConfigurationService configurationService,
+            ObjectMapper objectMapper) {
+        return new WarmUpService()
+                .addStep("dynamodb", input -> sessionDataStore.getItem(SENTINEL_SESSION_ID))
+                .addStep(
+                        "ssm",
+                        input ->
+                                configurationService.getParametersForPath(
+                                        String.format(
+                                                "/clients/%s/jwtAuthentication",
+                                                getClientId(input))))
+                .addStep("json", input -> primeJson(objectMapper))
+                .addStep("crypto", input -> primeCrypto());
+    }
+
+    public static boolean isWarmUpEvent(APIGatewayProxyRequestEvent input) {
+        return Objects.nonNull(input)
+                && Objects.isNull(input.getRequestContext())
+                && WARM_UP_RESOURCE.equals(input.getResource());
+    }
+
+    public WarmUpService addStep(String name, WarmUpStep step) {
+        steps.put(name, step);
+        return this;
+    }
+
+    public APIGatewayProxyResponseEvent warmUp(APIGatewayProxyRequestEvent input) {
+        Map<String, Long> stepDurations = new LinkedHashMap<>();
+        List<String> failedSteps = new ArrayList<>();
+        long start = System.nanoTime();
+
+        steps.forEach(
+                (name, step) -> {
+                    long stepStart = System.nanoTime();
+                    try {
+                        step.run(input);
+                    } catch (Exception e) {
+                        LOGGER.warn("Warm up step {} failed", name, e);
+                        failedSteps.add(name);
+                        MetricsUtils.metricsLogger()
+                                .putMetric(METRIC_WARM_UP_STEP_FAILED, 1, Unit.COUNT);
+                    }
+                    stepDurations.put(name, elapsedMillis(stepStart));
+                });
+
+        long totalDuration = elapsedMillis(start);
+        LOGGER.info("Warm up completed in {}ms: {}", totalDuration, stepDurations);
+
+        return ApiGatewayResponseGenerator.proxyJsonResponse(
+                HttpStatusCode.OK,
+                Map.of(
+                        "stepDurationsMillis", stepDurations,
+                        "failedSteps", failedSteps,
+                        "totalDurationMillis", totalDuration));
+    }
+
+    private static String getClientId(APIGatewayProxyRequestEvent input) {
+        Map<String, String> queryStringParameters = input.getQueryStringParameters();
+        if (Objects.isNull(queryStringParameters)
+                || Objects.isNull(queryStringParameters.get(CLIENT_ID))) {
+            return DEFAULT_CLIENT_ID;
+        }
+        return queryStringParameters.get(CLIENT_ID);
+    }
+
+    private static void primeJson(ObjectMapper objectMapper) throws Exception {
+        String json =
+                objectMapper.writeValueAsString(
+                        Map.of(
+                                "session_id", SENTINEL_SESSION_ID,
+                                "state", "warm-up",
+                                "redirect_uri", "https://example.com/callback"));
+        objectMapper.readValue(json, new TypeReference<Map<String, String>>() {});
+    }
+
+    private static void primeCrypto() throws JOSEException {
+        ECKey signingKey = new ECKeyGenerator(Curve.P_256).generate();
+        SignedJWT signedJWT =
+                new SignedJWT(
+                        new JWSHeader(JWSAlgorithm.ES256),
+                        new JWTClaimsSet.Builder().subject("warm-up").build());
+        signedJWT.sign(new ECDSASigner(signingKey));
+        if (!signedJWT.verify(new ECDSAVerifier(signingKey.toPublicJWK()))) {
+            throw new JOSEException("Warm up signature did not verify");
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,97 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Limits the calls in flight to a dependency, adjusting the limit with additive increase and
+ * multiplicative decrease (AIMD).
+ *
+ * <p>A call that completes within {@value #LATENCY_TOLERANCE} times the baseline latency raises
+ * the limit by {@value #ADDITIVE_INCREASE} divided by the limit. A slower call scales it by
+ * {@value #LATENCY_BACKOFF_RATIO}, and a throttled call by {@value #THROTTLE_BACKOFF_RATIO}. The
+ * baseline is a slow moving average of call latency. A call over the limit is rejected at once,
+ * rather than queued into the caller's timeout.
+ *
+ * <p>A Lambda execution environment only handles one invocation at a time, so the limit can fall
+ * below one. While it does, that fraction of calls is admitted, and each environment sheds its
+ * share of the load on the dependency.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    static final double ADDITIVE_INCREASE = 0.25;
+    static final double LATENCY_TOLERANCE = 2.0;
+    static final double LATENCY_BACKOFF_RATIO = 0.9;
+    static final double THROTTLE_BACKOFF_RATIO = 0.5;
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final DoubleSupplier random;
+    private double limit;
+    private double baselineLatencyNanos;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(double initialLimit, double minLimit, double maxLimit) {
+        this(initialLimit, minLimit, maxLimit, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    AdaptiveConcurrencyLimiter(
+            double initialLimit, double minLimit, double maxLimit, DoubleSupplier random) {
+        if (minLimit <= 0 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Expected 0 < minLimit <= initialLimit <= maxLimit, got %s, %s, %s",
+                            minLimit, initialLimit, maxLimit));
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.random = random;
+    }
+
+    /** Takes a slot if one is free, which one of the {@code on} methods must then release. */
+    public synchronized boolean tryAcquire() {
+        boolean admitted =
+                inFlight + 1 <= limit || (inFlight == 0 && random.getAsDouble() < limit);
+        if (admitted) {
+            inFlight++;
+        }
+        return admitted;
+    }
+
+    public synchronized void onSuccess(long latencyNanos) {
+        inFlight--;
+        if (baselineLatencyNanos == 0) {
+            baselineLatencyNanos = latencyNanos;
+        }
+        if (latencyNanos > baselineLatencyNanos * LATENCY_TOLERANCE) {
+            decrease(LATENCY_BACKOFF_RATIO);
+        } else {
+            limit = Math.min(maxLimit, limit + ADDITIVE_INCREASE / Math.max(1, limit));
+        }
+        baselineLatencyNanos += (latencyNanos - baselineLatencyNanos) * BASELINE_SMOOTHING;
+    }
+
+    public synchronized void onThrottled() {
+        inFlight--;
+        decrease(THROTTLE_BACKOFF_RATIO);
+    }
+
+    /** Releases the slot of a call that failed for reasons that say nothing about load. */
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void decrease(double ratio) {
+        limit = Math.max(minLimit, limit * ratio);
+    }
+}
@@ -0,0 +1,273 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.cloudwatchlogs.emf.model.DimensionSet;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+import uk.gov.di.ipv.cri.common.api.persistence.RateLimitStore;
+import uk.gov.di.ipv.cri.common.library.service.ConfigurationService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Admits each relying party's requests through its own token bucket, so a client sending more
+ * than its share cannot use up the function's concurrency for every other client.
+ *
+ * <p>A client's limit is read from the {@value #RATE_LIMIT_PARAMETER} parameter of its client
+ * configuration, the same {@code /clients/<clientId>/jwtAuthentication} parameters the handlers
+ * validate requests against, as {@code rate/burst}. The rate is in requests per second and the
+ * burst is the size of the bucket. {@value #CLIENT_RATE_LIMITS} gives the defaults, as comma
+ * separated {@code clientId=rate/burst} entries, for clients whose configuration has no limit of
+ * its own. Its {@value #OTHER_CLIENTS} entry limits every other client. Those clients share one
+ * bucket, so unknown client ids cannot add buckets or metric dimensions. A client is not limited
+ * when nothing applies to it.
+ *
+ * <p>Handlers charge the client id a request claims as soon as it can be read, before any KMS or
+ * DynamoDB call, so a throttled client is turned away before the expensive work is done. The id
+ * has not been authenticated at that point, so a caller naming another client spends that
+ * client's tokens. That is the price of shedding load before the calls it is meant to protect.
+ *
+ * <p>Buckets are local to the execution environment. Given a {@link RateLimitStore}, a request
+ * the local client bucket admits must also take a token from the client's bucket in the store,
+ * which caps the client across every environment. Requests are admitted on the local bucket alone
+ * while the store is failing. A client whose configuration cannot be read, or holds a malformed
+ * limit, gets its {@value #CLIENT_RATE_LIMITS} default and is counted as {@value
+ * #METRIC_CONFIGURATION_FAILED}.
+ *
+ * <p>Each client decision publishes the tokens left in the bucket, dimensioned by {@value
+ * #DIMENSION_CLIENT_ID}, and a refused request is counted as {@value #METRIC_RATE_LIMITED}.
+ */
+public class ClientRateLimiter {
+
+    static final String CLIENT_RATE_LIMITS = "CLIENT_RATE_LIMITS";
+    static final String CLIENT_CONFIGURATION_PATH = "/clients/%s/jwtAuthentication";
+    static final String RATE_LIMIT_PARAMETER = "rateLimit";
+    static final String OTHER_CLIENTS = "*";
+    static final String DIMENSION_CLIENT_ID = "ClientId";
+    static final String METRIC_TOKENS = "ClientRateLimitTokens";
+    static final String METRIC_RATE_LIMITED = "ClientRateLimited";
+    static final String METRIC_STORE_FAILED = "ClientRateLimitStoreFailed";
+    static final String METRIC_CONFIGURATION_FAILED = "ClientRateLimitConfigurationFailed";
+
+    private final Map<String, Limit> defaultLimits;
+    private final ConfigurationService configurationService;
+    private final RateLimitStore rateLimitStore;
+    private final LongSupplier nanoTime;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public ClientRateLimiter(
+            Map<String, Limit> defaultLimits,
+            ConfigurationService configurationService,
+            RateLimitStore rateLimitStore) {
+        this(defaultLimits, configurationService, rateLimitStore, System::nanoTime);
+    }
+
+    ClientRateLimiter(
+            Map<String, Limit> defaultLimits,
+            ConfigurationService configurationService,
+            RateLimitStore rateLimitStore,
+            LongSupplier nanoTime) {
+        this.defaultLimits = Map.copyOf(defaultLimits);
+        this.configurationService = configurationService;
+        this.rateLimitStore = rateLimitStore;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Reads the default limits from {@value #CLIENT_RATE_LIMITS}, which may be empty when every
+     * limited client has a {@value #RATE_LIMIT_PARAMETER} of its own. {@code rateLimitStore} may be
+     * {@code null}.
+     */
+    public static ClientRateLimiter fromEnvironment(
+            ConfigurationService configurationService, RateLimitStore rateLimitStore) {
+        String limits = System.getenv(CLIENT_RATE_LIMITS);
+        return new ClientRateLimiter(
+                Objects.isNull(limits) || limits.isBlank() ? Map.of() : parseLimits(limits),
+                configurationService,
+                rateLimitStore);
+    }
+
+    static Map<String, Limit> parseLimits(String value) {
+        Map<String, Limit> limits = new HashMap<>();
+        for (String entry : value.split(",")) {
+            String[] clientAndLimit = entry.trim().split("=");
+            if (clientAndLimit.length != 2 || clientAndLimit[0].isBlank()) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Expected %s entries as clientId=rate/burst, got %s",
+                                CLIENT_RATE_LIMITS, entry));
+            }
+            limits.put(
+                    clientAndLimit[0].trim(), parseLimit(CLIENT_RATE_LIMITS, clientAndLimit[1]));
+        }
+        return limits;
+    }
+
+    static Limit parseLimit(String name, String value) {
+        String[] rateAndBurst = value.split("/");
+        if (rateAndBurst.length != 2) {
+            throw new IllegalArgumentException(
+                    String.format("Expected %s limits as rate/burst, got %s", name, value));
+        }
+        return new Limit(
+                Double.parseDouble(rateAndBurst[0].trim()),
+                Double.parseDouble(rateAndBurst[1].trim()));
+    }
+
+    /**
+     * Takes a token for {@code clientId}, the client the request claims to be from, which may be
+     * {@code null} when the request names none.
+     */
+    public boolean tryAcquire(String clientId) {
+        String bucketKey = OTHER_CLIENTS;
+        Limit limit = defaultLimits.get(OTHER_CLIENTS);
+        Limit configuredLimit = Objects.isNull(clientId) ? null : getConfiguredLimit(clientId);
+        if (Objects.nonNull(configuredLimit)) {
+            bucketKey = clientId;
+            limit = configuredLimit;
+        } else if (Objects.nonNull(clientId) && defaultLimits.containsKey(clientId)) {
+            bucketKey = clientId;
+            limit = defaultLimits.get(clientId);
+        }
+        if (Objects.isNull(limit)) {
+            return true;
+        }
+        Limit bucketLimit = limit;
+        TokenBucket bucket =
+                buckets.compute(
+                        bucketKey,
+                        (key, current) ->
+                                Objects.nonNull(current) && current.limit.equals(bucketLimit)
+                                        ? current
+                                        : new TokenBucket(bucketLimit, nanoTime.getAsLong()));
+        boolean admitted = bucket.tryConsume(nanoTime.getAsLong());
+        boolean storeFailed = false;
+        if (admitted && Objects.nonNull(rateLimitStore)) {
+            try {
+                admitted =
+                        rateLimitStore.tryConsume(
+                                bucketKey, limit.getRatePerSecond(), limit.getBurst());
+            } catch (SdkException e) {
+                storeFailed = true;
+            }
+        }
+        publish(bucketKey, bucket.getTokens(), admitted, storeFailed);
+        return admitted;
+    }
+
+    // Unknown clients have no configuration and so no limit of their own
+    private Limit getConfiguredLimit(String clientId) {
+        if (Objects.isNull(configurationService)) {
+            return null;
+        }
+        try {
+            Map<String, String> clientConfiguration =
+                    configurationService.getParametersForPath(
+                            String.format(CLIENT_CONFIGURATION_PATH, clientId));
+            String limit =
+                    Objects.isNull(clientConfiguration)
+                            ? null
+                            : clientConfiguration.get(RATE_LIMIT_PARAMETER);
+            return Objects.isNull(limit) ? null : parseLimit(RATE_LIMIT_PARAMETER, limit);
+        } catch (RuntimeException e) {
+            MetricsUtils.withSingleMetric(
+                    METRIC_CONFIGURATION_FAILED, 1, Unit.COUNT, metricsLogger -> {});
+            return null;
+        }
+    }
+
+    private static void publish(
+            String bucketKey, double tokens, boolean admitted, boolean storeFailed) {
+        MetricsUtils.withSingleMetric(
+                METRIC_TOKENS,
+                tokens,
+                Unit.COUNT,
+                metricsLogger -> {
+                    metricsLogger.setDimensions(DimensionSet.of(DIMENSION_CLIENT_ID, bucketKey));
+                    metricsLogger.putMetric(METRIC_RATE_LIMITED, admitted ? 0 : 1, Unit.COUNT);
+                    if (storeFailed) {
+                        metricsLogger.putMetric(METRIC_STORE_FAILED, 1, Unit.COUNT);
+                    }
+                });
+    }
+
+    public static final class Limit {
+        private final double ratePerSecond;
+        private final double burst;
+
+        public Limit(double ratePerSecond, double burst) {
+            if (ratePerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Expected rate > 0 and burst >= 1, got %s and %s",
+                                ratePerSecond, burst));
+            }
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+        }
+
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public double getBurst() {
+            return burst;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Limit)) {
+                return false;
+            }
+            Limit limit = (Limit) o;
+            return ratePerSecond == limit.ratePerSecond && burst == limit.burst;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ratePerSecond, burst);
+        }
+    }
+
+    private static final class TokenBucket {
+        private final Limit limit;
+        private double tokens;
+        private long refilledAtNanos;
+
+        private TokenBucket(Limit limit, long nowNanos) {
+            this.limit = limit;
+            this.tokens = limit.getBurst();
+            this.refilledAtNanos = nowNanos;
+        }
+
+        private synchronized boolean tryConsume(long nowNanos) {
+            long elapsedNanos = Math.max(0, nowNanos - refilledAtNanos);
+            tokens =
+                    Math.min(
+                            limit.getBurst(),
+                            tokens
+                                    + limit.getRatePerSecond()
+                                            * elapsedNanos
+                                            / TimeUnit.SECONDS.toNanos(1));
+            refilledAtNanos = nowNanos;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        private synchronized double getTokens() {
+            return tokens;
+        }
+    }
+}
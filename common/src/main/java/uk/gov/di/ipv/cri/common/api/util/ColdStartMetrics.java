@@ -0,0 +1,122 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import software.amazon.cloudwatchlogs.emf.model.DimensionSet;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Records how long each phase of a cold start takes, so the ColdStart count metric can be broken
+ * down into handler construction phases, the first AWS SDK call and the first invocation.
+ *
+ * <p>Phases are recorded during the handler's no-arg constructor and published as a single EMF
+ * blob, one {@value #METRIC_PREFIX}* metric per phase, once the first invocation completes.
+ * Nothing is recorded after that, so warm invocations only pay for a flag check.
+ */
+public class ColdStartMetrics {
+
+    static final String METRIC_PREFIX = "ColdStartPhase.";
+    static final String FIRST_INVOCATION = "FirstInvocation";
+    static final String FIRST_SDK_CALL = "FirstSdkCall";
+    private static final String FUNCTION_NAME_ENV = "AWS_LAMBDA_FUNCTION_NAME";
+
+    private static final ColdStartMetrics INSTANCE =
+            new ColdStartMetrics(HandlerInstrumentation.getServiceName());
+
+    private final String serviceName;
+    private final Map<String, Long> phaseDurations =
+            Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, String> properties =
+            Collections.synchronizedMap(new LinkedHashMap<>());
+    private final AtomicBoolean published = new AtomicBoolean(false);
+
+    public ColdStartMetrics(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public static ColdStartMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public <T> T time(String phase, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            recordPhase(phase, start);
+        }
+    }
+
+    public void recordPhase(String phase, long startNanos) {
+        if (!published.get()) {
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            phaseDurations.merge(phase, durationMillis, Long::sum);
+        }
+    }
+
+    public void putProperty(String key, String value) {
+        if (!published.get()) {
+            properties.put(key, value);
+        }
+    }
+
+    public <O> O timeFirstInvocation(Supplier<O> invocation) {
+        if (published.get()) {
+            return invocation.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.get();
+        } finally {
+            recordPhase(FIRST_INVOCATION, start);
+            publish();
+        }
+    }
+
+    public Map<String, Long> getPhaseDurations() {
+        synchronized (phaseDurations) {
+            return new LinkedHashMap<>(phaseDurations);
+        }
+    }
+
+    public boolean isPublished() {
+        return published.get();
+    }
+
+    private void publish() {
+        if (!published.compareAndSet(false, true)) {
+            return;
+        }
+        Map<String, Long> durations = getPhaseDurations();
+        Map<String, String> metricProperties;
+        synchronized (properties) {
+            metricProperties = new LinkedHashMap<>(properties);
+        }
+        Long firstInvocationDuration = durations.remove(FIRST_INVOCATION);
+
+        MetricsUtils.withSingleMetric(
+                METRIC_PREFIX + FIRST_INVOCATION,
+                firstInvocationDuration,
+                Unit.MILLISECONDS,
+                metricsLogger -> {
+                    String functionName = System.getenv(FUNCTION_NAME_ENV);
+                    metricsLogger.setDimensions(
+                            Objects.isNull(functionName)
+                                    ? DimensionSet.of("Service", serviceName)
+                                    : DimensionSet.of(
+                                            "Service", serviceName, "FunctionName", functionName));
+                    durations.forEach(
+                            (phase, duration) ->
+                                    metricsLogger.putMetric(
+                                            METRIC_PREFIX + phase, duration, Unit.MILLISECONDS));
+                    metricProperties.forEach(metricsLogger::putProperty);
+                });
+    }
+}
@@ -0,0 +1,95 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Fits every AWS SDK call into the invocation's {@link RequestDeadline}.
+ *
+ * <p>A call is refused with a {@link DeadlineExceededException} once less than {@value
+ * #MIN_CALL_BUDGET_MILLIS} ms remain. Otherwise the remaining time becomes its API call timeout,
+ * which bounds the call and all of its retries, and half of it the timeout of each attempt, so a
+ * stalled first attempt still leaves time for a retry. Both are counted as {@value
+ * #METRIC_DEADLINE_EXCEEDED}.
+ *
+ * <p>Registered as an SDK global interceptor alongside {@link FirstSdkCallInterceptor}, so it
+ * applies to the DynamoDB, KMS, SQS and SSM clients alike.
+ */
+public class DeadlineInterceptor implements ExecutionInterceptor {
+
+    static final String METRIC_DEADLINE_EXCEEDED = "DeadlineExceeded";
+    static final long MIN_CALL_BUDGET_MILLIS = 50;
+
+    @Override
+    public void beforeExecution(
+            Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        Optional<Duration> remaining = RequestDeadline.remaining();
+        if (remaining.isPresent() && remaining.get().toMillis() < MIN_CALL_BUDGET_MILLIS) {
+            MetricsUtils.metricsLogger().putMetric(METRIC_DEADLINE_EXCEEDED, 1, Unit.COUNT);
+            throw new DeadlineExceededException(
+                    String.format(
+                            "Request deadline leaves %d ms for %s",
+                            Math.max(0, remaining.get().toMillis()),
+                            getOperation(executionAttributes)));
+        }
+    }
+
+    @Override
+    public SdkRequest modifyRequest(
+            Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        Optional<Duration> remaining = RequestDeadline.remaining();
+        if (remaining.isEmpty() || !(context.request() instanceof AwsRequest)) {
+            return context.request();
+        }
+        AwsRequest request = (AwsRequest) context.request();
+        AwsRequestOverrideConfiguration.Builder overrideConfiguration =
+                request.overrideConfiguration()
+                        .map(AwsRequestOverrideConfiguration::toBuilder)
+                        .orElseGet(AwsRequestOverrideConfiguration::builder);
+        Duration apiCallTimeout = min(remaining.get(), overrideConfiguration.apiCallTimeout());
+        Duration apiCallAttemptTimeout =
+                min(apiCallTimeout.dividedBy(2), overrideConfiguration.apiCallAttemptTimeout());
+        return request.toBuilder()
+                .overrideConfiguration(
+                        overrideConfiguration
+                                .apiCallTimeout(apiCallTimeout)
+                                .apiCallAttemptTimeout(apiCallAttemptTimeout)
+                                .build())
+                .build();
+    }
+
+    @Override
+    public void onExecutionFailure(
+            Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        if (context.exception() instanceof ApiCallTimeoutException
+                && RequestDeadline.remaining().isPresent()) {
+            MetricsUtils.metricsLogger().putMetric(METRIC_DEADLINE_EXCEEDED, 1, Unit.COUNT);
+        }
+    }
+
+    private static Duration min(Duration deadline, Duration configured) {
+        if (Objects.isNull(configured) || deadline.compareTo(configured) < 0) {
+            return deadline;
+        }
+        return configured;
+    }
+
+    private static String getOperation(ExecutionAttributes executionAttributes) {
+        return executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME)
+                + "."
+                + executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+    }
+}
@@ -0,0 +1,60 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times the first AWS SDK call made by the function, whichever client makes it, as the {@value
+ * ColdStartMetrics#FIRST_SDK_CALL} cold start phase.
+ *
+ * <p>Registered as an SDK global interceptor in {@code
+ * software/amazon/awssdk/global/handlers/execution.interceptors}, so it is applied to every
+ * client including the ones Powertools builds for its parameter providers.
+ */
+public class FirstSdkCallInterceptor implements ExecutionInterceptor {
+
+    static final String FIRST_SDK_CALL_OPERATION = "FirstSdkCallOperation";
+    private static final ExecutionAttribute<Long> FIRST_CALL_START =
+            new ExecutionAttribute<>("ColdStartFirstSdkCallStart");
+    private static final AtomicBoolean FIRST_CALL = new AtomicBoolean(true);
+
+    @Override
+    public void beforeExecution(
+            Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        if (FIRST_CALL.get() && FIRST_CALL.compareAndSet(true, false)) {
+            executionAttributes.putAttribute(FIRST_CALL_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterExecution(
+            Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        recordFirstCall(executionAttributes);
+    }
+
+    @Override
+    public void onExecutionFailure(
+            Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        recordFirstCall(executionAttributes);
+    }
+
+    private static void recordFirstCall(ExecutionAttributes executionAttributes) {
+        Long start = executionAttributes.getAttribute(FIRST_CALL_START);
+        if (Objects.isNull(start)) {
+            return;
+        }
+        ColdStartMetrics coldStartMetrics = ColdStartMetrics.getInstance();
+        coldStartMetrics.recordPhase(ColdStartMetrics.FIRST_SDK_CALL, start);
+        coldStartMetrics.putProperty(
+                FIRST_SDK_CALL_OPERATION,
+                executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME)
+                        + "."
+                        + executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME));
+    }
+}
@@ -0,0 +1,145 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import org.apache.logging.log4j.ThreadContext;
+import software.amazon.cloudwatchlogs.emf.logger.MetricsLogger;
+import software.amazon.cloudwatchlogs.emf.model.DimensionSet;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.logging.LoggingUtils;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Explicit replacement for the Powertools {@code @Logging} and {@code @Metrics} aspects.
+ *
+ * <p>Each Java module decides at build time whether the Powertools aspects are woven (see {@code
+ * gradle/instrumentation/handler-instrumentation.gradle}), and records the choice in {@value
+ * #PROPERTIES_FILE}. When the aspects are woven this class is a pass-through. Otherwise it
+ * provides what the annotations would: Lambda context and correlation id logging keys, a
+ * ColdStart metric, flushing the metrics logger and clearing the logging state after each
+ * invocation. In both cases the first invocation publishes the {@link ColdStartMetrics} phases,
+ * and the handler runs within a {@link RequestDeadline} taken from the context.
+ */
+public class HandlerInstrumentation {
+
+    static final String PROPERTIES_FILE = "handler-instrumentation.properties";
+    static final String ASPECTS_PROPERTY = "powertools.aspects";
+    static final String CORRELATION_ID = "correlation_id";
+    static final String COLD_START_METRIC = "ColdStart";
+    private static final String SERVICE_NAME_ENV = "POWERTOOLS_SERVICE_NAME";
+    private static final String DEFAULT_SERVICE_NAME = "service_undefined";
+    private static final String REQUEST_ID_PROPERTY = "function_request_id";
+
+    private static final HandlerInstrumentation INSTANCE =
+            new HandlerInstrumentation(readAspectsEnabled(), getServiceName());
+
+    private final boolean aspectsEnabled;
+    private final String serviceName;
+    private final AtomicBoolean coldStart = new AtomicBoolean(true);
+
+    public HandlerInstrumentation(boolean aspectsEnabled, String serviceName) {
+        this.aspectsEnabled = aspectsEnabled;
+        this.serviceName = serviceName;
+    }
+
+    public static HandlerInstrumentation getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isAspectsEnabled() {
+        return aspectsEnabled;
+    }
+
+    public <O> O instrument(
+            APIGatewayProxyRequestEvent input,
+            Context context,
+            BiFunction<APIGatewayProxyRequestEvent, Context, O> handler) {
+        ColdStartMetrics coldStartMetrics = ColdStartMetrics.getInstance();
+        if (aspectsEnabled) {
+            return coldStartMetrics.timeFirstInvocation(
+                    () -> RequestDeadline.runWithin(context, () -> handler.apply(input, context)));
+        }
+
+        boolean isColdStart = coldStart.getAndSet(false);
+        MetricsLogger metricsLogger = MetricsUtils.metricsLogger();
+        try {
+            LoggingUtils.appendKeys(getLoggingKeys(input, context, isColdStart));
+            metricsLogger.setDimensions(DimensionSet.of("Service", serviceName));
+            if (Objects.nonNull(context)) {
+                metricsLogger.putProperty(REQUEST_ID_PROPERTY, context.getAwsRequestId());
+                if (isColdStart) {
+                    captureColdStart(context);
+                }
+            }
+            return coldStartMetrics.timeFirstInvocation(
+                    () -> RequestDeadline.runWithin(context, () -> handler.apply(input, context)));
+        } finally {
+            metricsLogger.flush();
+            ThreadContext.clearMap();
+        }
+    }
+
+    private Map<String, String> getLoggingKeys(
+            APIGatewayProxyRequestEvent input, Context context, boolean isColdStart) {
+        Map<String, String> loggingKeys = new HashMap<>();
+        loggingKeys.put("service", serviceName);
+        loggingKeys.put("coldStart", String.valueOf(isColdStart));
+        if (Objects.nonNull(context)) {
+            loggingKeys.put("function_name", context.getFunctionName());
+            loggingKeys.put("function_version", context.getFunctionVersion());
+            loggingKeys.put("function_arn", context.getInvokedFunctionArn());
+            loggingKeys.put("function_memory_size", String.valueOf(context.getMemoryLimitInMB()));
+            loggingKeys.put(REQUEST_ID_PROPERTY, context.getAwsRequestId());
+        }
+        if (Objects.nonNull(input) && Objects.nonNull(input.getRequestContext())) {
+            loggingKeys.put(CORRELATION_ID, input.getRequestContext().getRequestId());
+        }
+        loggingKeys.values().removeIf(Objects::isNull);
+        return loggingKeys;
+    }
+
+    private void captureColdStart(Context context) {
+        MetricsUtils.withSingleMetric(
+                COLD_START_METRIC,
+                1,
+                Unit.COUNT,
+                metricsLogger -> {
+                    metricsLogger.setDimensions(
+                            DimensionSet.of(
+                                    "Service",
+                                    serviceName,
+                                    "FunctionName",
+                                    context.getFunctionName()));
+                    metricsLogger.putProperty(REQUEST_ID_PROPERTY, context.getAwsRequestId());
+                });
+    }
+
+    private static boolean readAspectsEnabled() {
+        ClassLoader classLoader = HandlerInstrumentation.class.getClassLoader();
+        try (InputStream inputStream = classLoader.getResourceAsStream(PROPERTIES_FILE)) {
+            if (Objects.isNull(inputStream)) {
+                return true;
+            }
+            Properties properties = new Properties();
+            properties.load(inputStream);
+            return Boolean.parseBoolean(properties.getProperty(ASPECTS_PROPERTY, "true"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String getServiceName() {
+        String serviceName = System.getenv(SERVICE_NAME_ENV);
+        return Objects.isNull(serviceName) ? DEFAULT_SERVICE_NAME : serviceName;
+    }
+}
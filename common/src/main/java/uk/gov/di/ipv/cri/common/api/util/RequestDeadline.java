@@ -0,0 +1,68 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The point by which the current invocation has to have finished its downstream calls, taken
+ * from {@link Context#getRemainingTimeInMillis()} less {@value #RESPONSE_RESERVE_MILLIS} ms kept
+ * back for building and returning the response.
+ *
+ * <p>The deadline belongs to the thread handling the invocation. Work handed to another thread
+ * has to be wrapped with {@link #propagate(Supplier)} to keep it.
+ */
+public final class RequestDeadline {
+
+    static final long RESPONSE_RESERVE_MILLIS = 500;
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    /** Runs {@code supplier} with a deadline, or without one when there is no context. */
+    public static <T> T runWithin(Context context, Supplier<T> supplier) {
+        if (Objects.isNull(context)) {
+            return supplier.get();
+        }
+        long budgetMillis = context.getRemainingTimeInMillis() - RESPONSE_RESERVE_MILLIS;
+        return runUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis), supplier);
+    }
+
+    /** Wraps {@code supplier} to run under the calling thread's deadline, if it has one. */
+    public static <T> Supplier<T> propagate(Supplier<T> supplier) {
+        Long deadlineNanos = DEADLINE_NANOS.get();
+        if (Objects.isNull(deadlineNanos)) {
+            return supplier;
+        }
+        return () -> runUntil(deadlineNanos, supplier);
+    }
+
+    /** Time left before the deadline, which is negative once it has passed. */
+    public static Optional<Duration> remaining() {
+        Long deadlineNanos = DEADLINE_NANOS.get();
+        if (Objects.isNull(deadlineNanos)) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(deadlineNanos - System.nanoTime()));
+    }
+
+    private static <T> T runUntil(long deadlineNanos, Supplier<T> supplier) {
+        Long previous = DEADLINE_NANOS.get();
+        DEADLINE_NANOS.set(deadlineNanos);
+        try {
+            return supplier.get();
+        } finally {
+            if (Objects.isNull(previous)) {
+                DEADLINE_NANOS.remove();
+            } else {
+                DEADLINE_NANOS.set(previous);
+            }
+        }
+    }
+}
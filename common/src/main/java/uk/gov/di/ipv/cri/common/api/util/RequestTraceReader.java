@@ -0,0 +1,71 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a trace written by {@link RequestTraceWriter} through a read-only memory mapping, so a
+ * long trace is neither parsed up front nor copied onto the heap. A record cut short by a capture
+ * that stopped mid-write is ignored.
+ */
+public class RequestTraceReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private RequestTraceReader(FileChannel channel, MappedByteBuffer buffer, int size) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    public static RequestTraceReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        String.format("Request trace %s is larger than 2 GiB", path));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (length < RequestTraceWriter.HEADER_SIZE
+                    || buffer.getLong(0) != RequestTraceWriter.MAGIC) {
+                throw new IllegalArgumentException(path + " is not a request trace");
+            }
+            if (buffer.getInt(8) != RequestTraceWriter.VERSION) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Request trace %s is version %d, expected %d",
+                                path, buffer.getInt(8), RequestTraceWriter.VERSION));
+            }
+            int size = (int) ((length - RequestTraceWriter.HEADER_SIZE) / RequestTraceRecord.SIZE);
+            return new RequestTraceReader(channel, buffer, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** The number of complete records in the trace. */
+    public int size() {
+        return size;
+    }
+
+    public RequestTraceRecord get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Record %d of a trace of %d", index, size));
+        }
+        return RequestTraceRecord.readFrom(
+                buffer, RequestTraceWriter.HEADER_SIZE + index * RequestTraceRecord.SIZE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
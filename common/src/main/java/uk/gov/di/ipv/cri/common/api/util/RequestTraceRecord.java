@@ -0,0 +1,107 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One captured request in a request trace, with nothing of the original request left but its
+ * timing, endpoint, outcome and size, and pseudonyms linking it to the session and authorization
+ * code it used.
+ *
+ * <p>Records are {@value #SIZE} bytes each, so a trace can be read at any index without parsing
+ * what comes before it.
+ */
+public final class RequestTraceRecord {
+
+    static final int SIZE = 32;
+
+    /** The endpoint a request was made to. */
+    public enum Endpoint {
+        SESSION,
+        AUTHORIZATION,
+        TOKEN
+    }
+
+    private final long offsetMicros;
+    private final Endpoint endpoint;
+    private final int statusCode;
+    private final int requestSize;
+    private final long sessionPseudonym;
+    private final long authorizationCodePseudonym;
+
+    public RequestTraceRecord(
+            long offsetMicros,
+            Endpoint endpoint,
+            int statusCode,
+            int requestSize,
+            long sessionPseudonym,
+            long authorizationCodePseudonym) {
+        this.offsetMicros = offsetMicros;
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.requestSize = requestSize;
+        this.sessionPseudonym = sessionPseudonym;
+        this.authorizationCodePseudonym = authorizationCodePseudonym;
+    }
+
+    /** Time since the capture started. */
+    public long getOffsetMicros() {
+        return offsetMicros;
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /** The status code the handler answered with when the request was captured. */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isSuccessful() {
+        return statusCode / 100 == 2;
+    }
+
+    /**
+     * Characters in the encrypted session request for session requests, which grows with the
+     * shared claims, and in the form body for token requests.
+     */
+    public int getRequestSize() {
+        return requestSize;
+    }
+
+    /** The session created or used, or {@code 0} when there was none. */
+    public long getSessionPseudonym() {
+        return sessionPseudonym;
+    }
+
+    /** The authorization code returned or redeemed, or {@code 0} when there was none. */
+    public long getAuthorizationCodePseudonym() {
+        return authorizationCodePseudonym;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(offsetMicros);
+        buffer.put((byte) endpoint.ordinal());
+        buffer.put((byte) 0);
+        buffer.putShort((short) statusCode);
+        buffer.putInt(requestSize);
+        buffer.putLong(sessionPseudonym);
+        buffer.putLong(authorizationCodePseudonym);
+    }
+
+    static RequestTraceRecord readFrom(ByteBuffer buffer, int position) {
+        Endpoint[] endpoints = Endpoint.values();
+        int endpoint = buffer.get(position + 8);
+        if (endpoint < 0 || endpoint >= endpoints.length) {
+            throw new IllegalArgumentException(
+                    String.format("Unknown endpoint %d in record at %d", endpoint, position));
+        }
+        return new RequestTraceRecord(
+                buffer.getLong(position),
+                endpoints[endpoint],
+                Short.toUnsignedInt(buffer.getShort(position + 10)),
+                buffer.getInt(position + 12),
+                buffer.getLong(position + 16),
+                buffer.getLong(position + 24));
+    }
+}
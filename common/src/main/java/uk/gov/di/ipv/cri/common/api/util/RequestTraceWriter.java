@@ -0,0 +1,231 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Captures the session, authorization and token requests a process serves to a request trace, so
+ * the traffic a load test drives can be replayed offline.
+ *
+ * <p>A trace is a local file written by one process, and journeys are only linked within it. It is
+ * not wired into the deployed Lambdas: each execution environment would start its own trace on
+ * ephemeral storage, with its own pseudonym key, and lose it when the environment is recycled.
+ * Capture from a single process that serves all three endpoints, such as the load test server.
+ *
+ * <p>Nothing in the trace identifies a user or can be presented as a credential. Request bodies,
+ * headers and query strings are never written. A session request is reduced to the size of its
+ * encrypted request, which grows with the shared claims, and a token request to the size of its
+ * form body. Session ids and authorization codes are replaced by keyed hashes. The key is
+ * generated for each capture and never stored, so a trace links each session to its requests but
+ * cannot be linked back to the original ids. The replayer signs and encrypts new requests of the
+ * same shape with test keys.
+ *
+ * <p>Capturing never fails a request. The first write that fails stops the capture with a warning.
+ */
+public class RequestTraceWriter implements AutoCloseable {
+
+    static final long MAGIC = 0x4352495452414345L;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final FileChannel channel;
+    private final Mac mac;
+    private final LongSupplier nanoTime;
+    private final long startNanos;
+    private final ByteBuffer buffer = ByteBuffer.allocate(RequestTraceRecord.SIZE);
+    private boolean stopped;
+
+    RequestTraceWriter(FileChannel channel, byte[] pseudonymKey, LongSupplier nanoTime)
+            throws IOException {
+        this.channel = channel;
+        this.nanoTime = nanoTime;
+        this.startNanos = nanoTime.getAsLong();
+        try {
+            this.mac = Mac.getInstance(HMAC_ALGORITHM);
+            this.mac.init(new SecretKeySpec(pseudonymKey, HMAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer header =
+                ByteBuffer.allocate(HEADER_SIZE).putLong(MAGIC).putInt(VERSION).putInt(0).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /** Starts a new trace at {@code path}, replacing any file already there. */
+    public static RequestTraceWriter create(Path path) throws IOException {
+        byte[] pseudonymKey = new byte[32];
+        new SecureRandom().nextBytes(pseudonymKey);
+        return new RequestTraceWriter(
+                FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE),
+                pseudonymKey,
+                System::nanoTime);
+    }
+
+    /** Records the request if it was made to the session, authorization or token endpoint. */
+    public void capture(APIGatewayProxyRequestEvent input, Object output) {
+        if (Objects.isNull(input)
+                || Objects.isNull(input.getPath())
+                || !(output instanceof APIGatewayProxyResponseEvent)) {
+            return;
+        }
+        APIGatewayProxyResponseEvent response = (APIGatewayProxyResponseEvent) output;
+        if (Objects.isNull(response.getStatusCode())) {
+            return;
+        }
+        try {
+            RequestTraceRecord record = toRecord(input, response);
+            if (Objects.nonNull(record)) {
+                write(record);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not capture a request to {}", input.getPath(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        stopped = true;
+        channel.close();
+    }
+
+    private RequestTraceRecord toRecord(
+            APIGatewayProxyRequestEvent input, APIGatewayProxyResponseEvent response) {
+        long offsetMicros = TimeUnit.NANOSECONDS.toMicros(nanoTime.getAsLong() - startNanos);
+        int statusCode = response.getStatusCode();
+        boolean successful = statusCode / 100 == 2;
+        String path = input.getPath();
+        if (path.endsWith("/session")) {
+            String request = readJson(input.getBody()).path("request").asText("");
+            String sessionId =
+                    successful ? readJson(response.getBody()).path("session_id").asText() : null;
+            return new RequestTraceRecord(
+                    offsetMicros,
+                    RequestTraceRecord.Endpoint.SESSION,
+                    statusCode,
+                    request.length(),
+                    pseudonym(sessionId),
+                    0);
+        }
+        if (path.endsWith("/authorization")) {
+            String authorizationCode =
+                    successful
+                            ? readJson(response.getBody())
+                                    .path("authorizationCode")
+                                    .path("value")
+                                    .asText()
+                            : null;
+            return new RequestTraceRecord(
+                    offsetMicros,
+                    RequestTraceRecord.Endpoint.AUTHORIZATION,
+                    statusCode,
+                    0,
+                    pseudonym(getHeader(input, "session-id")),
+                    pseudonym(authorizationCode));
+        }
+        if (path.endsWith("/token")) {
+            String body = Objects.isNull(input.getBody()) ? "" : input.getBody();
+            return new RequestTraceRecord(
+                    offsetMicros,
+                    RequestTraceRecord.Endpoint.TOKEN,
+                    statusCode,
+                    body.length(),
+                    0,
+                    pseudonym(getFormParameter(body, "code")));
+        }
+        return null;
+    }
+
+    private synchronized long pseudonym(String value) {
+        if (Objects.isNull(value) || value.isEmpty()) {
+            return 0;
+        }
+        long pseudonym =
+                ByteBuffer.wrap(mac.doFinal(value.getBytes(StandardCharsets.UTF_8))).getLong();
+        // 0 stands for no value
+        return pseudonym == 0 ? 1 : pseudonym;
+    }
+
+    private synchronized void write(RequestTraceRecord record) {
+        if (stopped) {
+            return;
+        }
+        try {
+            buffer.clear();
+            record.writeTo(buffer);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            stopped = true;
+            LOGGER.warn("Stopped capturing the request trace", e);
+        }
+    }
+
+    private static JsonNode readJson(String body) {
+        if (Objects.isNull(body)) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return OBJECT_MAPPER.readTree(body);
+        } catch (JsonProcessingException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    private static String getHeader(APIGatewayProxyRequestEvent input, String name) {
+        if (Objects.isNull(input.getHeaders())) {
+            return null;
+        }
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(input.getHeaders());
+        return headers.get(name);
+    }
+
+    private static String getFormParameter(String body, String name) {
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0
+                    && name.equals(
+                            URLDecoder.decode(
+                                    pair.substring(0, separator), StandardCharsets.UTF_8))) {
+                return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+}
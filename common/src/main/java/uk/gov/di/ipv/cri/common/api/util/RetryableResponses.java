@@ -0,0 +1,28 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.nimbusds.oauth2.sdk.OAuth2Error;
+import uk.gov.di.ipv.cri.common.library.util.ApiGatewayResponseGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Responses that shed a request with the OAuth error a client may retry after a short wait. */
+public final class RetryableResponses {
+
+    static final String HEADER_RETRY_AFTER = "Retry-After";
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private RetryableResponses() {
+        throw new IllegalStateException("Instantiation is not valid for this class.");
+    }
+
+    public static APIGatewayProxyResponseEvent temporarilyUnavailable(int statusCode) {
+        APIGatewayProxyResponseEvent response =
+                ApiGatewayResponseGenerator.proxyJsonResponse(
+                        statusCode, OAuth2Error.TEMPORARILY_UNAVAILABLE.toJSONObject());
+        Map<String, String> headers = new HashMap<>(response.getHeaders());
+        headers.put(HEADER_RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return response.withHeaders(headers);
+    }
+}
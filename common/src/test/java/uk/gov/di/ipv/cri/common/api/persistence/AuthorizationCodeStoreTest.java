@@ -0,0 +1,67 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationCodeStoreTest {
+    @Mock private DynamoDbTable<SessionItem> mockTable;
+
+    @Test
+    void shouldReadSnapshotWithConsistentRead() {
+        SessionItem sessionItem = new SessionItem();
+        ArgumentCaptor<GetItemEnhancedRequest> requestCaptor =
+                ArgumentCaptor.forClass(GetItemEnhancedRequest.class);
+        when(mockTable.getItem(requestCaptor.capture())).thenReturn(sessionItem);
+
+        assertEquals(sessionItem, new AuthorizationCodeStore(mockTable).getItem("auth-code"));
+        assertTrue(requestCaptor.getValue().consistentRead());
+        assertEquals("auth-code", requestCaptor.getValue().key().partitionKeyValue().s());
+    }
+
+    @Test
+    void shouldDeleteSnapshotByAuthorizationCode() {
+        new AuthorizationCodeStore(mockTable).delete("auth-code");
+
+        verify(mockTable).deleteItem(Key.builder().partitionValue("auth-code").build());
+    }
+
+    @Test
+    void shouldKeySnapshotsByAuthorizationCodeWithSessionAttributeNames() {
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setSessionId(UUID.randomUUID());
+        sessionItem.setAuthorizationCode("auth-code");
+
+        Map<String, AttributeValue> snapshot =
+                TableSchemaRegistry.authorizationCodeItemSchema().itemToMap(sessionItem, true);
+
+        assertEquals(
+                "authorizationCode",
+                TableSchemaRegistry.authorizationCodeItemSchema()
+                        .tableMetadata()
+                        .primaryPartitionKey());
+        assertEquals(
+                TableSchemaRegistry.sessionItemSchema().itemToMap(sessionItem, true), snapshot);
+        assertFalse(
+                TableSchemaRegistry.authorizationCodeItemSchema().tableMetadata().indices().stream()
+                        .anyMatch(index -> !index.name().equals(TableMetadata.primaryIndexName())));
+    }
+}
@@ -0,0 +1,196 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedReadsTest {
+
+    private ExecutorService executor;
+    private final CountDownLatch releasePrimary = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releasePrimary.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldReadOnTheCallingThreadWhenNotHedging() {
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, HedgedReads.direct().read(Thread::currentThread));
+    }
+
+    @Test
+    void shouldNotHedgeAReadThatAnswersInTime() {
+        HedgedReads hedgedReads = new HedgedReads(executor, 95, 1);
+        AtomicInteger reads = new AtomicInteger();
+
+        String value =
+                hedgedReads.read(
+                        () -> {
+                            reads.incrementAndGet();
+                            return "primary";
+                        });
+
+        assertEquals("primary", value);
+        assertEquals(1, reads.get());
+        assertEquals(0, hedgedReads.getHedgesIssued());
+    }
+
+    @Test
+    void shouldReturnTheHedgeWhenThePrimaryIsSlow() {
+        HedgedReads hedgedReads = new HedgedReads(executor, 95, 1);
+        AtomicInteger reads = new AtomicInteger();
+
+        String value = hedgedReads.read(() -> reads.getAndIncrement() == 0 ? slowRead() : "hedge");
+
+        assertEquals("hedge", value);
+        assertEquals(1, hedgedReads.getHedgesIssued());
+        assertEquals(1, hedgedReads.getHedgesWon());
+    }
+
+    @Test
+    void shouldWaitForThePrimaryWhenTheHedgeBudgetIsSpent() {
+        HedgedReads hedgedReads = new HedgedReads(executor, 95, 0);
+        AtomicInteger reads = new AtomicInteger();
+
+        String value =
+                hedgedReads.read(
+                        () -> {
+                            reads.incrementAndGet();
+                            return readAfterTheHedgeDelay();
+                        });
+
+        assertEquals("read", value);
+        assertEquals(1, reads.get());
+        assertEquals(0, hedgedReads.getHedgesIssued());
+    }
+
+    @Test
+    void shouldLimitHedgesToTheMaxHedgeRatio() {
+        HedgedReads hedgedReads = new HedgedReads(executor, 95, 0.5);
+
+        hedgedReads.read(HedgedReadsTest::readAfterTheHedgeDelay);
+        hedgedReads.read(HedgedReadsTest::readAfterTheHedgeDelay);
+
+        assertEquals(1, hedgedReads.getHedgesIssued());
+    }
+
+    @Test
+    void shouldRethrowTheReadFailure() {
+        HedgedReads hedgedReads = new HedgedReads(executor, 95, 1);
+        IllegalArgumentException failure = new IllegalArgumentException("read failed");
+
+        assertSame(
+                failure,
+                assertThrows(
+                        IllegalArgumentException.class,
+                        () ->
+                                hedgedReads.read(
+                                        () -> {
+                                            throw failure;
+                                        })));
+    }
+
+    @Test
+    void shouldFailOnlyWhenBothReadsFail() {
+        HedgedReads hedgedReads = new HedgedReads(executor, 95, 1);
+        AtomicInteger reads = new AtomicInteger();
+
+        assertThrows(
+                IllegalStateException.class,
+                () ->
+                        hedgedReads.read(
+                                () -> {
+                                    if (reads.getAndIncrement() == 0) {
+                                        sleep(HedgedReads.INITIAL_DELAY_MILLIS * 2);
+                                    }
+                                    throw new IllegalStateException("read failed");
+                                }));
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void shouldDelayHedgesByThePercentileOfRecentLatencies() {
+        HedgedReads hedgedReads = new HedgedReads(executor, 95, 1);
+        assertEquals(
+                TimeUnit.MILLISECONDS.toNanos(HedgedReads.INITIAL_DELAY_MILLIS),
+                hedgedReads.getHedgeDelayNanos());
+
+        for (int millis = 1; millis <= 100; millis++) {
+            hedgedReads.recordLatency(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(95), hedgedReads.getHedgeDelayNanos());
+    }
+
+    @Test
+    void shouldNotRecordThePrimaryLatencyOnceTheHedgeHasAnswered() throws InterruptedException {
+        HedgedReads hedgedReads = new HedgedReads(executor, 100, 1);
+        for (int i = 1; i < HedgedReads.MIN_SAMPLES; i++) {
+            hedgedReads.read(() -> "read");
+        }
+        CountDownLatch primaryFinished = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+
+        String value =
+                hedgedReads.read(
+                        () -> {
+                            if (reads.getAndIncrement() > 0) {
+                                return "hedge";
+                            }
+                            String primary = slowRead();
+                            primaryFinished.countDown();
+                            return primary;
+                        });
+        // A primary finishing after the caller returned, e.g. after the environment was frozen
+        sleep(HedgedReads.INITIAL_DELAY_MILLIS * 10);
+        releasePrimary.countDown();
+        primaryFinished.await(5, TimeUnit.SECONDS);
+
+        assertEquals("hedge", value);
+        assertTrue(
+                hedgedReads.getHedgeDelayNanos()
+                        < TimeUnit.MILLISECONDS.toNanos(HedgedReads.INITIAL_DELAY_MILLIS * 5));
+    }
+
+    private static String readAfterTheHedgeDelay() {
+        sleep(HedgedReads.INITIAL_DELAY_MILLIS * 2);
+        return "read";
+    }
+
+    private String slowRead() {
+        try {
+            releasePrimary.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "primary";
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectedDataStoreTest {
+    private static final String TABLE_NAME = "session-table";
+    private static final List<String> ATTRIBUTES = List.of("sessionId", "clientId");
+
+    @Mock private DynamoDbEnhancedClient mockDynamoDbEnhancedClient;
+    @Mock private DynamoDbTable<SessionItem> mockTable;
+    private ProjectedDataStore<SessionItem> dataStore;
+
+    @BeforeEach
+    void setUp() {
+        when(mockDynamoDbEnhancedClient.table(TABLE_NAME, TableSchemaRegistry.sessionItemSchema()))
+                .thenReturn(mockTable);
+        dataStore =
+                new ProjectedDataStore<>(
+                        TABLE_NAME,
+                        TableSchemaRegistry.sessionItemSchema(),
+                        mockDynamoDbEnhancedClient,
+                        ATTRIBUTES);
+    }
+
+    @Test
+    void shouldQueryOnlyTheProjectedAttributesOfOneItem() {
+        SessionItem sessionItem = new SessionItem();
+        ArgumentCaptor<QueryEnhancedRequest> requestCaptor =
+                ArgumentCaptor.forClass(QueryEnhancedRequest.class);
+        when(mockTable.query(requestCaptor.capture())).thenReturn(pagesOf(sessionItem));
+
+        assertEquals(sessionItem, dataStore.getItem("session-id"));
+
+        QueryEnhancedRequest request = requestCaptor.getValue();
+        assertEquals(ATTRIBUTES, request.attributesToProject());
+        assertEquals(1, request.limit());
+    }
+
+    @Test
+    void shouldReturnNullWhenNoItemMatches() {
+        when(mockTable.query(any(QueryEnhancedRequest.class))).thenReturn(pagesOf());
+
+        assertNull(dataStore.getItem("session-id"));
+    }
+
+    @Test
+    void shouldRejectWrites() {
+        SessionItem sessionItem = new SessionItem();
+
+        assertThrows(UnsupportedOperationException.class, () -> dataStore.create(sessionItem));
+        assertThrows(UnsupportedOperationException.class, () -> dataStore.update(sessionItem));
+        verifyNoInteractions(mockTable);
+    }
+
+    private static PageIterable<SessionItem> pagesOf(SessionItem... items) {
+        return PageIterable.create(() -> List.of(Page.create(List.of(items))).iterator());
+    }
+}
@@ -0,0 +1,122 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitStoreTest {
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Mock private DynamoDbTable<RateLimitItem> mockTable;
+
+    @Test
+    void shouldCreateFullBucketLessOneToken() {
+        ArgumentCaptor<GetItemEnhancedRequest> getCaptor =
+                ArgumentCaptor.forClass(GetItemEnhancedRequest.class);
+        ArgumentCaptor<PutItemEnhancedRequest<RateLimitItem>> putCaptor = putCaptor();
+        when(mockTable.getItem(getCaptor.capture())).thenReturn(null);
+
+        assertTrue(rateLimitStore().tryConsume("ipv-core", 5, 10));
+
+        verify(mockTable).putItem(putCaptor.capture());
+        assertTrue(getCaptor.getValue().consistentRead());
+        RateLimitItem item = putCaptor.getValue().item();
+        assertEquals("ipv-core", item.getClientId());
+        assertEquals(9, item.getTokens());
+        assertEquals(NOW.toEpochMilli(), item.getUpdatedAt());
+        assertEquals(0, item.getVersion());
+        assertEquals(
+                "attribute_not_exists(clientId)",
+                putCaptor.getValue().conditionExpression().expression());
+    }
+
+    @Test
+    void shouldRefillBucketSinceLastUpdateAndCheckVersion() {
+        when(mockTable.getItem(any(GetItemEnhancedRequest.class)))
+                .thenReturn(bucket(0.5, NOW.toEpochMilli() - 200, 7));
+        ArgumentCaptor<PutItemEnhancedRequest<RateLimitItem>> putCaptor = putCaptor();
+
+        assertTrue(rateLimitStore().tryConsume("ipv-core", 5, 10));
+
+        verify(mockTable).putItem(putCaptor.capture());
+        assertEquals(0.5, putCaptor.getValue().item().getTokens(), 1e-9);
+        assertEquals(8, putCaptor.getValue().item().getVersion());
+        assertEquals(
+                "7",
+                putCaptor.getValue().conditionExpression().expressionValues().get(":version").n());
+    }
+
+    @Test
+    void shouldRefuseTokenFromEmptyBucketWithoutWriting() {
+        when(mockTable.getItem(any(GetItemEnhancedRequest.class)))
+                .thenReturn(bucket(0.2, NOW.toEpochMilli() - 100, 3));
+
+        assertFalse(rateLimitStore().tryConsume("ipv-core", 5, 10));
+        verify(mockTable, never()).putItem(any(PutItemEnhancedRequest.class));
+    }
+
+    @Test
+    void shouldRetryWhenAnotherEnvironmentUpdatedTheBucket() {
+        when(mockTable.getItem(any(GetItemEnhancedRequest.class)))
+                .thenReturn(bucket(5, NOW.toEpochMilli(), 1));
+        doThrow(ConditionalCheckFailedException.builder().build())
+                .doNothing()
+                .when(mockTable)
+                .putItem(any(PutItemEnhancedRequest.class));
+
+        assertTrue(rateLimitStore().tryConsume("ipv-core", 5, 10));
+        verify(mockTable, times(2)).getItem(any(GetItemEnhancedRequest.class));
+    }
+
+    @Test
+    void shouldRefuseTokenAfterLosingEveryAttempt() {
+        when(mockTable.getItem(any(GetItemEnhancedRequest.class)))
+                .thenReturn(bucket(5, NOW.toEpochMilli(), 1));
+        doThrow(ConditionalCheckFailedException.builder().build())
+                .when(mockTable)
+                .putItem(any(PutItemEnhancedRequest.class));
+
+        assertFalse(rateLimitStore().tryConsume("ipv-core", 5, 10));
+        verify(mockTable, times(RateLimitStore.MAX_ATTEMPTS))
+                .putItem(any(PutItemEnhancedRequest.class));
+    }
+
+    private RateLimitStore rateLimitStore() {
+        return new RateLimitStore(mockTable, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static RateLimitItem bucket(double tokens, long updatedAt, long version) {
+        RateLimitItem item = new RateLimitItem();
+        item.setClientId("ipv-core");
+        item.setTokens(tokens);
+        item.setUpdatedAt(updatedAt);
+        item.setVersion(version);
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<PutItemEnhancedRequest<RateLimitItem>> putCaptor() {
+        return ArgumentCaptor.forClass(PutItemEnhancedRequest.class);
+    }
+}
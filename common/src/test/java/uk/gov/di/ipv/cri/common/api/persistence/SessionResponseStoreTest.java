@@ -0,0 +1,86 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SessionResponseStoreTest {
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Mock private DynamoDbTable<SessionResponseItem> mockTable;
+
+    @Test
+    void shouldReadStoredResponseWithConsistentRead() {
+        SessionResponseItem item = response(NOW.getEpochSecond() + 1);
+        ArgumentCaptor<GetItemEnhancedRequest> requestCaptor =
+                ArgumentCaptor.forClass(GetItemEnhancedRequest.class);
+        when(mockTable.getItem(requestCaptor.capture())).thenReturn(item);
+
+        assertEquals(item, sessionResponseStore().getItem("request-hash"));
+        assertTrue(requestCaptor.getValue().consistentRead());
+        assertEquals("request-hash", requestCaptor.getValue().key().partitionKeyValue().s());
+    }
+
+    @Test
+    void shouldIgnoreExpiredResponseNotYetRemoved() {
+        when(mockTable.getItem(any(GetItemEnhancedRequest.class)))
+                .thenReturn(response(NOW.getEpochSecond()));
+
+        assertNull(sessionResponseStore().getItem("request-hash"));
+    }
+
+    @Test
+    void shouldStoreResponseForWindowUnlessAnotherIsStillLive() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<PutItemEnhancedRequest<SessionResponseItem>> requestCaptor =
+                ArgumentCaptor.forClass(PutItemEnhancedRequest.class);
+
+        sessionResponseStore()
+                .put("request-hash", "session-id", "state", "https://example.com/callback");
+
+        verify(mockTable).putItem(requestCaptor.capture());
+        SessionResponseItem item = requestCaptor.getValue().item();
+        assertEquals("request-hash", item.getRequestHash());
+        assertEquals("session-id", item.getSessionId());
+        assertEquals("state", item.getState());
+        assertEquals("https://example.com/callback", item.getRedirectUri());
+        assertEquals(
+                NOW.getEpochSecond() + SessionResponseStore.RESPONSE_TTL_SECONDS,
+                item.getExpiryDate());
+        assertEquals(
+                "attribute_not_exists(requestHash) OR expiryDate <= :now",
+                requestCaptor.getValue().conditionExpression().expression());
+        assertEquals(
+                String.valueOf(NOW.getEpochSecond()),
+                requestCaptor.getValue().conditionExpression().expressionValues().get(":now").n());
+    }
+
+    private SessionResponseStore sessionResponseStore() {
+        return new SessionResponseStore(mockTable, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static SessionResponseItem response(long expiryDate) {
+        SessionResponseItem item = new SessionResponseItem();
+        item.setRequestHash("request-hash");
+        item.setSessionId("session-id");
+        item.setExpiryDate(expiryDate);
+        return item;
+    }
+}
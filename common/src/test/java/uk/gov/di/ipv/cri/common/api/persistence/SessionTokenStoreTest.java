@@ -0,0 +1,72 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SessionTokenStoreTest {
+    @Mock private DynamoDbTable<SessionItem> mockTable;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldUpdateOnlyAccessTokenAttributesWhenCodeStillMatches() {
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setSessionId(UUID.randomUUID());
+        sessionItem.setClientId("ipv-core");
+        sessionItem.setRedirectUri(URI.create("https://example.com"));
+        sessionItem.setAuthorizationCode("auth-code");
+        sessionItem.setAccessToken("Bearer access-token");
+        sessionItem.setAccessTokenExpiryDate(1234L);
+        ArgumentCaptor<UpdateItemEnhancedRequest<SessionItem>> requestCaptor =
+                ArgumentCaptor.forClass(UpdateItemEnhancedRequest.class);
+
+        new SessionTokenStore(mockTable).saveAccessToken(sessionItem, "auth-code");
+
+        verify(mockTable).updateItem(requestCaptor.capture());
+        UpdateItemEnhancedRequest<SessionItem> request = requestCaptor.getValue();
+        assertFalse(request.ignoreNulls());
+        assertEquals(
+                SessionTokenStore.AUTHORIZATION_CODE_MATCHES,
+                request.conditionExpression().expression());
+        assertEquals(
+                Map.of(":authorizationCode", AttributeValue.fromS("auth-code")),
+                request.conditionExpression().expressionValues());
+
+        SessionItem update = request.item();
+        assertEquals(sessionItem.getSessionId(), update.getSessionId());
+        assertEquals("Bearer access-token", update.getAccessToken());
+        assertEquals(1234L, update.getAccessTokenExpiryDate());
+        assertNull(update.getAuthorizationCode());
+    }
+
+    @Test
+    void shouldMapOnlyAccessTokenAttributes() {
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setSessionId(UUID.randomUUID());
+        sessionItem.setClientId("ipv-core");
+        sessionItem.setAccessToken("Bearer access-token");
+
+        assertEquals(
+                Set.of("sessionId", "authorizationCode", "accessToken", "accessTokenExpiryDate"),
+                TableSchemaRegistry.sessionAccessTokenSchema()
+                        .itemToMap(sessionItem, false)
+                        .keySet());
+    }
+}
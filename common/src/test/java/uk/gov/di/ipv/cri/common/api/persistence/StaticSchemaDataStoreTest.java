@@ -0,0 +1,86 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StaticSchemaDataStoreTest {
+    private static final String TABLE_NAME = "session-table";
+
+    @Mock private DynamoDbEnhancedClient mockDynamoDbEnhancedClient;
+    @Mock private DynamoDbTable<SessionItem> mockTable;
+    private StaticSchemaDataStore<SessionItem> dataStore;
+
+    @BeforeEach
+    void setUp() {
+        when(mockDynamoDbEnhancedClient.table(TABLE_NAME, TableSchemaRegistry.sessionItemSchema()))
+                .thenReturn(mockTable);
+        dataStore =
+                new StaticSchemaDataStore<>(
+                        TABLE_NAME,
+                        TableSchemaRegistry.sessionItemSchema(),
+                        mockDynamoDbEnhancedClient);
+    }
+
+    @Test
+    void shouldPutItemOnCreate() {
+        SessionItem sessionItem = new SessionItem();
+
+        dataStore.create(sessionItem);
+
+        verify(mockTable).putItem(sessionItem);
+    }
+
+    @Test
+    void shouldGetItemByPartitionKey() {
+        SessionItem sessionItem = new SessionItem();
+        ArgumentCaptor<Key> keyCaptor = ArgumentCaptor.forClass(Key.class);
+        when(mockTable.getItem(keyCaptor.capture())).thenReturn(sessionItem);
+
+        assertEquals(sessionItem, dataStore.getItem("session-id"));
+        assertEquals("session-id", keyCaptor.getValue().partitionKeyValue().s());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldQueryIndexAndFlattenPages() {
+        SessionItem sessionItem = new SessionItem();
+        DynamoDbIndex<SessionItem> mockIndex = mock(DynamoDbIndex.class);
+        SdkIterable<Page<SessionItem>> pages =
+                () -> List.of(Page.create(List.of(sessionItem))).iterator();
+        when(mockTable.index(SessionItem.AUTHORIZATION_CODE_INDEX)).thenReturn(mockIndex);
+        when(mockIndex.query(any(QueryEnhancedRequest.class))).thenReturn(pages);
+
+        assertEquals(
+                List.of(sessionItem),
+                dataStore.getItemByIndex(SessionItem.AUTHORIZATION_CODE_INDEX, "auth-code"));
+    }
+
+    @Test
+    void shouldUpdateItem() {
+        SessionItem sessionItem = new SessionItem();
+        when(mockTable.updateItem(sessionItem)).thenReturn(sessionItem);
+
+        assertEquals(sessionItem, dataStore.update(sessionItem));
+    }
+}
@@ -0,0 +1,188 @@
+package uk.gov.di.ipv.cri.common.api.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.awssdk.enhanced.dynamodb.IndexMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import uk.gov.di.ipv.cri.common.library.persistence.item.CanonicalAddress;
+import uk.gov.di.ipv.cri.common.library.persistence.item.EvidenceRequest;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityDateOfBirth;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityDrivingPermit;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityItem;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityName;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentityNamePart;
+import uk.gov.di.ipv.cri.common.library.persistence.item.personidentity.PersonIdentitySocialSecurityRecord;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TableSchemaRegistryTest {
+
+    @Test
+    void sessionItemSchemaShouldDeclareTheSameAttributesAsTheBeanSchema() {
+        assertEquals(
+                new HashSet<>(TableSchema.fromBean(SessionItem.class).attributeNames()),
+                new HashSet<>(TableSchemaRegistry.sessionItemSchema().attributeNames()));
+    }
+
+    @Test
+    void personIdentityItemSchemaShouldDeclareTheSameAttributesAsTheBeanSchema() {
+        assertEquals(
+                new HashSet<>(TableSchema.fromBean(PersonIdentityItem.class).attributeNames()),
+                new HashSet<>(TableSchemaRegistry.personIdentityItemSchema().attributeNames()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("documentSchemas")
+    void documentSchemaShouldDeclareTheSameAttributesAsTheBeanSchema(
+            Class<?> documentClass, TableSchema<?> documentSchema) {
+        assertEquals(
+                new HashSet<>(TableSchema.fromBean(documentClass).attributeNames()),
+                new HashSet<>(documentSchema.attributeNames()));
+    }
+
+    @Test
+    void sessionItemSchemaShouldDeclareTheSameIndexesAsTheBeanSchema() {
+        assertEquals(
+                indexNames(TableSchema.fromBean(SessionItem.class)),
+                indexNames(TableSchemaRegistry.sessionItemSchema()));
+    }
+
+    @Test
+    void sessionItemShouldMarshallIdenticallyToTheBeanSchema() {
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setSessionId(UUID.randomUUID());
+        sessionItem.setExpiryDate(1700000000L);
+        sessionItem.setClientId("ipv-core");
+        sessionItem.setState("state");
+        sessionItem.setRedirectUri(URI.create("https://www.example.com/callback"));
+        sessionItem.setAuthorizationCode("auth-code");
+        sessionItem.setAuthorizationCodeExpiryDate(1700000600L);
+        sessionItem.setSubject("subject");
+        sessionItem.setPersistentSessionId("persistent-session-id");
+        sessionItem.setClientSessionId("client-session-id");
+        sessionItem.setClientIpAddress("192.0.2.0");
+        EvidenceRequest evidenceRequest = new EvidenceRequest();
+        evidenceRequest.setScoringPolicy("gpg45");
+        evidenceRequest.setStrengthScore(2);
+        evidenceRequest.setValidityScore(2);
+        sessionItem.setEvidenceRequest(evidenceRequest);
+
+        Map<String, AttributeValue> beanMarshalled =
+                TableSchema.fromBean(SessionItem.class).itemToMap(sessionItem, true);
+        Map<String, AttributeValue> staticMarshalled =
+                TableSchemaRegistry.sessionItemSchema().itemToMap(sessionItem, true);
+
+        assertEquals(beanMarshalled, staticMarshalled);
+
+        SessionItem roundTripped =
+                TableSchemaRegistry.sessionItemSchema().mapToItem(staticMarshalled);
+        assertEquals(sessionItem.getSessionId(), roundTripped.getSessionId());
+        assertEquals(sessionItem.getRedirectUri(), roundTripped.getRedirectUri());
+        assertEquals(sessionItem.getAuthorizationCode(), roundTripped.getAuthorizationCode());
+        assertEquals(
+                sessionItem.getAuthorizationCodeExpiryDate(),
+                roundTripped.getAuthorizationCodeExpiryDate());
+        assertEquals(sessionItem.getClientSessionId(), roundTripped.getClientSessionId());
+        assertEquals(
+                evidenceRequest.getStrengthScore(),
+                roundTripped.getEvidenceRequest().getStrengthScore());
+    }
+
+    @Test
+    void personIdentityItemShouldMarshallIdenticallyToTheBeanSchema() {
+        PersonIdentityNamePart givenName = new PersonIdentityNamePart();
+        givenName.setType("GivenName");
+        givenName.setValue("Kenneth");
+        PersonIdentityName name = new PersonIdentityName();
+        name.setNameParts(List.of(givenName));
+
+        PersonIdentityDateOfBirth birthDate = new PersonIdentityDateOfBirth();
+        birthDate.setValue(LocalDate.of(1965, 7, 8));
+
+        CanonicalAddress address = new CanonicalAddress();
+        address.setUprn(100120012077L);
+        address.setBuildingNumber("8");
+        address.setStreetName("Hadley Road");
+        address.setAddressLocality("Bath");
+        address.setPostalCode("BA2 5AA");
+        address.setAddressCountry("GB");
+        address.setValidFrom(LocalDate.of(2000, 1, 1));
+
+        PersonIdentityDrivingPermit drivingPermit = new PersonIdentityDrivingPermit();
+        drivingPermit.setPersonalNumber("DECER607085K99AE");
+        drivingPermit.setIssuedBy("DVLA");
+
+        PersonIdentitySocialSecurityRecord socialSecurityRecord =
+                new PersonIdentitySocialSecurityRecord();
+        socialSecurityRecord.setPersonalNumber("AA000003D");
+
+        PersonIdentityItem personIdentityItem = new PersonIdentityItem();
+        personIdentityItem.setSessionId(UUID.randomUUID());
+        personIdentityItem.setExpiryDate(1700000000L);
+        personIdentityItem.setNames(List.of(name));
+        personIdentityItem.setBirthDates(List.of(birthDate));
+        personIdentityItem.setAddresses(List.of(address));
+        personIdentityItem.setDrivingPermits(List.of(drivingPermit));
+        personIdentityItem.setSocialSecurityRecords(List.of(socialSecurityRecord));
+
+        Map<String, AttributeValue> beanMarshalled =
+                TableSchema.fromBean(PersonIdentityItem.class)
+                        .itemToMap(personIdentityItem, true);
+        Map<String, AttributeValue> staticMarshalled =
+                TableSchemaRegistry.personIdentityItemSchema().itemToMap(personIdentityItem, true);
+
+        assertEquals(beanMarshalled, staticMarshalled);
+
+        PersonIdentityItem roundTripped =
+                TableSchemaRegistry.personIdentityItemSchema().mapToItem(staticMarshalled);
+        assertEquals(
+                "Kenneth", roundTripped.getNames().get(0).getNameParts().get(0).getValue());
+        assertEquals(birthDate.getValue(), roundTripped.getBirthDates().get(0).getValue());
+        assertEquals(address.getValidFrom(), roundTripped.getAddresses().get(0).getValidFrom());
+        assertEquals(
+                drivingPermit.getPersonalNumber(),
+                roundTripped.getDrivingPermits().get(0).getPersonalNumber());
+        assertEquals(
+                socialSecurityRecord.getPersonalNumber(),
+                roundTripped.getSocialSecurityRecords().get(0).getPersonalNumber());
+    }
+
+    static Stream<Arguments> documentSchemas() {
+        return Stream.of(
+                Arguments.of(
+                        EvidenceRequest.class, TableSchemaRegistry.createEvidenceRequestSchema()),
+                Arguments.of(PersonIdentityName.class, TableSchemaRegistry.createNameSchema()),
+                Arguments.of(
+                        PersonIdentityNamePart.class, TableSchemaRegistry.createNamePartSchema()),
+                Arguments.of(
+                        PersonIdentityDateOfBirth.class,
+                        TableSchemaRegistry.createDateOfBirthSchema()),
+                Arguments.of(CanonicalAddress.class, TableSchemaRegistry.createAddressSchema()),
+                Arguments.of(
+                        PersonIdentityDrivingPermit.class,
+                        TableSchemaRegistry.createDrivingPermitSchema()),
+                Arguments.of(
+                        PersonIdentitySocialSecurityRecord.class,
+                        TableSchemaRegistry.createSocialSecurityRecordSchema()));
+    }
+
+    private static Set<String> indexNames(TableSchema<SessionItem> tableSchema) {
+        return tableSchema.tableMetadata().indices().stream()
+                .map(IndexMetadata::name)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.di.ipv.cri.common.api.service;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.http.HttpStatusCode;
+import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.ConfigurationService;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Mock private DataStore<SessionItem> mockSessionDataStore;
+    @Mock private ConfigurationService mockConfigurationService;
+
+    @Test
+    void shouldRecogniseWarmUpEventOnlyWithoutRequestContext() {
+        APIGatewayProxyRequestEvent warmUpEvent =
+                new APIGatewayProxyRequestEvent().withResource(WarmUpService.WARM_UP_RESOURCE);
+        APIGatewayProxyRequestEvent apiGatewayEvent =
+                new APIGatewayProxyRequestEvent()
+                        .withResource(WarmUpService.WARM_UP_RESOURCE)
+                        .withRequestContext(new APIGatewayProxyRequestEvent.ProxyRequestContext());
+
+        assertTrue(WarmUpService.isWarmUpEvent(warmUpEvent));
+        assertFalse(WarmUpService.isWarmUpEvent(apiGatewayEvent));
+        assertFalse(WarmUpService.isWarmUpEvent(new APIGatewayProxyRequestEvent()));
+        assertFalse(WarmUpService.isWarmUpEvent(null));
+    }
+
+    @Test
+    void shouldExerciseDependenciesAndReturnStepDurations() throws Exception {
+        APIGatewayProxyRequestEvent warmUpEvent =
+                new APIGatewayProxyRequestEvent()
+                        .withResource(WarmUpService.WARM_UP_RESOURCE)
+                        .withQueryStringParameters(Map.of("client_id", "test-client"));
+        when(mockConfigurationService.getParametersForPath(
+                        "/clients/test-client/jwtAuthentication"))
+                .thenReturn(Map.of());
+
+        APIGatewayProxyResponseEvent response =
+                WarmUpService.createDefault(
+                                mockSessionDataStore, mockConfigurationService, objectMapper)
+                        .warmUp(warmUpEvent);
+
+        assertEquals(HttpStatusCode.OK, response.getStatusCode());
+        Map<String, Object> responseBody =
+                objectMapper.readValue(response.getBody(), new TypeReference<>() {});
+        assertEquals(
+                List.of("dynamodb", "ssm", "json", "crypto"),
+                List.copyOf(((Map<?, ?>) responseBody.get("stepDurationsMillis")).keySet()));
+        assertEquals(List.of(), responseBody.get("failedSteps"));
+        verify(mockSessionDataStore).getItem(WarmUpService.SENTINEL_SESSION_ID);
+    }
+
+    @Test
+    void shouldReportFailedStepsAndCarryOn() throws Exception {
+        APIGatewayProxyRequestEvent warmUpEvent =
+                new APIGatewayProxyRequestEvent().withResource(WarmUpService.WARM_UP_RESOURCE);
+        when(mockSessionDataStore.getItem(WarmUpService.SENTINEL_SESSION_ID))
+                .thenThrow(new IllegalStateException("table unavailable"));
+
+        APIGatewayProxyResponseEvent response =
+                WarmUpService.createDefault(
+                                mockSessionDataStore, mockConfigurationService, objectMapper)
+                        .warmUp(warmUpEvent);
+
+        Map<String, Object> responseBody =
+                objectMapper.readValue(response.getBody(), new TypeReference<>() {});
+        assertEquals(List.of("dynamodb"), responseBody.get("failedSteps"));
+        verify(mockConfigurationService)
+                .getParametersForPath(
+                        "/clients/" + WarmUpService.DEFAULT_CLIENT_ID + "/jwtAuthentication");
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void shouldRejectCallsOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.onIgnored();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void shouldRaiseTheLimitWhileLatencyHolds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(LATENCY);
+        }
+
+        assertTrue(limiter.getLimit() > 2.5);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldBackOffOnSlowAndThrottledCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10);
+        limiter.tryAcquire();
+        limiter.onSuccess(LATENCY);
+        double limit = limiter.getLimit();
+
+        limiter.tryAcquire();
+        limiter.onSuccess(LATENCY * 10);
+        assertEquals(limit * AdaptiveConcurrencyLimiter.LATENCY_BACKOFF_RATIO, limiter.getLimit());
+
+        limit = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.onThrottled();
+        assertEquals(
+                limit * AdaptiveConcurrencyLimiter.THROTTLE_BACKOFF_RATIO, limiter.getLimit());
+    }
+
+    @Test
+    void shouldNotBackOffBelowTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 0.25, 10);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.onThrottled();
+        }
+
+        assertEquals(0.25, limiter.getLimit());
+    }
+
+    @Test
+    void shouldAdmitAFractionOfCallsWhileTheLimitIsBelowOne() {
+        AdaptiveConcurrencyLimiter admitting =
+                new AdaptiveConcurrencyLimiter(0.5, 0.1, 10, () -> 0.4);
+        AdaptiveConcurrencyLimiter rejecting =
+                new AdaptiveConcurrencyLimiter(0.5, 0.1, 10, () -> 0.6);
+
+        assertTrue(admitting.tryAcquire());
+        assertFalse(admitting.tryAcquire());
+        assertFalse(rejecting.tryAcquire());
+    }
+
+    @Test
+    void shouldRejectInconsistentLimits() {
+        assertThrows(
+                IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 0, 10));
+        assertThrows(
+                IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 1, 4));
+    }
+}
@@ -0,0 +1,198 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import uk.gov.di.ipv.cri.common.api.persistence.RateLimitStore;
+import uk.gov.di.ipv.cri.common.library.service.ConfigurationService;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClientRateLimiterTest {
+    @Mock private RateLimitStore mockRateLimitStore;
+    @Mock private ConfigurationService mockConfigurationService;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void shouldParseLimitsPerClient() {
+        Map<String, ClientRateLimiter.Limit> limits =
+                ClientRateLimiter.parseLimits("ipv-core=50/100, *=2.5/5");
+
+        assertEquals(2, limits.size());
+        assertEquals(50, limits.get("ipv-core").getRatePerSecond());
+        assertEquals(100, limits.get("ipv-core").getBurst());
+        assertEquals(2.5, limits.get("*").getRatePerSecond());
+        assertEquals(5, limits.get("*").getBurst());
+    }
+
+    @Test
+    void shouldRejectMalformedLimits() {
+        assertThrows(
+                IllegalArgumentException.class, () -> ClientRateLimiter.parseLimits("ipv-core=50"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ClientRateLimiter.parseLimits("ipv-core=0/10"));
+    }
+
+    @Test
+    void shouldAdmitBurstThenRefillAtRate() {
+        ClientRateLimiter limiter = limiter(Map.of("ipv-core", new ClientRateLimiter.Limit(2, 3)));
+
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertFalse(limiter.tryAcquire("ipv-core"));
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertFalse(limiter.tryAcquire("ipv-core"));
+    }
+
+    @Test
+    void shouldKeepConfiguredClientsApart() {
+        ClientRateLimiter limiter =
+                limiter(
+                        Map.of(
+                                "ipv-core", new ClientRateLimiter.Limit(1, 1),
+                                "other-client", new ClientRateLimiter.Limit(1, 1)));
+
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertFalse(limiter.tryAcquire("ipv-core"));
+        assertTrue(limiter.tryAcquire("other-client"));
+    }
+
+    @Test
+    void shouldShareOneBucketBetweenClientsWithoutALimit() {
+        ClientRateLimiter limiter =
+                limiter(Map.of(ClientRateLimiter.OTHER_CLIENTS, new ClientRateLimiter.Limit(1, 2)));
+
+        assertTrue(limiter.tryAcquire("unknown-client"));
+        assertTrue(limiter.tryAcquire(null));
+        assertFalse(limiter.tryAcquire("another-unknown-client"));
+    }
+
+    @Test
+    void shouldPreferTheLimitInTheClientConfiguration() {
+        when(mockConfigurationService.getParametersForPath("/clients/ipv-core/jwtAuthentication"))
+                .thenReturn(Map.of("rateLimit", "1/2"));
+        ClientRateLimiter limiter =
+                new ClientRateLimiter(
+                        Map.of("ipv-core", new ClientRateLimiter.Limit(1, 1)),
+                        mockConfigurationService,
+                        null,
+                        nanoTime::get);
+
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertFalse(limiter.tryAcquire("ipv-core"));
+    }
+
+    @Test
+    void shouldGiveAConfiguredClientItsOwnBucket() {
+        when(mockConfigurationService.getParametersForPath("/clients/ipv-core/jwtAuthentication"))
+                .thenReturn(Map.of("rateLimit", "1/1"));
+        when(mockConfigurationService.getParametersForPath(
+                        "/clients/unknown-client/jwtAuthentication"))
+                .thenReturn(Map.of());
+        ClientRateLimiter limiter =
+                new ClientRateLimiter(
+                        Map.of(ClientRateLimiter.OTHER_CLIENTS, new ClientRateLimiter.Limit(1, 1)),
+                        mockConfigurationService,
+                        null,
+                        nanoTime::get);
+
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertFalse(limiter.tryAcquire("ipv-core"));
+        assertTrue(limiter.tryAcquire("unknown-client"));
+        assertFalse(limiter.tryAcquire("unknown-client"));
+    }
+
+    @Test
+    void shouldFallBackToTheDefaultWhenTheClientConfigurationFails() {
+        when(mockConfigurationService.getParametersForPath("/clients/ipv-core/jwtAuthentication"))
+                .thenThrow(new IllegalStateException("parameter store unavailable"))
+                .thenReturn(Map.of("rateLimit", "not-a-limit"));
+        ClientRateLimiter limiter =
+                new ClientRateLimiter(
+                        Map.of("ipv-core", new ClientRateLimiter.Limit(1, 1)),
+                        mockConfigurationService,
+                        null,
+                        nanoTime::get);
+
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertFalse(limiter.tryAcquire("ipv-core"));
+    }
+
+    @Test
+    void shouldNotLimitClientsWhenNoLimitApplies() {
+        ClientRateLimiter limiter = limiter(Map.of("ipv-core", new ClientRateLimiter.Limit(1, 1)));
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("other-client"));
+        }
+    }
+
+    @Test
+    void shouldTakeTokenFromStoreOnceAdmittedLocally() {
+        ClientRateLimiter limiter =
+                new ClientRateLimiter(
+                        Map.of("ipv-core", new ClientRateLimiter.Limit(5, 1)),
+                        null,
+                        mockRateLimitStore,
+                        nanoTime::get);
+        when(mockRateLimitStore.tryConsume("ipv-core", 5, 1)).thenReturn(false);
+
+        assertFalse(limiter.tryAcquire("ipv-core"));
+        assertFalse(limiter.tryAcquire("ipv-core"));
+        verify(mockRateLimitStore).tryConsume("ipv-core", 5, 1);
+    }
+
+    @Test
+    void shouldAdmitOnLocalBucketWhenStoreFails() {
+        ClientRateLimiter limiter =
+                new ClientRateLimiter(
+                        Map.of("ipv-core", new ClientRateLimiter.Limit(5, 1)),
+                        null,
+                        mockRateLimitStore,
+                        nanoTime::get);
+        when(mockRateLimitStore.tryConsume("ipv-core", 5, 1))
+                .thenThrow(SdkClientException.create("unavailable"));
+
+        assertTrue(limiter.tryAcquire("ipv-core"));
+        assertFalse(limiter.tryAcquire("ipv-core"));
+    }
+
+    @Test
+    void shouldNotConsultStoreForUnlimitedClients() {
+        ClientRateLimiter limiter =
+                new ClientRateLimiter(
+                        Map.of("ipv-core", new ClientRateLimiter.Limit(5, 1)),
+                        null,
+                        mockRateLimitStore,
+                        nanoTime::get);
+
+        assertTrue(limiter.tryAcquire("other-client"));
+        verify(mockRateLimitStore, never()).tryConsume(anyString(), anyDouble(), anyDouble());
+    }
+
+    private ClientRateLimiter limiter(Map<String, ClientRateLimiter.Limit> limits) {
+        return new ClientRateLimiter(limits, null, null, nanoTime::get);
+    }
+
+}
@@ -0,0 +1,64 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColdStartMetricsTest {
+    private final ColdStartMetrics coldStartMetrics = new ColdStartMetrics("test-service");
+
+    @Test
+    void shouldRecordPhasesInOrderUntilFirstInvocationCompletes() {
+        String clientProviderFactory = coldStartMetrics.time("ClientProviderFactory", () -> "a");
+        coldStartMetrics.time("SessionService", () -> "b");
+        coldStartMetrics.recordPhase(ColdStartMetrics.FIRST_SDK_CALL, System.nanoTime());
+
+        String response = coldStartMetrics.timeFirstInvocation(() -> "response");
+
+        assertEquals("a", clientProviderFactory);
+        assertEquals("response", response);
+        assertTrue(coldStartMetrics.isPublished());
+        assertEquals(
+                List.of(
+                        "ClientProviderFactory",
+                        "SessionService",
+                        ColdStartMetrics.FIRST_SDK_CALL,
+                        ColdStartMetrics.FIRST_INVOCATION),
+                List.copyOf(coldStartMetrics.getPhaseDurations().keySet()));
+    }
+
+    @Test
+    void shouldStopRecordingAfterFirstInvocation() {
+        coldStartMetrics.timeFirstInvocation(() -> "first");
+        Map<String, Long> publishedPhases = coldStartMetrics.getPhaseDurations();
+
+        coldStartMetrics.time("LateClient", () -> "late");
+        coldStartMetrics.timeFirstInvocation(() -> "second");
+
+        assertEquals(publishedPhases, coldStartMetrics.getPhaseDurations());
+        assertFalse(coldStartMetrics.getPhaseDurations().containsKey("LateClient"));
+    }
+
+    @Test
+    void shouldPublishWhenFirstInvocationThrows() {
+        try {
+            coldStartMetrics.timeFirstInvocation(
+                    () -> {
+                        throw new IllegalStateException("handler failed");
+                    });
+        } catch (IllegalStateException e) {
+            assertEquals("handler failed", e.getMessage());
+        }
+
+        assertTrue(coldStartMetrics.isPublished());
+        assertTrue(
+                coldStartMetrics
+                        .getPhaseDurations()
+                        .containsKey(ColdStartMetrics.FIRST_INVOCATION));
+    }
+}
@@ -0,0 +1,101 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineInterceptorTest {
+
+    private final DeadlineInterceptor interceptor = new DeadlineInterceptor();
+    private final ExecutionAttributes executionAttributes = new ExecutionAttributes();
+
+    @Mock private com.amazonaws.services.lambda.runtime.Context mockLambdaContext;
+    @Mock private Context.BeforeExecution mockBeforeExecution;
+    @Mock private Context.ModifyRequest mockModifyRequest;
+
+    @Test
+    void shouldLeaveRequestsAloneWithoutADeadline() {
+        GetItemRequest request = GetItemRequest.builder().tableName("session-table").build();
+        when(mockModifyRequest.request()).thenReturn(request);
+
+        assertSame(request, interceptor.modifyRequest(mockModifyRequest, executionAttributes));
+        assertDoesNotThrow(
+                () -> interceptor.beforeExecution(mockBeforeExecution, executionAttributes));
+    }
+
+    @Test
+    void shouldBoundTheCallAndEachAttemptByTheRemainingTime() {
+        when(mockLambdaContext.getRemainingTimeInMillis()).thenReturn(2500);
+        when(mockModifyRequest.request())
+                .thenReturn(GetItemRequest.builder().tableName("session-table").build());
+
+        AwsRequestOverrideConfiguration overrideConfiguration =
+                modifyWithin(mockLambdaContext).overrideConfiguration().get();
+
+        Duration apiCallTimeout = overrideConfiguration.apiCallTimeout().get();
+        assertTrue(apiCallTimeout.toMillis() <= 2000 && apiCallTimeout.toMillis() > 1500);
+        assertEquals(
+                apiCallTimeout.dividedBy(2), overrideConfiguration.apiCallAttemptTimeout().get());
+    }
+
+    @Test
+    void shouldKeepShorterTimeoutsAlreadyOnTheRequest() {
+        Duration configured = Duration.ofMillis(200);
+        when(mockLambdaContext.getRemainingTimeInMillis()).thenReturn(2500);
+        when(mockModifyRequest.request())
+                .thenReturn(
+                        GetItemRequest.builder()
+                                .overrideConfiguration(
+                                        AwsRequestOverrideConfiguration.builder()
+                                                .apiCallTimeout(configured)
+                                                .build())
+                                .build());
+
+        AwsRequestOverrideConfiguration overrideConfiguration =
+                modifyWithin(mockLambdaContext).overrideConfiguration().get();
+
+        assertEquals(configured, overrideConfiguration.apiCallTimeout().get());
+        assertEquals(
+                configured.dividedBy(2), overrideConfiguration.apiCallAttemptTimeout().get());
+    }
+
+    @Test
+    void shouldRefuseCallsOnceTheDeadlineHasPassed() {
+        when(mockLambdaContext.getRemainingTimeInMillis())
+                .thenReturn((int) RequestDeadline.RESPONSE_RESERVE_MILLIS);
+
+        RequestDeadline.runWithin(
+                mockLambdaContext,
+                () ->
+                        assertThrows(
+                                DeadlineExceededException.class,
+                                () ->
+                                        interceptor.beforeExecution(
+                                                mockBeforeExecution, executionAttributes)));
+    }
+
+    private GetItemRequest modifyWithin(com.amazonaws.services.lambda.runtime.Context context) {
+        SdkRequest request =
+                RequestDeadline.runWithin(
+                        context,
+                        () -> interceptor.modifyRequest(mockModifyRequest, executionAttributes));
+        return (GetItemRequest) request;
+    }
+}
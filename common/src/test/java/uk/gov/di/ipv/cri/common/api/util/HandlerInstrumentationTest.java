@@ -0,0 +1,96 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HandlerInstrumentationTest {
+    private static final String REQUEST_ID = "api-gateway-request-id";
+
+    @Mock private Context mockContext;
+
+    @Test
+    void shouldPassThroughWhenAspectsAreEnabled() {
+        HandlerInstrumentation instrumentation = new HandlerInstrumentation(true, "test");
+        APIGatewayProxyRequestEvent input = createInput();
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+
+        assertSame(
+                response,
+                instrumentation.instrument(
+                        input,
+                        mockContext,
+                        (event, context) -> {
+                            assertNull(ThreadContext.get(HandlerInstrumentation.CORRELATION_ID));
+                            return response;
+                        }));
+        // Only the request deadline is read from the context
+        verify(mockContext).getRemainingTimeInMillis();
+        verifyNoMoreInteractions(mockContext);
+    }
+
+    @Test
+    void shouldAddCorrelationIdAndClearLoggingStateWhenAspectsAreDisabled() {
+        HandlerInstrumentation instrumentation = new HandlerInstrumentation(false, "test");
+        when(mockContext.getFunctionName()).thenReturn("test-function");
+        when(mockContext.getAwsRequestId()).thenReturn("aws-request-id");
+        List<String> coldStarts = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            instrumentation.instrument(
+                    createInput(),
+                    mockContext,
+                    (event, context) -> {
+                        assertEquals(
+                                REQUEST_ID,
+                                ThreadContext.get(HandlerInstrumentation.CORRELATION_ID));
+                        coldStarts.add(ThreadContext.get("coldStart"));
+                        return new APIGatewayProxyResponseEvent();
+                    });
+            assertNull(ThreadContext.get(HandlerInstrumentation.CORRELATION_ID));
+        }
+
+        assertEquals(List.of("true", "false"), coldStarts);
+    }
+
+    @Test
+    void shouldClearLoggingStateWhenHandlerThrows() {
+        HandlerInstrumentation instrumentation = new HandlerInstrumentation(false, "test");
+        APIGatewayProxyRequestEvent input = createInput();
+
+        assertThrows(
+                IllegalStateException.class,
+                () ->
+                        instrumentation.instrument(
+                                input,
+                                null,
+                                (event, context) -> {
+                                    throw new IllegalStateException("handler failure");
+                                }));
+        assertNull(ThreadContext.get(HandlerInstrumentation.CORRELATION_ID));
+    }
+
+    private static APIGatewayProxyRequestEvent createInput() {
+        return new APIGatewayProxyRequestEvent()
+                .withRequestContext(
+                        new APIGatewayProxyRequestEvent.ProxyRequestContext()
+                                .withRequestId(REQUEST_ID));
+    }
+}
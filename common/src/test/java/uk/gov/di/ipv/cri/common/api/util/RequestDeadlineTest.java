@@ -0,0 +1,56 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestDeadlineTest {
+
+    @Mock private Context mockContext;
+
+    @Test
+    void shouldKeepTheResponseReserveBackFromTheRemainingTime() {
+        when(mockContext.getRemainingTimeInMillis()).thenReturn(3000);
+
+        Duration remaining =
+                RequestDeadline.runWithin(mockContext, () -> RequestDeadline.remaining().get());
+
+        assertTrue(remaining.toMillis() <= 3000 - RequestDeadline.RESPONSE_RESERVE_MILLIS);
+        assertTrue(remaining.toMillis() > 2000);
+        assertEquals(Optional.empty(), RequestDeadline.remaining());
+    }
+
+    @Test
+    void shouldRunWithoutADeadlineWhenThereIsNoContext() {
+        assertEquals(
+                Optional.empty(), RequestDeadline.runWithin(null, RequestDeadline::remaining));
+    }
+
+    @Test
+    void shouldPropagateTheDeadlineToOtherThreads() {
+        when(mockContext.getRemainingTimeInMillis()).thenReturn(3000);
+
+        Optional<Duration> remaining =
+                RequestDeadline.runWithin(
+                        mockContext,
+                        () -> {
+                            Supplier<Optional<Duration>> task =
+                                    RequestDeadline.propagate(RequestDeadline::remaining);
+                            return CompletableFuture.supplyAsync(task).join();
+                        });
+
+        assertTrue(remaining.isPresent());
+    }
+}
@@ -0,0 +1,163 @@
+package uk.gov.di.ipv.cri.common.api.util;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestTraceWriterTest {
+
+    private static final String SESSION_ID = "3f1c1c5e-0f5b-4b5e-9d1e-6a0b1c2d3e4f";
+    private static final String AUTHORIZATION_CODE = "a8b0e2c4-1d3f-4a5b-8c7d-9e0f1a2b3c4d";
+    private static final String ENCRYPTED_REQUEST = "eyJhbGciOiJSU0EtT0FFUC0yNTYifQ.c2VjcmV0";
+
+    @TempDir private Path tempDir;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void shouldLinkJourneyWithoutWritingIdsOrBodies() throws IOException {
+        Path trace = tempDir.resolve("trace.bin");
+        try (RequestTraceWriter writer = createWriter(trace)) {
+            writer.capture(
+                    new APIGatewayProxyRequestEvent()
+                            .withPath("/session")
+                            .withBody(
+                                    "{\"client_id\":\"ipv-core\",\"request\":\""
+                                            + ENCRYPTED_REQUEST
+                                            + "\"}"),
+                    response(201, "{\"session_id\":\"" + SESSION_ID + "\"}"));
+            nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+            writer.capture(
+                    new APIGatewayProxyRequestEvent()
+                            .withPath("/authorization")
+                            .withHeaders(Map.of("session-id", SESSION_ID)),
+                    response(
+                            200,
+                            "{\"authorizationCode\":{\"value\":\""
+                                    + AUTHORIZATION_CODE
+                                    + "\"}}"));
+            writer.capture(
+                    new APIGatewayProxyRequestEvent()
+                            .withPath("/token")
+                            .withBody(
+                                    "grant_type=authorization_code&code="
+                                            + AUTHORIZATION_CODE
+                                            + "&client_assertion=eyJ"),
+                    response(200, "{\"access_token\":\"secret-token\"}"));
+        }
+
+        try (RequestTraceReader reader = RequestTraceReader.open(trace)) {
+            assertEquals(3, reader.size());
+            RequestTraceRecord session = reader.get(0);
+            RequestTraceRecord authorization = reader.get(1);
+            RequestTraceRecord token = reader.get(2);
+
+            assertEquals(RequestTraceRecord.Endpoint.SESSION, session.getEndpoint());
+            assertEquals(201, session.getStatusCode());
+            assertEquals(ENCRYPTED_REQUEST.length(), session.getRequestSize());
+            assertNotEquals(0, session.getSessionPseudonym());
+
+            assertEquals(250_000, authorization.getOffsetMicros());
+            assertEquals(session.getSessionPseudonym(), authorization.getSessionPseudonym());
+            assertNotEquals(0, authorization.getAuthorizationCodePseudonym());
+
+            assertEquals(RequestTraceRecord.Endpoint.TOKEN, token.getEndpoint());
+            assertEquals(
+                    authorization.getAuthorizationCodePseudonym(),
+                    token.getAuthorizationCodePseudonym());
+        }
+
+        String contents = new String(Files.readAllBytes(trace), StandardCharsets.ISO_8859_1);
+        for (String secret :
+                new String[] {SESSION_ID, AUTHORIZATION_CODE, ENCRYPTED_REQUEST, "ipv-core"}) {
+            assertFalse(contents.contains(secret));
+        }
+    }
+
+    @Test
+    void shouldNotLinkFailedRequests() throws IOException {
+        Path trace = tempDir.resolve("trace.bin");
+        try (RequestTraceWriter writer = createWriter(trace)) {
+            writer.capture(
+                    new APIGatewayProxyRequestEvent().withPath("/session").withBody("{}"),
+                    response(400, "{\"error\":\"invalid_request\"}"));
+            writer.capture(
+                    new APIGatewayProxyRequestEvent().withPath("/token").withBody("code="),
+                    response(400, "{\"error\":\"invalid_grant\"}"));
+        }
+
+        try (RequestTraceReader reader = RequestTraceReader.open(trace)) {
+            assertFalse(reader.get(0).isSuccessful());
+            assertEquals(0, reader.get(0).getSessionPseudonym());
+            assertEquals(0, reader.get(1).getAuthorizationCodePseudonym());
+        }
+    }
+
+    @Test
+    void shouldSkipOtherPathsAndNonApiGatewayResponses() throws IOException {
+        Path trace = tempDir.resolve("trace.bin");
+        try (RequestTraceWriter writer = createWriter(trace)) {
+            writer.capture(
+                    new APIGatewayProxyRequestEvent().withPath("/.well-known/jwks.json"),
+                    response(200, "{}"));
+            writer.capture(
+                    new APIGatewayProxyRequestEvent().withPath("/session"), "not a response");
+            writer.capture(new APIGatewayProxyRequestEvent(), response(200, "{}"));
+        }
+
+        try (RequestTraceReader reader = RequestTraceReader.open(trace)) {
+            assertEquals(0, reader.size());
+        }
+    }
+
+    @Test
+    void shouldIgnoreRecordCutShort() throws IOException {
+        Path trace = tempDir.resolve("trace.bin");
+        try (RequestTraceWriter writer = createWriter(trace)) {
+            writer.capture(
+                    new APIGatewayProxyRequestEvent().withPath("/token").withBody("code=abc"),
+                    response(200, "{}"));
+        }
+        Files.write(trace, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (RequestTraceReader reader = RequestTraceReader.open(trace)) {
+            assertEquals(1, reader.size());
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.get(1));
+        }
+    }
+
+    @Test
+    void shouldRejectFileThatIsNotATrace() throws IOException {
+        Path file = tempDir.resolve("other.bin");
+        Files.write(file, "not a request trace file".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> RequestTraceReader.open(file));
+    }
+
+    private RequestTraceWriter createWriter(Path trace) throws IOException {
+        return new RequestTraceWriter(
+                FileChannel.open(trace, StandardOpenOption.CREATE, StandardOpenOption.WRITE),
+                "test-key".getBytes(StandardCharsets.UTF_8),
+                nanoTime::get);
+    }
+
+    private static APIGatewayProxyResponseEvent response(int statusCode, String body) {
+        return new APIGatewayProxyResponseEvent().withStatusCode(statusCode).withBody(body);
+    }
+}
@@ -0,0 +1,37 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Loads every class named in a class usage profile from the classpath and prints the elapsed
+ * nanoseconds. Launched in source-file mode by the pruningReport task so each run is a fresh JVM.
+ */
+public class ClassLoadProbe {
+
+    public static void main(String[] args) throws IOException {
+        List<String> classNames =
+                Files.readAllLines(Path.of(args[0])).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .collect(Collectors.toList());
+        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+
+        long start = System.nanoTime();
+        int missing = 0;
+        for (String className : classNames) {
+            try {
+                Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                missing++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (missing > 0) {
+            System.err.println(missing + " profiled classes could not be loaded");
+        }
+        System.out.println(elapsed);
+    }
+}
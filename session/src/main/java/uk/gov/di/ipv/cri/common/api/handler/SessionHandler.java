@@ -6,6 +6,7 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.Level;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.http.HttpStatusCode;
 import software.amazon.awssdk.utils.StringUtils;
 import software.amazon.lambda.powertools.logging.CorrelationIdPathConstants;
@@ -13,7 +14,17 @@ import software.amazon.lambda.powertools.logging.Logging;
 import software.amazon.lambda.powertools.metrics.Metrics;
 import uk.gov.di.ipv.cri.common.api.domain.AuditEventExtensions;
 import uk.gov.di.ipv.cri.common.api.domain.Evidence;
+import uk.gov.di.ipv.cri.common.api.exception.AdmissionRejectedException;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+import uk.gov.di.ipv.cri.common.api.persistence.DataStoreFactory;
+import uk.gov.di.ipv.cri.common.api.persistence.SessionResponseItem;
+import uk.gov.di.ipv.cri.common.api.persistence.SessionResponseStore;
 import uk.gov.di.ipv.cri.common.api.service.SessionRequestService;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.util.ClientRateLimiter;
+import uk.gov.di.ipv.cri.common.api.util.ColdStartMetrics;
+import uk.gov.di.ipv.cri.common.api.util.HandlerInstrumentation;
+import uk.gov.di.ipv.cri.common.api.util.RetryableResponses;
 import uk.gov.di.ipv.cri.common.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.common.library.domain.AuditEventContext;
 import uk.gov.di.ipv.cri.common.library.domain.AuditEventType;
@@ -22,10 +33,12 @@ import uk.gov.di.ipv.cri.common.library.error.ErrorResponse;
 import uk.gov.di.ipv.cri.common.library.exception.ClientConfigurationException;
 import uk.gov.di.ipv.cri.common.library.exception.SessionValidationException;
 import uk.gov.di.ipv.cri.common.library.exception.SqsException;
+import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
 import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
 import uk.gov.di.ipv.cri.common.library.service.AuditEventFactory;
 import uk.gov.di.ipv.cri.common.library.service.AuditService;
 import uk.gov.di.ipv.cri.common.library.service.ConfigurationService;
+import uk.gov.di.ipv.cri.common.library.service.PersonIdentityMapper;
 import uk.gov.di.ipv.cri.common.library.service.PersonIdentityService;
 import uk.gov.di.ipv.cri.common.library.service.SessionService;
 import uk.gov.di.ipv.cri.common.library.util.ApiGatewayResponseGenerator;
@@ -36,10 +49,12 @@ import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
 import java.util.UUID;
 
 import static org.apache.logging.log4j.Level.ERROR;
+import static org.apache.logging.log4j.Level.WARN;
 
 public class SessionHandler
         implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
@@ -48,6 +63,8 @@ public class SessionHandler
     protected static final String STATE = "state";
     protected static final String REDIRECT_URI = "redirect_uri";
     private static final String EVENT_SESSION_CREATED = "session_created";
+    private static final String EVENT_SESSION_REPLAYED = "session_replayed";
+    private static final String EVENT_SESSION_RESPONSE_FAILED = "session_response_failed";
     private static final String JWT_VERIFICATION_FAILED = "jwt_verification_failed";
     private static final String HEADER_IP_ADDRESS = "x-forwarded-for";
     private final SessionService sessionService;
@@ -55,34 +72,89 @@ public class SessionHandler
     private final PersonIdentityService personIdentityService;
     private final EventProbe eventProbe;
     private final AuditService auditService;
+    private final WarmUpService warmUpService;
+    private final ClientRateLimiter clientRateLimiter;
+    private final SessionResponseStore sessionResponseStore;
 
     @ExcludeFromGeneratedCoverageReport
     public SessionHandler() {
-        ClientProviderFactory clientProviderFactory = new ClientProviderFactory(true, true);
+        ColdStartMetrics coldStartMetrics = ColdStartMetrics.getInstance();
+        ClientProviderFactory clientProviderFactory =
+                coldStartMetrics.time(
+                        "ClientProviderFactory", () -> new ClientProviderFactory(true, true));
         ConfigurationService configurationService =
-                new ConfigurationService(
-                        clientProviderFactory.getSSMProvider(),
-                        clientProviderFactory.getSecretsProvider());
-        ObjectMapper sharedObjectMapper = new ObjectMapper();
+                coldStartMetrics.time(
+                        "ConfigurationService",
+                        () ->
+                                new ConfigurationService(
+                                        clientProviderFactory.getSSMProvider(),
+                                        clientProviderFactory.getSecretsProvider()));
+        ObjectMapper sharedObjectMapper = coldStartMetrics.time("ObjectMapper", ObjectMapper::new);
+        DataStore<SessionItem> sessionDataStore =
+                coldStartMetrics.time(
+                        "SessionDataStore",
+                        () ->
+                                DataStoreFactory.createSessionDataStore(
+                                        clientProviderFactory.getDynamoDbEnhancedClient()));
         this.sessionService =
-                new SessionService(
-                        configurationService, clientProviderFactory.getDynamoDbEnhancedClient());
-        this.eventProbe = new EventProbe();
+                coldStartMetrics.time(
+                        "SessionService",
+                        () ->
+                                new SessionService(
+                                        sessionDataStore, configurationService, Clock.systemUTC()));
+        this.eventProbe = coldStartMetrics.time("EventProbe", EventProbe::new);
         this.sessionRequestService =
-                new SessionRequestService(
-                        configurationService,
-                        clientProviderFactory.getKMSClient(),
-                        sharedObjectMapper,
-                        eventProbe);
+                coldStartMetrics.time(
+                        "SessionRequestService",
+                        () ->
+                                new SessionRequestService(
+                                        configurationService,
+                                        clientProviderFactory.getKMSClient(),
+                                        sharedObjectMapper,
+                                        eventProbe));
         this.personIdentityService =
-                new PersonIdentityService(
-                        configurationService, clientProviderFactory.getDynamoDbEnhancedClient());
+                coldStartMetrics.time(
+                        "PersonIdentityService",
+                        () ->
+                                new PersonIdentityService(
+                                        new PersonIdentityMapper(),
+                                        configurationService,
+                                        DataStoreFactory.createPersonIdentityDataStore(
+                                                clientProviderFactory
+                                                        .getDynamoDbEnhancedClient())));
         this.auditService =
-                new AuditService(
-                        clientProviderFactory.getSqsClient(),
-                        configurationService,
-                        sharedObjectMapper,
-                        new AuditEventFactory(configurationService, Clock.systemUTC()));
+                coldStartMetrics.time(
+                        "AuditService",
+                        () ->
+                                new AuditService(
+                                        clientProviderFactory.getSqsClient(),
+                                        configurationService,
+                                        sharedObjectMapper,
+                                        new AuditEventFactory(
+                                                configurationService, Clock.systemUTC())));
+        this.warmUpService =
+                coldStartMetrics.time(
+                        "WarmUpService",
+                        () ->
+                                WarmUpService.createDefault(
+                                        sessionDataStore,
+                                        configurationService,
+                                        sharedObjectMapper));
+        this.clientRateLimiter =
+                coldStartMetrics.time(
+                        "ClientRateLimiter",
+                        () ->
+                                ClientRateLimiter.fromEnvironment(
+                                        configurationService,
+                                        DataStoreFactory.createRateLimitStore(
+                                                clientProviderFactory
+                                                        .getDynamoDbEnhancedClient())));
+        this.sessionResponseStore =
+                coldStartMetrics.time(
+                        "SessionResponseStore",
+                        () ->
+                                DataStoreFactory.createSessionResponseStore(
+                                        clientProviderFactory.getDynamoDbEnhancedClient()));
     }
 
     public SessionHandler(
@@ -90,12 +162,18 @@ public class SessionHandler
             SessionRequestService sessionRequestService,
             PersonIdentityService personIdentityService,
             EventProbe eventProbe,
-            AuditService auditService) {
+            AuditService auditService,
+            WarmUpService warmUpService,
+            ClientRateLimiter clientRateLimiter,
+            SessionResponseStore sessionResponseStore) {
         this.sessionService = sessionService;
         this.sessionRequestService = sessionRequestService;
         this.personIdentityService = personIdentityService;
         this.eventProbe = eventProbe;
         this.auditService = auditService;
+        this.warmUpService = warmUpService;
+        this.clientRateLimiter = clientRateLimiter;
+        this.sessionResponseStore = sessionResponseStore;
     }
 
     @Override
@@ -103,15 +181,43 @@ public class SessionHandler
     @Metrics(captureColdStart = true)
     public APIGatewayProxyResponseEvent handleRequest(
             APIGatewayProxyRequestEvent input, Context context) {
+        return HandlerInstrumentation.getInstance().instrument(input, context, this::handle);
+    }
+
+    private APIGatewayProxyResponseEvent handle(
+            APIGatewayProxyRequestEvent input, Context context) {
+        if (WarmUpService.isWarmUpEvent(input)) {
+            return warmUpService.warmUp(input);
+        }
+
+        // Charged on the client the request names, before the response table read and the KMS
+        // decrypt it would otherwise cost
+        if (Objects.nonNull(clientRateLimiter)
+                && !clientRateLimiter.tryAcquire(
+                        sessionRequestService.getClientId(input.getBody()))) {
+            return rateLimited("Client rate limit reached");
+        }
+
+        String requestHash =
+                Objects.isNull(sessionResponseStore)
+                        ? null
+                        : sessionRequestService.getRequestHash(
+                                input.getBody(), getClientIpAddress(input.getHeaders()));
+        SessionResponseItem previousResponse = findPreviousResponse(requestHash);
+        if (Objects.nonNull(previousResponse)) {
+            eventProbe
+                    .log(Level.INFO, "replayed session for a resent request")
+                    .counterMetric(EVENT_SESSION_REPLAYED);
+            return createdResponse(
+                    previousResponse.getSessionId(),
+                    previousResponse.getState(),
+                    previousResponse.getRedirectUri());
+        }
 
         try {
             SessionRequest sessionRequest =
                     sessionRequestService.validateSessionRequest(input.getBody());
-            Map<String, String> inputHeadersCaseInsensitiveMap =
-                    new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-            inputHeadersCaseInsensitiveMap.putAll(input.getHeaders());
-            var sessionHeaderIpAddress = inputHeadersCaseInsensitiveMap.get(HEADER_IP_ADDRESS);
-            sessionRequest.setClientIpAddress(sessionHeaderIpAddress);
+            sessionRequest.setClientIpAddress(getClientIpAddress(input.getHeaders()));
             eventProbe.addDimensions(Map.of("issuer", sessionRequest.getClientId()));
 
             UUID sessionId = sessionService.saveSession(sessionRequest);
@@ -132,13 +238,21 @@ public class SessionHandler
             auditSessionItem.setClientSessionId(sessionRequest.getClientSessionId());
             sendStartAuditEvent(input.getHeaders(), auditSessionItem, sessionRequest.getContext());
 
-            return ApiGatewayResponseGenerator.proxyJsonResponse(
-                    HttpStatusCode.CREATED,
-                    Map.of(
-                            SESSION_ID, sessionId.toString(),
-                            STATE, sessionRequest.getState(),
-                            REDIRECT_URI, sessionRequest.getRedirectUri().toString()));
+            saveResponse(
+                    requestHash,
+                    sessionId.toString(),
+                    sessionRequest.getState(),
+                    sessionRequest.getRedirectUri().toString());
+            return createdResponse(
+                    sessionId.toString(),
+                    sessionRequest.getState(),
+                    sessionRequest.getRedirectUri().toString());
 
+        } catch (AdmissionRejectedException
+                | DeadlineExceededException
+                | ApiCallTimeoutException e) {
+            eventProbe.log(WARN, e).counterMetric(EVENT_SESSION_CREATED, 0d);
+            return RetryableResponses.temporarilyUnavailable(HttpStatusCode.SERVICE_UNAVAILABLE);
         } catch (SessionValidationException e) {
 
             eventProbe.log(ERROR, e).counterMetric(EVENT_SESSION_CREATED, 0d);
@@ -159,6 +273,51 @@ public class SessionHandler
         }
     }
 
+    private APIGatewayProxyResponseEvent rateLimited(String message) {
+        eventProbe.log(WARN, message).counterMetric(EVENT_SESSION_CREATED, 0d);
+        return RetryableResponses.temporarilyUnavailable(HttpStatusCode.THROTTLING);
+    }
+
+    private SessionResponseItem findPreviousResponse(String requestHash) {
+        if (Objects.isNull(requestHash)) {
+            return null;
+        }
+        try {
+            return sessionResponseStore.getItem(requestHash);
+        } catch (RuntimeException e) {
+            // Without the stored response the request is handled as if it were new
+            eventProbe.log(WARN, e).counterMetric(EVENT_SESSION_RESPONSE_FAILED);
+            return null;
+        }
+    }
+
+    private void saveResponse(
+            String requestHash, String sessionId, String state, String redirectUri) {
+        if (Objects.isNull(requestHash)) {
+            return;
+        }
+        try {
+            sessionResponseStore.put(requestHash, sessionId, state, redirectUri);
+        } catch (RuntimeException e) {
+            // A concurrent duplicate stored its response first, or the table is unavailable
+            eventProbe.log(WARN, e).counterMetric(EVENT_SESSION_RESPONSE_FAILED);
+        }
+    }
+
+    private static APIGatewayProxyResponseEvent createdResponse(
+            String sessionId, String state, String redirectUri) {
+        return ApiGatewayResponseGenerator.proxyJsonResponse(
+                HttpStatusCode.CREATED,
+                Map.of(SESSION_ID, sessionId, STATE, state, REDIRECT_URI, redirectUri));
+    }
+
+    private static String getClientIpAddress(Map<String, String> headers) {
+        Map<String, String> inputHeadersCaseInsensitiveMap =
+                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        inputHeadersCaseInsensitiveMap.putAll(headers);
+        return inputHeadersCaseInsensitiveMap.get(HEADER_IP_ADDRESS);
+    }
+
     private void sendStartAuditEvent(
             Map<String, String> headers, SessionItem auditSessionItem, String sessionContext)
             throws SqsException {
@@ -0,0 +1,106 @@
+package uk.gov.di.ipv.cri.common.api.service;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEDecrypter;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.jca.JWEJCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.cloudwatchlogs.emf.model.Unit;
+import software.amazon.lambda.powertools.metrics.MetricsLogger;
+import software.amazon.lambda.powertools.metrics.MetricsUtils;
+import uk.gov.di.ipv.cri.common.api.exception.AdmissionRejectedException;
+import uk.gov.di.ipv.cri.common.api.util.AdaptiveConcurrencyLimiter;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Admits KMS decrypts through an {@link AdaptiveConcurrencyLimiter}, so a KMS slowdown or
+ * throttling sheds session requests early instead of stacking them up behind SDK retries.
+ *
+ * <p>Each decrypt publishes the limit and the decrypts in flight when it was admitted. A rejected
+ * decrypt throws {@link AdmissionRejectedException} and is counted as {@value
+ * #METRIC_DECRYPT_REJECTED}.
+ */
+public class AdmissionControlledDecrypter implements JWEDecrypter {
+
+    static final String METRIC_DECRYPT_LIMIT = "KmsDecryptConcurrencyLimit";
+    static final String METRIC_DECRYPT_IN_FLIGHT = "KmsDecryptInFlight";
+    static final String METRIC_DECRYPT_REJECTED = "KmsDecryptRejected";
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    private final JWEDecrypter decrypter;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public AdmissionControlledDecrypter(
+            JWEDecrypter decrypter, AdaptiveConcurrencyLimiter limiter) {
+        this.decrypter = decrypter;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public byte[] decrypt(
+            JWEHeader header,
+            Base64URL encryptedKey,
+            Base64URL iv,
+            Base64URL cipherText,
+            Base64URL authTag)
+            throws JOSEException {
+        boolean admitted = limiter.tryAcquire();
+        MetricsLogger metricsLogger = MetricsUtils.metricsLogger();
+        metricsLogger.putMetric(METRIC_DECRYPT_LIMIT, limiter.getLimit(), Unit.NONE);
+        metricsLogger.putMetric(METRIC_DECRYPT_IN_FLIGHT, limiter.getInFlight(), Unit.COUNT);
+        if (!admitted) {
+            metricsLogger.putMetric(METRIC_DECRYPT_REJECTED, 1, Unit.COUNT);
+            throw new AdmissionRejectedException(
+                    String.format(
+                            "KMS decrypt concurrency limit of %.2f reached", limiter.getLimit()));
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            byte[] plainText = decrypter.decrypt(header, encryptedKey, iv, cipherText, authTag);
+            limiter.onSuccess(System.nanoTime() - startNanos);
+            return plainText;
+        } catch (JOSEException | RuntimeException e) {
+            if (isThrottled(e)) {
+                limiter.onThrottled();
+            } else {
+                limiter.onIgnored();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<JWEAlgorithm> supportedJWEAlgorithms() {
+        return decrypter.supportedJWEAlgorithms();
+    }
+
+    @Override
+    public Set<EncryptionMethod> supportedEncryptionMethods() {
+        return decrypter.supportedEncryptionMethods();
+    }
+
+    @Override
+    public JWEJCAContext getJCAContext() {
+        return decrypter.getJCAContext();
+    }
+
+    private static boolean isThrottled(Throwable throwable) {
+        // A cause chain can loop back on itself, so only the first few causes are examined
+        Throwable cause = throwable;
+        for (int depth = 0;
+                Objects.nonNull(cause) && depth < MAX_CAUSE_DEPTH;
+                cause = cause.getCause(), depth++) {
+            if (cause instanceof SdkServiceException
+                    && ((SdkServiceException) cause).isThrottlingException()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,8 +7,12 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.services.kms.KmsClient;
 import uk.gov.di.ipv.cri.common.api.domain.RawSessionRequest;
+import uk.gov.di.ipv.cri.common.api.exception.AdmissionRejectedException;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+import uk.gov.di.ipv.cri.common.api.util.AdaptiveConcurrencyLimiter;
 import uk.gov.di.ipv.cri.common.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.cri.common.library.domain.SessionRequest;
 import uk.gov.di.ipv.cri.common.library.domain.personidentity.SharedClaims;
@@ -23,7 +27,12 @@ import uk.gov.di.ipv.cri.common.library.util.EventProbe;
 import uk.gov.di.ipv.cri.common.library.util.deserializers.PiiRedactingDeserializer;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -38,13 +47,20 @@ public class SessionRequestService {
     private static final String CONTEXT = "context";
     private static final String EVIDENCE_REQUEST = "evidence_requested";
 
+    // Decrypt concurrency starts at 5, which a single invocation never reaches, and falls to
+    // admitting one decrypt in ten once KMS throttles or slows down
+    private static final double INITIAL_DECRYPT_LIMIT = 5;
+    private static final double MIN_DECRYPT_LIMIT = 0.1;
+    private static final double MAX_DECRYPT_LIMIT = 50;
+
+    private static final int MAX_CAUSE_DEPTH = 16;
+    private static final List<String> SENSITIVE_FIELDS = List.of("name", "birthDate", "address");
+
     private final ObjectMapper objectMapper;
     private final JWTVerifier jwtVerifier;
     private final JWTDecrypter jwtDecrypter;
     private final ConfigurationService configurationService;
 
-    private final List<String> sensitiveFields = List.of("name", "birthDate", "address");
-
     @ExcludeFromGeneratedCoverageReport
     public SessionRequestService(
             ConfigurationService configurationService,
@@ -52,22 +68,19 @@ public class SessionRequestService {
             ObjectMapper objectMapper,
             EventProbe eventProbe) {
         this.configurationService = configurationService;
-        this.objectMapper = objectMapper;
-        this.objectMapper
-                .registerModule(new JavaTimeModule())
-                .registerModule(
-                        new SimpleModule()
-                                .addDeserializer(
-                                        SharedClaims.class,
-                                        new PiiRedactingDeserializer<>(
-                                                sensitiveFields, SharedClaims.class)));
+        this.objectMapper = registerModules(objectMapper);
         this.jwtVerifier = new JWTVerifier();
         this.jwtDecrypter =
                 new JWTDecrypter(
-                        new KMSRSADecrypter(
-                                this.configurationService.getKmsEncryptionKeyId(),
-                                kmsClient,
-                                eventProbe));
+                        new AdmissionControlledDecrypter(
+                                new KMSRSADecrypter(
+                                        this.configurationService.getKmsEncryptionKeyId(),
+                                        kmsClient,
+                                        eventProbe),
+                                new AdaptiveConcurrencyLimiter(
+                                        INITIAL_DECRYPT_LIMIT,
+                                        MIN_DECRYPT_LIMIT,
+                                        MAX_DECRYPT_LIMIT)));
     }
 
     public SessionRequestService(
@@ -95,6 +108,52 @@ public class SessionRequestService {
         return sessionRequest;
     }
 
+    /**
+     * Reads the client id from the request body without decrypting or verifying the request, or
+     * returns {@code null} when the body cannot be parsed.
+     */
+    public String getClientId(String requestBody) {
+        RawSessionRequest rawSessionRequest = readRawSessionRequest(requestBody);
+        return Objects.isNull(rawSessionRequest) ? null : rawSessionRequest.getClientId();
+    }
+
+    /**
+     * Hashes the client id, the encrypted request and the caller's IP address, so a resent request
+     * can be recognised without decrypting it. Returns {@code null} when the body has no request.
+     */
+    public String getRequestHash(String requestBody, String clientIpAddress) {
+        RawSessionRequest rawSessionRequest = readRawSessionRequest(requestBody);
+        if (Objects.isNull(rawSessionRequest)
+                || Objects.isNull(rawSessionRequest.getRequestJWT())) {
+            return null;
+        }
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            for (String part :
+                    Arrays.asList(
+                            rawSessionRequest.getClientId(),
+                            rawSessionRequest.getRequestJWT(),
+                            clientIpAddress)) {
+                messageDigest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                messageDigest.update((byte) 0);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private RawSessionRequest readRawSessionRequest(String requestBody) {
+        if (Objects.isNull(requestBody)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(requestBody, RawSessionRequest.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
     private SessionRequest parseSessionRequest(String requestBody)
             throws SessionValidationException {
         try {
@@ -165,10 +224,30 @@ public class SessionRequestService {
         } catch (ParseException e) {
             throw new SessionValidationException("Failed to parse request body", e);
         } catch (JOSEException e) {
+            rethrowUnavailableCause(e);
             throw new SessionValidationException("Decryption failed", e);
         }
     }
 
+    /**
+     * {@link com.nimbusds.jose.JWEObject#decrypt} wraps anything thrown by the decrypter in a
+     * {@link JOSEException}, so a rejected admission or an exhausted deadline has to be unwrapped
+     * here to reach the handler as a retryable failure rather than an invalid request.
+     */
+    private static void rethrowUnavailableCause(JOSEException e) {
+        // A cause chain can loop back on itself, so only the first few causes are examined
+        Throwable cause = e.getCause();
+        for (int depth = 0;
+                Objects.nonNull(cause) && depth < MAX_CAUSE_DEPTH;
+                cause = cause.getCause(), depth++) {
+            if (cause instanceof AdmissionRejectedException
+                    || cause instanceof DeadlineExceededException
+                    || cause instanceof ApiCallTimeoutException) {
+                throw (RuntimeException) cause;
+            }
+        }
+    }
+
     private void verifyRequestUri(URI requestRedirectUri, Map<String, String> clientConfig)
             throws SessionValidationException {
         URI configRedirectUri = URI.create(clientConfig.get("redirectUri"));
@@ -191,4 +270,19 @@ public class SessionRequestService {
         }
         return clientConfig;
     }
+
+    /**
+     * Registers the modules the session request needs, including the deserializer that keeps
+     * personal data out of shared claims parse errors.
+     */
+    public static ObjectMapper registerModules(ObjectMapper objectMapper) {
+        return objectMapper
+                .registerModule(new JavaTimeModule())
+                .registerModule(
+                        new SimpleModule()
+                                .addDeserializer(
+                                        SharedClaims.class,
+                                        new PiiRedactingDeserializer<>(
+                                                SENSITIVE_FIELDS, SharedClaims.class)));
+    }
 }
@@ -0,0 +1,150 @@
+package uk.gov.di.ipv.cri.common.api.handler;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSAEncrypter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.http.HttpStatusCode;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.api.service.SessionRequestService;
+import uk.gov.di.ipv.cri.common.api.service.SignedJWTBuilder;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationBudget;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationBudgetExtension;
+import uk.gov.di.ipv.cri.common.api.testfixtures.AllocationMeter;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryConfigurationService;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryDataStore;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemoryKmsClient;
+import uk.gov.di.ipv.cri.common.api.testfixtures.InMemorySqsClient;
+import uk.gov.di.ipv.cri.common.api.testfixtures.LocalContext;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+import uk.gov.di.ipv.cri.common.library.service.AuditEventFactory;
+import uk.gov.di.ipv.cri.common.library.service.AuditService;
+import uk.gov.di.ipv.cri.common.library.service.PersonIdentityMapper;
+import uk.gov.di.ipv.cri.common.library.service.PersonIdentityService;
+import uk.gov.di.ipv.cri.common.library.service.SessionService;
+import uk.gov.di.ipv.cri.common.library.util.EventProbe;
+
+import java.security.cert.CertificateEncodingException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(AllocationBudgetExtension.class)
+class SessionHandlerAllocationTest {
+    private static final String CLIENT_ID = "ipv-core";
+    private static final String REDIRECT_URI = "https://www.example/com/callback";
+
+    private SessionHandler sessionHandler;
+    private String requestBody;
+
+    @BeforeEach
+    void setUp() throws CertificateEncodingException, JOSEException, JsonProcessingException {
+        SignedJWTBuilder signedJWTBuilder =
+                new SignedJWTBuilder()
+                        .setPrivateKeyFile("signing_ec.pk8")
+                        .setCertificateFile("signing_ec.crt.pem")
+                        .setSigningAlgorithm(JWSAlgorithm.ES384)
+                        .setAudience(InMemoryConfigurationService.VERIFIABLE_CREDENTIAL_ISSUER)
+                        .setRedirectUri(REDIRECT_URI)
+                        .setIncludeSharedClaims(Boolean.TRUE);
+        JWEObject sessionRequest =
+                new JWEObject(
+                        new JWEHeader.Builder(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM)
+                                .contentType("JWT")
+                                .build(),
+                        new Payload(signedJWTBuilder.build()));
+
+        InMemoryKmsClient kmsClient = new InMemoryKmsClient();
+        String kmsEncryptionKeyId = kmsClient.createKey();
+        sessionRequest.encrypt(
+                new RSAEncrypter(
+                        (RSAPublicKey) kmsClient.getKeyPair(kmsEncryptionKeyId).getPublic()));
+        ObjectMapper objectMapper = new ObjectMapper();
+        requestBody =
+                objectMapper.writeValueAsString(
+                        Map.of("client_id", CLIENT_ID, "request", sessionRequest.serialize()));
+
+        InMemoryConfigurationService configurationService =
+                new InMemoryConfigurationService()
+                        .withKmsEncryptionKeyId(kmsEncryptionKeyId)
+                        .withParametersForPath(
+                                "/clients/ipv-core/jwtAuthentication",
+                                Map.of(
+                                        "redirectUri",
+                                        REDIRECT_URI,
+                                        "authenticationAlg",
+                                        JWSAlgorithm.ES384.getName(),
+                                        "issuer",
+                                        CLIENT_ID,
+                                        "publicCertificateToVerify",
+                                        Base64.getEncoder()
+                                                .encodeToString(
+                                                        signedJWTBuilder
+                                                                .getCertificate()
+                                                                .getEncoded())));
+        InMemoryDataStore<SessionItem> sessionDataStore =
+                new InMemoryDataStore<>(TableSchemaRegistry.sessionItemSchema());
+        EventProbe eventProbe = new EventProbe();
+        sessionHandler =
+                new SessionHandler(
+                        new SessionService(
+                                sessionDataStore, configurationService, Clock.systemUTC()),
+                        new SessionRequestService(
+                                configurationService, kmsClient, objectMapper, eventProbe),
+                        new PersonIdentityService(
+                                new PersonIdentityMapper(),
+                                configurationService,
+                                new InMemoryDataStore<>(
+                                        TableSchemaRegistry.personIdentityItemSchema())),
+                        eventProbe,
+                        new AuditService(
+                                new InMemorySqsClient(),
+                                configurationService,
+                                objectMapper,
+                                new AuditEventFactory(configurationService, Clock.systemUTC())),
+                        new WarmUpService(),
+                        null,
+                        null);
+    }
+
+    @Test
+    @DisplayName("session created")
+    @AllocationBudget(kilobytes = 2048, warmupIterations = 100, iterations = 25)
+    void shouldStayWithinBudgetWhenCreatingSession(AllocationMeter meter) {
+        APIGatewayProxyRequestEvent request =
+                new APIGatewayProxyRequestEvent()
+                        .withHttpMethod("POST")
+                        .withPath("/session")
+                        .withHeaders(
+                                Map.of(
+                                        "content-type",
+                                        "application/json",
+                                        "x-forwarded-for",
+                                        "192.0.2.0"))
+                        .withBody(requestBody);
+
+        meter.measure(
+                () -> new LocalContext("session"),
+                context -> {
+                    APIGatewayProxyResponseEvent response =
+                            sessionHandler.handleRequest(request, context);
+                    assertEquals(HttpStatusCode.CREATED, response.getStatusCode());
+                });
+    }
+}
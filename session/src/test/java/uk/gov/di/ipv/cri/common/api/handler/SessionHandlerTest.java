@@ -17,7 +17,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.http.HttpStatusCode;
 import uk.gov.di.ipv.cri.common.api.domain.AuditEventExtensions;
 import uk.gov.di.ipv.cri.common.api.domain.Evidence;
+import uk.gov.di.ipv.cri.common.api.exception.AdmissionRejectedException;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+import uk.gov.di.ipv.cri.common.api.persistence.SessionResponseItem;
+import uk.gov.di.ipv.cri.common.api.persistence.SessionResponseStore;
 import uk.gov.di.ipv.cri.common.api.service.SessionRequestService;
+import uk.gov.di.ipv.cri.common.api.service.WarmUpService;
+import uk.gov.di.ipv.cri.common.api.util.ClientRateLimiter;
 import uk.gov.di.ipv.cri.common.library.domain.AuditEventContext;
 import uk.gov.di.ipv.cri.common.library.domain.AuditEventType;
 import uk.gov.di.ipv.cri.common.library.domain.SessionRequest;
@@ -42,9 +48,11 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.cri.common.api.handler.SessionHandler.REDIRECT_URI;
 import static uk.gov.di.ipv.cri.common.api.handler.SessionHandler.STATE;
@@ -62,6 +70,7 @@ class SessionHandlerTest {
     @Mock private SessionRequest mockSessionRequest;
     @Mock private EventProbe mockEventProbe;
     @Mock private AuditService mockAuditService;
+    @Mock private WarmUpService mockWarmUpService;
     @InjectMocks private SessionHandler sessionHandler;
 
     @ParameterizedTest
@@ -303,8 +312,178 @@ class SessionHandlerTest {
         verify(mockEventProbe).log(Level.ERROR, exception);
     }
 
+    @Test
+    void shouldReturnRetryable503WhenDecryptAdmissionIsRejected()
+            throws SessionValidationException, ClientConfigurationException,
+                    JsonProcessingException {
+        when(apiGatewayProxyRequestEvent.getBody()).thenReturn("some json");
+        AdmissionRejectedException exception = new AdmissionRejectedException("limit reached");
+        when(mockSessionRequestService.validateSessionRequest("some json")).thenThrow(exception);
+        when(mockEventProbe.log(Level.WARN, exception)).thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                sessionHandler.handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.SERVICE_UNAVAILABLE, responseEvent.getStatusCode());
+        assertEquals("1", responseEvent.getHeaders().get("Retry-After"));
+        Map<String, Object> responseBody =
+                new ObjectMapper().readValue(responseEvent.getBody(), new TypeReference<>() {});
+        assertEquals("temporarily_unavailable", responseBody.get("error"));
+        verify(mockEventProbe).counterMetric(SESSION_CREATED_METRIC, 0d);
+        verify(mockSessionService, never()).saveSession(any());
+    }
+
+    @Test
+    void shouldReturnRetryable503WhenTheDeadlineIsReached()
+            throws SessionValidationException, ClientConfigurationException,
+                    JsonProcessingException {
+        when(apiGatewayProxyRequestEvent.getBody()).thenReturn("some json");
+        when(apiGatewayProxyRequestEvent.getHeaders()).thenReturn(Map.of());
+        when(mockSessionRequestService.validateSessionRequest("some json"))
+                .thenReturn(mockSessionRequest);
+        when(mockSessionRequest.getClientId()).thenReturn("ipv-core");
+        DeadlineExceededException exception = new DeadlineExceededException("deadline reached");
+        when(mockSessionService.saveSession(mockSessionRequest)).thenThrow(exception);
+        when(mockEventProbe.log(Level.WARN, exception)).thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                sessionHandler.handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.SERVICE_UNAVAILABLE, responseEvent.getStatusCode());
+        assertEquals("1", responseEvent.getHeaders().get("Retry-After"));
+        verify(mockEventProbe).counterMetric(SESSION_CREATED_METRIC, 0d);
+        verifyNoInteractions(mockPersonIdentityService, mockAuditService);
+    }
+
+    @Test
+    void shouldReturnRetryable429BeforeReadingOrDecryptingWhenClientRateLimitIsReached()
+            throws SessionValidationException, ClientConfigurationException,
+                    JsonProcessingException {
+        ClientRateLimiter mockClientRateLimiter = mock(ClientRateLimiter.class);
+        SessionResponseStore mockSessionResponseStore = mock(SessionResponseStore.class);
+        when(apiGatewayProxyRequestEvent.getBody()).thenReturn("some json");
+        when(mockSessionRequestService.getClientId("some json")).thenReturn("ipv-core");
+        when(mockClientRateLimiter.tryAcquire("ipv-core")).thenReturn(false);
+        when(mockEventProbe.log(Level.WARN, "Client rate limit reached"))
+                .thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                new SessionHandler(
+                                mockSessionService,
+                                mockSessionRequestService,
+                                mockPersonIdentityService,
+                                mockEventProbe,
+                                mockAuditService,
+                                mockWarmUpService,
+                                mockClientRateLimiter,
+                                mockSessionResponseStore)
+                        .handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.THROTTLING, responseEvent.getStatusCode());
+        assertEquals("1", responseEvent.getHeaders().get("Retry-After"));
+        Map<String, Object> responseBody =
+                new ObjectMapper().readValue(responseEvent.getBody(), new TypeReference<>() {});
+        assertEquals("temporarily_unavailable", responseBody.get("error"));
+        verify(mockEventProbe).counterMetric(SESSION_CREATED_METRIC, 0d);
+        verify(mockSessionRequestService, never()).getRequestHash(any(), any());
+        verify(mockSessionRequestService, never()).validateSessionRequest(anyString());
+        verifyNoInteractions(
+                mockSessionResponseStore,
+                mockSessionService,
+                mockPersonIdentityService,
+                mockAuditService);
+    }
+
+    @Test
+    void shouldReplayStoredResponseForResentRequest()
+            throws SessionValidationException, ClientConfigurationException,
+                    JsonProcessingException {
+        SessionResponseStore mockSessionResponseStore = mock(SessionResponseStore.class);
+        SessionResponseItem previousResponse = new SessionResponseItem();
+        previousResponse.setSessionId(SESSION_ID.toString());
+        previousResponse.setState("some state");
+        previousResponse.setRedirectUri("https://www.example.com/callback");
+        when(apiGatewayProxyRequestEvent.getBody()).thenReturn("some json");
+        when(apiGatewayProxyRequestEvent.getHeaders())
+                .thenReturn(Map.of("X-Forwarded-For", "192.0.2.0"));
+        when(mockSessionRequestService.getRequestHash("some json", "192.0.2.0"))
+                .thenReturn("request-hash");
+        when(mockSessionResponseStore.getItem("request-hash")).thenReturn(previousResponse);
+        when(mockEventProbe.log(Level.INFO, "replayed session for a resent request"))
+                .thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                createSessionHandler(mockSessionResponseStore)
+                        .handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.CREATED, responseEvent.getStatusCode());
+        var responseBody = new ObjectMapper().readValue(responseEvent.getBody(), Map.class);
+        assertEquals(SESSION_ID.toString(), responseBody.get(SessionHandler.SESSION_ID));
+        assertEquals("some state", responseBody.get(STATE));
+        assertEquals("https://www.example.com/callback", responseBody.get(REDIRECT_URI));
+        verify(mockEventProbe).counterMetric("session_replayed");
+        verify(mockSessionRequestService, never()).validateSessionRequest(anyString());
+        verifyNoInteractions(mockSessionService, mockPersonIdentityService, mockAuditService);
+    }
+
+    @Test
+    void shouldStoreResponseForNewRequest()
+            throws SessionValidationException, ClientConfigurationException {
+        SessionResponseStore mockSessionResponseStore = mock(SessionResponseStore.class);
+        String redirectUri = "https://www.example.com/callback";
+        when(apiGatewayProxyRequestEvent.getBody()).thenReturn("some json");
+        when(apiGatewayProxyRequestEvent.getHeaders())
+                .thenReturn(Map.of("X-Forwarded-For", "192.0.2.0"));
+        when(mockSessionRequestService.getRequestHash("some json", "192.0.2.0"))
+                .thenReturn("request-hash");
+        when(mockSessionRequestService.validateSessionRequest("some json"))
+                .thenReturn(mockSessionRequest);
+        when(mockSessionRequest.getClientId()).thenReturn("ipv-core");
+        when(mockSessionRequest.getState()).thenReturn("some state");
+        when(mockSessionRequest.getRedirectUri()).thenReturn(URI.create(redirectUri));
+        when(mockSessionService.saveSession(mockSessionRequest)).thenReturn(SESSION_ID);
+        when(mockEventProbe.addJourneyIdToLoggingContext(any())).thenReturn(mockEventProbe);
+        when(mockEventProbe.counterMetric(anyString())).thenReturn(mockEventProbe);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                createSessionHandler(mockSessionResponseStore)
+                        .handleRequest(apiGatewayProxyRequestEvent, null);
+
+        assertEquals(HttpStatusCode.CREATED, responseEvent.getStatusCode());
+        verify(mockSessionResponseStore)
+                .put("request-hash", SESSION_ID.toString(), "some state", redirectUri);
+    }
+
+    @Test
+    void shouldDelegateWarmUpEventToWarmUpService() {
+        APIGatewayProxyRequestEvent warmUpEvent =
+                new APIGatewayProxyRequestEvent().withResource(WarmUpService.WARM_UP_RESOURCE);
+        APIGatewayProxyResponseEvent warmUpResponse =
+                new APIGatewayProxyResponseEvent().withStatusCode(HttpStatusCode.OK);
+        when(mockWarmUpService.warmUp(warmUpEvent)).thenReturn(warmUpResponse);
+
+        APIGatewayProxyResponseEvent responseEvent =
+                sessionHandler.handleRequest(warmUpEvent, null);
+
+        assertEquals(warmUpResponse, responseEvent);
+        verifyNoInteractions(
+                mockSessionService, mockSessionRequestService, mockEventProbe, mockAuditService);
+    }
+
     private void setupEventProbeErrorBehaviour() {
         when(mockEventProbe.counterMetric(SESSION_CREATED_METRIC, 0d)).thenReturn(mockEventProbe);
         when(mockEventProbe.log(eq(Level.ERROR), any(Exception.class))).thenReturn(mockEventProbe);
     }
+
+    private SessionHandler createSessionHandler(SessionResponseStore sessionResponseStore) {
+        return new SessionHandler(
+                mockSessionService,
+                mockSessionRequestService,
+                mockPersonIdentityService,
+                mockEventProbe,
+                mockAuditService,
+                mockWarmUpService,
+                null,
+                sessionResponseStore);
+    }
 }
@@ -0,0 +1,71 @@
+package uk.gov.di.ipv.cri.common.api.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEDecrypter;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import uk.gov.di.ipv.cri.common.api.exception.AdmissionRejectedException;
+import uk.gov.di.ipv.cri.common.api.util.AdaptiveConcurrencyLimiter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlledDecrypterTest {
+    private static final Base64URL PART = Base64URL.encode("part");
+
+    @Mock private JWEDecrypter mockDecrypter;
+    @Mock private JWEHeader mockHeader;
+
+    @Test
+    void shouldDecryptWhenAdmitted() throws JOSEException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10);
+        byte[] plainText = {1, 2, 3};
+        when(mockDecrypter.decrypt(mockHeader, PART, PART, PART, PART)).thenReturn(plainText);
+
+        assertArrayEquals(
+                plainText,
+                new AdmissionControlledDecrypter(mockDecrypter, limiter)
+                        .decrypt(mockHeader, PART, PART, PART, PART));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldRejectWithoutCallingKmsWhenTheLimitIsReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10);
+        limiter.tryAcquire();
+
+        assertThrows(
+                AdmissionRejectedException.class,
+                () ->
+                        new AdmissionControlledDecrypter(mockDecrypter, limiter)
+                                .decrypt(mockHeader, PART, PART, PART, PART));
+        verifyNoInteractions(mockDecrypter);
+    }
+
+    @Test
+    void shouldBackOffWhenKmsThrottles() throws JOSEException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10);
+        KmsException throttled =
+                (KmsException) KmsException.builder().statusCode(429).message("throttled").build();
+        when(mockDecrypter.decrypt(any(), any(), any(), any(), any()))
+                .thenThrow(new JOSEException("decrypt failed", throttled));
+
+        assertThrows(
+                JOSEException.class,
+                () ->
+                        new AdmissionControlledDecrypter(mockDecrypter, limiter)
+                                .decrypt(mockHeader, PART, PART, PART, PART));
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -4,8 +4,15 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEDecrypter;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSAEncrypter;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import net.minidev.json.JSONObject;
@@ -19,6 +26,9 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.cri.common.api.domain.RawSessionRequest;
+import uk.gov.di.ipv.cri.common.api.exception.AdmissionRejectedException;
+import uk.gov.di.ipv.cri.common.api.exception.DeadlineExceededException;
+import uk.gov.di.ipv.cri.common.api.util.AdaptiveConcurrencyLimiter;
 import uk.gov.di.ipv.cri.common.library.domain.SessionRequest;
 import uk.gov.di.ipv.cri.common.library.domain.personidentity.SharedClaims;
 import uk.gov.di.ipv.cri.common.library.exception.ClientConfigurationException;
@@ -30,9 +40,12 @@ import uk.gov.di.ipv.cri.common.library.util.deserializers.PiiRedactingDeseriali
 
 import java.io.IOException;
 import java.net.URI;
+import java.security.KeyPairGenerator;
 import java.security.cert.Certificate;
+import java.security.interfaces.RSAPublicKey;
 import java.security.cert.CertificateEncodingException;
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
@@ -47,6 +60,7 @@ import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -59,6 +73,7 @@ class SessionRequestServiceTest {
     @Mock private ConfigurationService mockConfigurationService;
     @Mock private JWTDecrypter mockJwtDecrypter;
     @Mock private JWTVerifier mockJwtVerifier;
+    @Mock private JWEDecrypter mockJweDecrypter;
     SessionRequestService sessionRequestService;
     private SharedClaims testSharedClaims;
     private ObjectMapper objectMapper;
@@ -93,6 +108,80 @@ class SessionRequestServiceTest {
         verifyNoInteractions(mockConfigurationService);
     }
 
+    @Test
+    void shouldReadClientIdWithoutDecrypting() throws IOException {
+        String requestBody =
+                marshallToJSON(Map.of("client_id", "ipv-core", "request", "header.key.iv.ct.tag"));
+
+        assertEquals("ipv-core", sessionRequestService.getClientId(requestBody));
+        assertNull(sessionRequestService.getClientId("not json"));
+        assertNull(sessionRequestService.getClientId(null));
+        verifyNoInteractions(mockJwtDecrypter, mockConfigurationService);
+    }
+
+    @Test
+    void shouldHashResentRequestFromSameAddressToSameKeyWithoutDecrypting() throws IOException {
+        String requestBody =
+                marshallToJSON(Map.of("client_id", "ipv-core", "request", "header.key.iv.ct.tag"));
+
+        String requestHash = sessionRequestService.getRequestHash(requestBody, "192.0.2.0");
+
+        assertEquals(requestHash, sessionRequestService.getRequestHash(requestBody, "192.0.2.0"));
+        assertThat(
+                sessionRequestService.getRequestHash(requestBody, "198.51.100.0"),
+                not(equalTo(requestHash)));
+        assertNull(sessionRequestService.getRequestHash("not json", "192.0.2.0"));
+        verifyNoInteractions(mockJwtDecrypter, mockConfigurationService);
+    }
+
+    @Test
+    void shouldRethrowAdmissionRejectionInsteadOfReportingAnInvalidRequest() throws Exception {
+        AdaptiveConcurrencyLimiter saturatedLimiter = new AdaptiveConcurrencyLimiter(1, 1, 10);
+        saturatedLimiter.tryAcquire();
+        SessionRequestService service =
+                withRealJwtDecrypter(
+                        new AdmissionControlledDecrypter(mockJweDecrypter, saturatedLimiter));
+
+        assertThrows(
+                AdmissionRejectedException.class,
+                () -> service.validateSessionRequest(encryptedRequestBody()));
+        verifyNoInteractions(mockJweDecrypter, mockConfigurationService);
+    }
+
+    @Test
+    void shouldRethrowDeadlineFailureInsteadOfReportingAnInvalidRequest() throws Exception {
+        when(mockJweDecrypter.decrypt(any(), any(), any(), any(), any()))
+                .thenThrow(new DeadlineExceededException("no time left to decrypt"));
+        SessionRequestService service =
+                withRealJwtDecrypter(
+                        new AdmissionControlledDecrypter(
+                                mockJweDecrypter, new AdaptiveConcurrencyLimiter(1, 1, 10)));
+
+        assertThrows(
+                DeadlineExceededException.class,
+                () -> service.validateSessionRequest(encryptedRequestBody()));
+        verifyNoInteractions(mockConfigurationService);
+    }
+
+    @Test
+    void shouldReportAnInvalidRequestWhenTheDecryptCauseChainLoops() throws Exception {
+        JOSEException decryptFailure = new JOSEException("decrypt failed");
+        decryptFailure.initCause(new IllegalStateException(decryptFailure));
+        when(mockJweDecrypter.decrypt(any(), any(), any(), any(), any()))
+                .thenThrow(decryptFailure);
+        SessionRequestService service =
+                withRealJwtDecrypter(
+                        new AdmissionControlledDecrypter(
+                                mockJweDecrypter, new AdaptiveConcurrencyLimiter(1, 1, 10)));
+
+        assertTimeoutPreemptively(
+                Duration.ofSeconds(5),
+                () ->
+                        assertThrows(
+                                SessionValidationException.class,
+                                () -> service.validateSessionRequest(encryptedRequestBody())));
+    }
+
     @Test
     void shouldThrowValidationExceptionWhenRequestClientIdIsInvalid()
             throws ParseException, JOSEException {
@@ -427,6 +516,29 @@ class SessionRequestServiceTest {
         }
     }
 
+    private SessionRequestService withRealJwtDecrypter(JWEDecrypter decrypter) {
+        return new SessionRequestService(
+                objectMapper,
+                mockJwtVerifier,
+                mockConfigurationService,
+                new JWTDecrypter(decrypter));
+    }
+
+    private String encryptedRequestBody() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        JWEObject sessionRequest =
+                new JWEObject(
+                        new JWEHeader.Builder(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM)
+                                .contentType("JWT")
+                                .build(),
+                        new Payload(new SignedJWTBuilder().build()));
+        sessionRequest.encrypt(
+                new RSAEncrypter((RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic()));
+        return marshallToJSON(
+                Map.of("client_id", "ipv-core", "request", sessionRequest.serialize()));
+    }
+
     private String marshallToJSON(Object sessionRequest) throws IOException {
         return objectMapper.writeValueAsString(sessionRequest);
     }
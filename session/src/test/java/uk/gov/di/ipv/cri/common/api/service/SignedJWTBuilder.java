@@ -31,7 +31,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
-class SignedJWTBuilder {
+public class SignedJWTBuilder {
 
     private static final String SHARED_CLAIMS =
             "{\"@context\":[\"https:\\/\\/www.w3.org\\/2018\\/credentials\\/v1\",\"https:\\/\\/vocab.london.cloudapps.digital\\/contexts\\/identity-v1.jsonld\"],\"name\":[{\"nameParts\":[{\"type\":\"GivenName\",\"value\":\"KENNETH\"},{\"type\":\"FamilyName\",\"value\":\"DECERQUEIRA\"}]}],\"birthDate\":[{\"value\":\"1965-04-05\"}],\"address\":[{\"buildingNumber\":\"8\",\"streetName\":\"HADLEY ROAD\",\"postalCode\":\"BA2 5AA\",\"validFrom\":\"2021-01-01\"}]}";
@@ -53,91 +53,91 @@ class SignedJWTBuilder {
     private Map<String, Object> evidenceRequestedClaims = null;
     private String context;
 
-    SignedJWTBuilder setNow(Instant now) {
+    public SignedJWTBuilder setNow(Instant now) {
         this.now = now;
         return this;
     }
 
-    SignedJWTBuilder setSigningAlgorithm(JWSAlgorithm signingAlgorithm) {
+    public SignedJWTBuilder setSigningAlgorithm(JWSAlgorithm signingAlgorithm) {
         this.signingAlgorithm = signingAlgorithm;
         return this;
     }
 
-    SignedJWTBuilder setCertificateFile(String certificateFile) {
+    public SignedJWTBuilder setCertificateFile(String certificateFile) {
         this.certificateFile = certificateFile;
         return this;
     }
 
-    SignedJWTBuilder setPrivateKeyFile(String privateKeyFile) {
+    public SignedJWTBuilder setPrivateKeyFile(String privateKeyFile) {
         this.privateKeyFile = privateKeyFile;
         return this;
     }
 
-    SignedJWTBuilder setRedirectUri(String redirectUri) {
+    public SignedJWTBuilder setRedirectUri(String redirectUri) {
         this.redirectUri = redirectUri;
         return this;
     }
 
-    SignedJWTBuilder setClientId(String clientId) {
+    public SignedJWTBuilder setClientId(String clientId) {
         this.clientId = clientId;
         return this;
     }
 
-    SignedJWTBuilder setNotBeforeTime(Date notBeforeTime) {
+    public SignedJWTBuilder setNotBeforeTime(Date notBeforeTime) {
         this.notBeforeTime = notBeforeTime;
         return this;
     }
 
-    SignedJWTBuilder setAudience(String audience) {
+    public SignedJWTBuilder setAudience(String audience) {
         this.audience = audience;
         return this;
     }
 
-    SignedJWTBuilder setIssuer(String issuer) {
+    public SignedJWTBuilder setIssuer(String issuer) {
         this.issuer = issuer;
         return this;
     }
 
-    SignedJWTBuilder setIncludeSubject(boolean includeSubject) {
+    public SignedJWTBuilder setIncludeSubject(boolean includeSubject) {
         this.includeSubject = includeSubject;
         return this;
     }
 
-    SignedJWTBuilder setIncludeSharedClaims(boolean includeSharedClaims) {
+    public SignedJWTBuilder setIncludeSharedClaims(boolean includeSharedClaims) {
         this.includeSharedClaims = includeSharedClaims;
         return this;
     }
 
-    SignedJWTBuilder setSharedClaims(Map<String, Object> sharedClaims) {
+    public SignedJWTBuilder setSharedClaims(Map<String, Object> sharedClaims) {
         this.sharedClaims = sharedClaims;
         return this;
     }
 
-    SignedJWTBuilder setEvidenceRequestedClaims(Map<String, Object> evidenceRequestedClaims) {
+    public SignedJWTBuilder setEvidenceRequestedClaims(Map<String, Object> evidenceRequestedClaims) {
         this.evidenceRequestedClaims = evidenceRequestedClaims;
         return this;
     }
 
-    SignedJWTBuilder setPersistentSessionId(String persistentSessionId) {
+    public SignedJWTBuilder setPersistentSessionId(String persistentSessionId) {
         this.persistentSessionId = persistentSessionId;
         return this;
     }
 
-    SignedJWTBuilder setClientSessionId(String clientSessionId) {
+    public SignedJWTBuilder setClientSessionId(String clientSessionId) {
         this.clientSessionId = clientSessionId;
         return this;
     }
 
-    SignedJWTBuilder setContext(String context) {
+    public SignedJWTBuilder setContext(String context) {
         this.context = context;
         return this;
     }
 
-    Certificate getCertificate() {
+    public Certificate getCertificate() {
         return certificate;
     }
 
-    SignedJWT build() {
+    public SignedJWT build() {
         try {
 
             PrivateKey privateKey = getPrivateKeyFromResources(privateKeyFile);
@@ -0,0 +1,23 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most a test's scenario may allocate on the calling thread per warmed call it measures with
+ * an {@link AllocationMeter}. Enforced by {@link AllocationBudgetExtension}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AllocationBudget {
+
+    long kilobytes();
+
+    /** Calls made before measuring, so the JIT and any lazily built state have settled. */
+    int warmupIterations() default AllocationMeter.DEFAULT_WARMUP_ITERATIONS;
+
+    /** Calls measured, of which the median is compared with the budget. */
+    int iterations() default AllocationMeter.DEFAULT_ITERATIONS;
+}
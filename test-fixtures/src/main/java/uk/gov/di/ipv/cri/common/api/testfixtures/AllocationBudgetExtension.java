@@ -0,0 +1,82 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.util.Objects;
+
+/**
+ * Fails a test annotated with {@link AllocationBudget} when the call it measures with the {@link
+ * AllocationMeter} parameter allocates more than the budget. The test is skipped on a JVM that
+ * does not count per-thread allocation. Each measurement is published as a report entry, so a
+ * budget can be set from what a scenario allocates today.
+ *
+ * <pre>
+ * &#64;Test
+ * &#64;AllocationBudget(kilobytes = 256)
+ * void tokenSuccess(AllocationMeter meter) {
+ *     meter.measure(() -&gt; handler.handleRequest(request, context));
+ * }
+ * </pre>
+ */
+public class AllocationBudgetExtension
+        implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(AllocationBudgetExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (Objects.nonNull(getBudget(context))) {
+            Assumptions.assumeTrue(
+                    AllocationMeter.isSupported(),
+                    "Thread allocation counting is not available on this JVM");
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(
+            ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == AllocationMeter.class;
+    }
+
+    @Override
+    public Object resolveParameter(
+            ParameterContext parameterContext, ExtensionContext extensionContext) {
+        AllocationBudget budget = getBudget(extensionContext);
+        AllocationMeter meter =
+                Objects.isNull(budget)
+                        ? new AllocationMeter()
+                        : new AllocationMeter(budget.warmupIterations(), budget.iterations());
+        extensionContext.getStore(NAMESPACE).put(AllocationMeter.class, meter);
+        return meter;
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        AllocationMeter meter =
+                context.getStore(NAMESPACE).get(AllocationMeter.class, AllocationMeter.class);
+        if (Objects.nonNull(meter) && meter.getBytesPerCall() >= 0) {
+            context.publishReportEntry(
+                    "allocatedBytesPerCall", String.valueOf(meter.getBytesPerCall()));
+        }
+        AllocationBudget budget = getBudget(context);
+        if (Objects.nonNull(budget)) {
+            (Objects.isNull(meter) ? new AllocationMeter() : meter)
+                    .assertWithinBudget(context.getDisplayName(), budget.kilobytes());
+        }
+    }
+
+    private static AllocationBudget getBudget(ExtensionContext context) {
+        return context.getTestMethod()
+                .map(method -> method.getAnnotation(AllocationBudget.class))
+                .orElse(null);
+    }
+}
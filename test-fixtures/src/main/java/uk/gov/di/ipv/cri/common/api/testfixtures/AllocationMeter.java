@@ -0,0 +1,96 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import org.opentest4j.AssertionFailedError;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Measures the bytes a call allocates on the current thread, as counted by the JVM's {@link
+ * com.sun.management.ThreadMXBean}. Allocations made on other threads, such as by an SDK client's
+ * event loop, are not counted.
+ *
+ * <p>The call is warmed up first, then measured over several iterations and the median is kept,
+ * so a one-off allocation such as a cache being filled does not count against the call.
+ */
+public final class AllocationMeter {
+
+    static final int DEFAULT_WARMUP_ITERATIONS = 200;
+    static final int DEFAULT_ITERATIONS = 50;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmupIterations;
+    private final int iterations;
+    private long bytesPerCall = -1;
+
+    public AllocationMeter() {
+        this(DEFAULT_WARMUP_ITERATIONS, DEFAULT_ITERATIONS);
+    }
+
+    public AllocationMeter(int warmupIterations, int iterations) {
+        if (warmupIterations < 0 || iterations < 1) {
+            throw new IllegalArgumentException(
+                    "Expected no negative warm-up iterations and at least one iteration");
+        }
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+    }
+
+    /** Whether this JVM counts the bytes each thread allocates. */
+    public static boolean isSupported() {
+        return THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+                && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+    }
+
+    /** Returns the median bytes allocated by {@code call}. */
+    public long measure(Runnable call) {
+        return measure(() -> null, ignored -> call.run());
+    }
+
+    /**
+     * Returns the median bytes allocated by {@code call}, given a fresh value from {@code setUp}
+     * each time. What {@code setUp} allocates is not counted, so it can restore state the previous
+     * call consumed.
+     */
+    public <T> long measure(Supplier<T> setUp, Consumer<T> call) {
+        for (int i = 0; i < warmupIterations; i++) {
+            call.accept(setUp.get());
+        }
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            T input = setUp.get();
+            long before = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+            call.accept(input);
+            samples[i] = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - before;
+        }
+        Arrays.sort(samples);
+        bytesPerCall = samples[iterations / 2];
+        return bytesPerCall;
+    }
+
+    /** The median of the last measurement, or {@code -1} before anything has been measured. */
+    public long getBytesPerCall() {
+        return bytesPerCall;
+    }
+
+    void assertWithinBudget(String scenario, long budgetKilobytes) {
+        if (bytesPerCall < 0) {
+            throw new AssertionFailedError(
+                    String.format(
+                            "%s declares an allocation budget but measured nothing", scenario));
+        }
+        long budgetBytes = budgetKilobytes * 1024;
+        if (bytesPerCall > budgetBytes) {
+            throw new AssertionFailedError(
+                    String.format(
+                            "%s allocated %.1f KB per call, over its budget of %d KB",
+                            scenario, bytesPerCall / 1024.0, budgetKilobytes),
+                    budgetBytes,
+                    bytesPerCall);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link SdkHttpClient} that delays each request and answers a share of them with the error
+ * responses of a throttled or failing AWS service, passing the rest to the wrapped client.
+ *
+ * <p>Faults are injected below the SDK, so an SDK client built with this HTTP client still runs
+ * its retry strategy, its API call and attempt timeouts, including those {@code
+ * DeadlineInterceptor} sets from the request deadline, and any {@code HedgedReads} above it. When
+ * a timeout fires the SDK aborts the delayed request, as it would a slow connection.
+ *
+ * <p>Errors are written in the AWS JSON protocol that DynamoDB, KMS, SQS and SSM use: a 400 with a
+ * {@value FaultInjector#THROTTLING_ERROR_CODE} error type, or a 500 {@value
+ * FaultInjector#INTERNAL_ERROR_CODE}.
+ */
+public class FaultInjectingHttpClient implements SdkHttpClient {
+
+    private static final String ERROR_TYPE_HEADER = "x-amzn-ErrorType";
+    private static final String CONTENT_TYPE = "application/x-amz-json-1.0";
+
+    private final SdkHttpClient httpClient;
+    private final FaultInjector faultInjector;
+
+    public FaultInjectingHttpClient(SdkHttpClient httpClient, FaultInjector faultInjector) {
+        this.httpClient = httpClient;
+        this.faultInjector = faultInjector;
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+        return new DelayedRequest(request, faultInjector.next());
+    }
+
+    @Override
+    public String clientName() {
+        return "FaultInjecting" + httpClient.clientName();
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    private static HttpExecuteResponse errorResponse(FaultInjector.Fault fault) {
+        byte[] body =
+                String.format(
+                                "{\"__type\":\"%s\",\"message\":\"%s injected\"}",
+                                fault.getErrorCode(), fault.getErrorCode())
+                        .getBytes(StandardCharsets.UTF_8);
+        return HttpExecuteResponse.builder()
+                .response(
+                        SdkHttpResponse.builder()
+                                .statusCode(fault.getStatusCode())
+                                .putHeader(ERROR_TYPE_HEADER, fault.getErrorCode())
+                                .putHeader("Content-Type", CONTENT_TYPE)
+                                .putHeader("Content-Length", String.valueOf(body.length))
+                                .build())
+                .responseBody(AbortableInputStream.create(new ByteArrayInputStream(body)))
+                .build();
+    }
+
+    private final class DelayedRequest implements ExecutableHttpRequest {
+        private final HttpExecuteRequest request;
+        private final FaultInjector.Fault fault;
+        private final CountDownLatch aborted = new CountDownLatch(1);
+        private volatile ExecutableHttpRequest forwarded;
+
+        private DelayedRequest(HttpExecuteRequest request, FaultInjector.Fault fault) {
+            this.request = request;
+            this.fault = fault;
+        }
+
+        @Override
+        public HttpExecuteResponse call() throws IOException {
+            try {
+                if (aborted.await(fault.getLatencyNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new IOException("Request aborted");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Request interrupted", e);
+            }
+            if (Objects.nonNull(fault.getErrorCode())) {
+                return errorResponse(fault);
+            }
+            forwarded = httpClient.prepareRequest(request);
+            return forwarded.call();
+        }
+
+        @Override
+        public void abort() {
+            aborted.countDown();
+            ExecutableHttpRequest current = forwarded;
+            if (Objects.nonNull(current)) {
+                current.abort();
+            }
+        }
+    }
+}
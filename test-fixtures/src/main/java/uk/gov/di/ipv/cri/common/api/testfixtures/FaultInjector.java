@@ -0,0 +1,136 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides how long each request to a dependency takes and whether it is throttled or fails, as a
+ * degraded AWS service would. {@link FaultInjectingHttpClient} applies the decisions below the
+ * SDK.
+ *
+ * <p>Each request waits for a latency drawn from the {@link LatencyDistribution}, then is throttled
+ * with probability {@code throttleRate} or fails with a 500 with probability {@code errorRate}.
+ *
+ * <p>Draws come from one {@link Random} seeded by {@code seed}, so a single-threaded run repeats
+ * exactly. Concurrent callers share the sequence in whatever order they reach it.
+ */
+public final class FaultInjector {
+
+    static final String THROTTLING_ERROR_CODE = "ThrottlingException";
+    static final String INTERNAL_ERROR_CODE = "InternalFailure";
+
+    private final Random random;
+    private final LatencyDistribution latency;
+    private final double throttleRate;
+    private final double errorRate;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private FaultInjector(Builder builder) {
+        this.random = new Random(builder.seed);
+        this.latency = builder.latency;
+        this.throttleRate = builder.throttleRate;
+        this.errorRate = builder.errorRate;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Draws the latency and outcome of the next request. */
+    Fault next() {
+        calls.incrementAndGet();
+        long latencyNanos;
+        double roll;
+        synchronized (random) {
+            latencyNanos = Math.max(0, latency.sampleNanos(random));
+            roll = random.nextDouble();
+        }
+        if (roll < throttleRate) {
+            throttled.incrementAndGet();
+            return new Fault(latencyNanos, 400, THROTTLING_ERROR_CODE);
+        }
+        if (roll < throttleRate + errorRate) {
+            failed.incrementAndGet();
+            return new Fault(latencyNanos, 500, INTERNAL_ERROR_CODE);
+        }
+        return new Fault(latencyNanos, 0, null);
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    static final class Fault {
+        private final long latencyNanos;
+        private final int statusCode;
+        private final String errorCode;
+
+        private Fault(long latencyNanos, int statusCode, String errorCode) {
+            this.latencyNanos = latencyNanos;
+            this.statusCode = statusCode;
+            this.errorCode = errorCode;
+        }
+
+        long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        int getStatusCode() {
+            return statusCode;
+        }
+
+        /** The AWS error code to answer with, or {@code null} when the request succeeds. */
+        String getErrorCode() {
+            return errorCode;
+        }
+    }
+
+    public static final class Builder {
+        private long seed = 1;
+        private LatencyDistribution latency = LatencyDistribution.none();
+        private double throttleRate;
+        private double errorRate;
+
+        private Builder() {}
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder latency(LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public Builder throttleRate(double throttleRate) {
+            this.throttleRate = throttleRate;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public FaultInjector build() {
+            if (throttleRate < 0 || errorRate < 0 || throttleRate + errorRate > 1) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Expected rates between 0 and 1 in total, got %s and %s",
+                                throttleRate, errorRate));
+            }
+            return new FaultInjector(this);
+        }
+    }
+}
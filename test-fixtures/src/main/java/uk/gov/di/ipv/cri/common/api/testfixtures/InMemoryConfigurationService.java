@@ -0,0 +1,80 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import uk.gov.di.ipv.cri.common.library.service.ConfigurationService;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Serves configuration from memory, so handlers under test never call Parameter Store. */
+public class InMemoryConfigurationService extends ConfigurationService {
+
+    public static final long SESSION_TTL_SECONDS = 3600;
+    public static final long AUTHORIZATION_CODE_TTL_SECONDS = 600;
+    public static final long BEARER_ACCESS_TOKEN_TTL_SECONDS = 3600;
+    public static final String VERIFIABLE_CREDENTIAL_ISSUER = "https://review-c.account.gov.uk";
+    public static final String SQS_AUDIT_EVENT_QUEUE_URL =
+            "https://sqs.eu-west-2.amazonaws.com/000000000000/audit-events";
+    public static final String SQS_AUDIT_EVENT_PREFIX = "IPV_COMMON_CRI";
+
+    private final Map<String, Map<String, String>> parametersByPath = new ConcurrentHashMap<>();
+    private volatile String kmsEncryptionKeyId;
+
+    public InMemoryConfigurationService() {
+        super(null, null);
+    }
+
+    public InMemoryConfigurationService withParametersForPath(
+            String path, Map<String, String> parameters) {
+        parametersByPath.put(path, Map.copyOf(parameters));
+        return this;
+    }
+
+    public InMemoryConfigurationService withKmsEncryptionKeyId(String kmsEncryptionKeyId) {
+        this.kmsEncryptionKeyId = kmsEncryptionKeyId;
+        return this;
+    }
+
+    @Override
+    public Map<String, String> getParametersForPath(String path) {
+        return parametersByPath.getOrDefault(path, Map.of());
+    }
+
+    @Override
+    public String getKmsEncryptionKeyId() {
+        return kmsEncryptionKeyId;
+    }
+
+    @Override
+    public long getSessionExpirationEpoch() {
+        return Instant.now().plus(SESSION_TTL_SECONDS, ChronoUnit.SECONDS).getEpochSecond();
+    }
+
+    @Override
+    public long getAuthorizationCodeExpirationEpoch() {
+        return Instant.now()
+                .plus(AUTHORIZATION_CODE_TTL_SECONDS, ChronoUnit.SECONDS)
+                .getEpochSecond();
+    }
+
+    @Override
+    public long getBearerAccessTokenTtl() {
+        return BEARER_ACCESS_TOKEN_TTL_SECONDS;
+    }
+
+    @Override
+    public String getVerifiableCredentialIssuer() {
+        return VERIFIABLE_CREDENTIAL_ISSUER;
+    }
+
+    @Override
+    public String getSqsAuditEventQueueUrl() {
+        return SQS_AUDIT_EVENT_QUEUE_URL;
+    }
+
+    @Override
+    public String getSqsAuditEventPrefix() {
+        return SQS_AUDIT_EVENT_PREFIX;
+    }
+}
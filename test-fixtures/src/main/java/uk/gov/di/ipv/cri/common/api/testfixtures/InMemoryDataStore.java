@@ -0,0 +1,149 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.IndexMetadata;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import uk.gov.di.ipv.cri.common.library.persistence.DataStore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A thread-safe {@link DataStore} held in memory. Items are kept as attribute maps through the
+ * table schema, so callers never share an item instance with the store and pay the marshalling
+ * cost they would against DynamoDB. Every index in the schema's metadata can be queried, so the
+ * session store answers the authorization code and access token lookups.
+ */
+public class InMemoryDataStore<T> extends DataStore<T> {
+
+    private final TableSchema<T> tableSchema;
+    private final String partitionKey;
+    private final Map<String, String> indexPartitionKeys;
+    private final ConcurrentMap<String, Map<String, AttributeValue>> items =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Set<String>>> indexes =
+            new ConcurrentHashMap<>();
+
+    public InMemoryDataStore(TableSchema<T> tableSchema) {
+        super("in-memory", tableSchema.itemType().rawClass(), null);
+        this.tableSchema = tableSchema;
+        this.partitionKey = tableSchema.tableMetadata().primaryPartitionKey();
+        this.indexPartitionKeys =
+                tableSchema.tableMetadata().indices().stream()
+                        .map(IndexMetadata::name)
+                        .filter(name -> !TableMetadata.primaryIndexName().equals(name))
+                        .collect(
+                                Collectors.toMap(
+                                        name -> name,
+                                        name ->
+                                                tableSchema
+                                                        .tableMetadata()
+                                                        .indexPartitionKey(name)));
+    }
+
+    @Override
+    public void create(T item) {
+        put(tableSchema.itemToMap(item, true));
+    }
+
+    @Override
+    public T getItem(String partitionValue) {
+        Map<String, AttributeValue> item = items.get(partitionValue);
+        return Objects.isNull(item) ? null : tableSchema.mapToItem(item);
+    }
+
+    @Override
+    public List<T> getItemByIndex(String indexName, String value) {
+        return indexes.getOrDefault(indexName, new ConcurrentHashMap<>())
+                .getOrDefault(value, Set.of())
+                .stream()
+                .map(this::getItem)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public T update(T item) {
+        Map<String, AttributeValue> attributes = tableSchema.itemToMap(item, true);
+        put(attributes);
+        return tableSchema.mapToItem(attributes);
+    }
+
+    /**
+     * Applies {@code update} to the stored item if it meets {@code condition}, as one atomic step.
+     *
+     * @throws ConditionalCheckFailedException if there is no such item or it fails the condition
+     */
+    public void updateIf(String partitionValue, Predicate<T> condition, Consumer<T> update) {
+        items.compute(
+                partitionValue,
+                (key, current) -> {
+                    T item = Objects.isNull(current) ? null : tableSchema.mapToItem(current);
+                    if (Objects.isNull(item) || !condition.test(item)) {
+                        throw ConditionalCheckFailedException.builder()
+                                .message("The conditional request failed")
+                                .build();
+                    }
+                    update.accept(item);
+                    Map<String, AttributeValue> updated = tableSchema.itemToMap(item, true);
+                    reindex(key, current, updated);
+                    return updated;
+                });
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    private void put(Map<String, AttributeValue> attributes) {
+        String key = attributes.get(partitionKey).s();
+        items.compute(
+                key,
+                (k, current) -> {
+                    reindex(k, current, attributes);
+                    return attributes;
+                });
+    }
+
+    private void reindex(
+            String key, Map<String, AttributeValue> previous, Map<String, AttributeValue> next) {
+        indexPartitionKeys.forEach(
+                (indexName, attributeName) -> {
+                    ConcurrentMap<String, Set<String>> index =
+                            indexes.computeIfAbsent(indexName, name -> new ConcurrentHashMap<>());
+                    String previousValue = indexValue(previous, attributeName);
+                    String nextValue = indexValue(next, attributeName);
+                    if (Objects.equals(previousValue, nextValue)) {
+                        return;
+                    }
+                    if (Objects.nonNull(previousValue)) {
+                        index.computeIfPresent(
+                                previousValue,
+                                (value, keys) -> {
+                                    keys.remove(key);
+                                    return keys.isEmpty() ? null : keys;
+                                });
+                    }
+                    if (Objects.nonNull(nextValue)) {
+                        index.computeIfAbsent(nextValue, value -> ConcurrentHashMap.newKeySet())
+                                .add(key);
+                    }
+                });
+    }
+
+    private static String indexValue(Map<String, AttributeValue> item, String attributeName) {
+        if (Objects.isNull(item) || !item.containsKey(attributeName)) {
+            return null;
+        }
+        return item.get(attributeName).s();
+    }
+}
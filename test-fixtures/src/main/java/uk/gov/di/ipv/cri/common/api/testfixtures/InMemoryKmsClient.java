@@ -0,0 +1,103 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.DecryptRequest;
+import software.amazon.awssdk.services.kms.model.DecryptResponse;
+import software.amazon.awssdk.services.kms.model.EncryptionAlgorithmSpec;
+import software.amazon.awssdk.services.kms.model.InvalidCiphertextException;
+import software.amazon.awssdk.services.kms.model.InvalidKeyUsageException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers {@code Decrypt} with RSA key pairs held in memory, as KMS does for the key that
+ * decrypts session request JWEs. Keys are created with {@link #createKey()}, and callers encrypt
+ * to the public key the way the core back-end encrypts to the CRI's published key.
+ */
+public class InMemoryKmsClient implements KmsClient {
+
+    private final Map<String, KeyPair> keyPairs = new ConcurrentHashMap<>();
+
+    /** Creates a 2048 bit RSA key and returns its key id. */
+    public String createKey() {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            String keyId = UUID.randomUUID().toString();
+            keyPairs.put(keyId, keyPairGenerator.generateKeyPair());
+            return keyId;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public KeyPair getKeyPair(String keyId) {
+        KeyPair keyPair = keyPairs.get(keyId);
+        if (Objects.isNull(keyPair)) {
+            throw NotFoundException.builder().message("Key '" + keyId + "' not found").build();
+        }
+        return keyPair;
+    }
+
+    @Override
+    public DecryptResponse decrypt(DecryptRequest decryptRequest) {
+        KeyPair keyPair = getKeyPair(decryptRequest.keyId());
+        EncryptionAlgorithmSpec algorithm = decryptRequest.encryptionAlgorithm();
+        String digest;
+        if (EncryptionAlgorithmSpec.RSAES_OAEP_SHA_256.equals(algorithm)) {
+            digest = "SHA-256";
+        } else if (EncryptionAlgorithmSpec.RSAES_OAEP_SHA_1.equals(algorithm)) {
+            digest = "SHA-1";
+        } else {
+            throw InvalidKeyUsageException.builder()
+                    .message("Unsupported encryption algorithm " + algorithm)
+                    .build();
+        }
+        try {
+            Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPPadding");
+            cipher.init(
+                    Cipher.DECRYPT_MODE,
+                    keyPair.getPrivate(),
+                    new OAEPParameterSpec(
+                            digest,
+                            "MGF1",
+                            "SHA-256".equals(digest)
+                                    ? MGF1ParameterSpec.SHA256
+                                    : MGF1ParameterSpec.SHA1,
+                            PSource.PSpecified.DEFAULT));
+            return DecryptResponse.builder()
+                    .keyId(decryptRequest.keyId())
+                    .encryptionAlgorithm(algorithm)
+                    .plaintext(
+                            SdkBytes.fromByteArray(
+                                    cipher.doFinal(decryptRequest.ciphertextBlob().asByteArray())))
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw InvalidCiphertextException.builder().message(e.getMessage()).cause(e).build();
+        }
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+}
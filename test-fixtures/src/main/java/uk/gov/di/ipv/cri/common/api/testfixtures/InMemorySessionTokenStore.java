@@ -0,0 +1,32 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import uk.gov.di.ipv.cri.common.api.persistence.SessionTokenStore;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+/** Applies the access token update to an {@link InMemoryDataStore} under the same condition. */
+public class InMemorySessionTokenStore extends SessionTokenStore {
+
+    private final InMemoryDataStore<SessionItem> sessionDataStore;
+
+    public InMemorySessionTokenStore(InMemoryDataStore<SessionItem> sessionDataStore) {
+        super(null);
+        this.sessionDataStore = sessionDataStore;
+    }
+
+    /**
+     * @throws ConditionalCheckFailedException if the session no longer holds {@code
+     *     authorizationCode}
+     */
+    @Override
+    public void saveAccessToken(SessionItem sessionItem, String authorizationCode) {
+        sessionDataStore.updateIf(
+                sessionItem.getSessionId().toString(),
+                stored -> authorizationCode.equals(stored.getAuthorizationCode()),
+                stored -> {
+                    stored.setAccessToken(sessionItem.getAccessToken());
+                    stored.setAccessTokenExpiryDate(sessionItem.getAccessTokenExpiryDate());
+                    stored.setAuthorizationCode(null);
+                });
+    }
+}
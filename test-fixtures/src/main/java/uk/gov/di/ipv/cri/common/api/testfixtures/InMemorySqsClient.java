@@ -0,0 +1,89 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the audit events sent to SQS. Only the most recent {@code capacity} message bodies are
+ * kept, so a long load test does not grow the heap, but every message is counted.
+ */
+public class InMemorySqsClient implements SqsClient {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final ConcurrentLinkedDeque<String> messageBodies = new ConcurrentLinkedDeque<>();
+    private final AtomicLong messageCount = new AtomicLong();
+
+    public InMemorySqsClient() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InMemorySqsClient(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public SendMessageResponse sendMessage(SendMessageRequest sendMessageRequest) {
+        add(sendMessageRequest.messageBody());
+        return SendMessageResponse.builder().messageId(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public SendMessageBatchResponse sendMessageBatch(
+            SendMessageBatchRequest sendMessageBatchRequest) {
+        List<SendMessageBatchResultEntry> successful = new ArrayList<>();
+        for (SendMessageBatchRequestEntry entry : sendMessageBatchRequest.entries()) {
+            add(entry.messageBody());
+            successful.add(
+                    SendMessageBatchResultEntry.builder()
+                            .id(entry.id())
+                            .messageId(UUID.randomUUID().toString())
+                            .build());
+        }
+        return SendMessageBatchResponse.builder().successful(successful).build();
+    }
+
+    /** Returns the retained message bodies, oldest first. */
+    public List<String> getMessageBodies() {
+        return messageBodies.stream().collect(Collectors.toList());
+    }
+
+    public long getMessageCount() {
+        return messageCount.get();
+    }
+
+    public void clear() {
+        messageBodies.clear();
+        messageCount.set(0);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+    private void add(String messageBody) {
+        messageBodies.addLast(messageBody);
+        if (messageCount.incrementAndGet() > capacity) {
+            messageBodies.pollFirst();
+        }
+    }
+}
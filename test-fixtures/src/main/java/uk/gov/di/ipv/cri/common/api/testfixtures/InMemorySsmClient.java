@@ -0,0 +1,109 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import software.amazon.awssdk.services.ssm.SsmClient;
+import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
+import software.amazon.awssdk.services.ssm.model.GetParameterResponse;
+import software.amazon.awssdk.services.ssm.model.GetParametersByPathRequest;
+import software.amazon.awssdk.services.ssm.model.GetParametersByPathResponse;
+import software.amazon.awssdk.services.ssm.model.GetParametersRequest;
+import software.amazon.awssdk.services.ssm.model.GetParametersResponse;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+import software.amazon.awssdk.services.ssm.model.ParameterType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * A Parameter Store held in memory, for code that reads parameters through an SSM client or a
+ * Powertools provider built on one. Path reads return every matching parameter in one page.
+ */
+public class InMemorySsmClient implements SsmClient {
+
+    private final Map<String, String> parameters = new ConcurrentSkipListMap<>();
+
+    public InMemorySsmClient putParameter(String name, String value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    /** Stores each entry of {@code values} under {@code path}, as a path read would return it. */
+    public InMemorySsmClient putParameters(String path, Map<String, String> values) {
+        String prefix = path.endsWith("/") ? path : path + "/";
+        values.forEach((name, value) -> parameters.put(prefix + name, value));
+        return this;
+    }
+
+    @Override
+    public GetParameterResponse getParameter(GetParameterRequest getParameterRequest) {
+        Parameter parameter = toParameter(getParameterRequest.name());
+        if (Objects.isNull(parameter)) {
+            throw ParameterNotFoundException.builder()
+                    .message("Parameter " + getParameterRequest.name() + " not found")
+                    .build();
+        }
+        return GetParameterResponse.builder().parameter(parameter).build();
+    }
+
+    @Override
+    public GetParametersResponse getParameters(GetParametersRequest getParametersRequest) {
+        List<Parameter> found = new ArrayList<>();
+        List<String> invalid = new ArrayList<>();
+        for (String name : getParametersRequest.names()) {
+            Parameter parameter = toParameter(name);
+            if (Objects.isNull(parameter)) {
+                invalid.add(name);
+            } else {
+                found.add(parameter);
+            }
+        }
+        return GetParametersResponse.builder().parameters(found).invalidParameters(invalid).build();
+    }
+
+    @Override
+    public GetParametersByPathResponse getParametersByPath(
+            GetParametersByPathRequest getParametersByPathRequest) {
+        String path = getParametersByPathRequest.path();
+        String prefix = path.endsWith("/") ? path : path + "/";
+        boolean recursive = Boolean.TRUE.equals(getParametersByPathRequest.recursive());
+        return GetParametersByPathResponse.builder()
+                .parameters(
+                        parameters.keySet().stream()
+                                .filter(name -> name.startsWith(prefix))
+                                .filter(
+                                        name ->
+                                                recursive
+                                                        || name.indexOf('/', prefix.length())
+                                                                < 0)
+                                .map(this::toParameter)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+    private Parameter toParameter(String name) {
+        String value = parameters.get(name);
+        return Objects.isNull(value)
+                ? null
+                : Parameter.builder()
+                        .name(name)
+                        .value(value)
+                        .type(ParameterType.STRING)
+                        .version(1L)
+                        .build();
+    }
+}
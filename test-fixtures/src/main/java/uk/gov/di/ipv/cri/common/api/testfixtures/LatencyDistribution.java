@@ -0,0 +1,38 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import java.time.Duration;
+import java.util.Random;
+
+/** How long an injected dependency call takes. */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    long sampleNanos(Random random);
+
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    /**
+     * Latencies whose logarithm is normally distributed around {@code median}. A {@code sigma} of
+     * 0.5 puts the 99th percentile at about 3.2 times the median.
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double medianNanos = median.toNanos();
+        return random -> (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    /** Draws from {@code slow} for a {@code slowRatio} share of calls, else from {@code fast}. */
+    static LatencyDistribution bimodal(
+            LatencyDistribution fast, LatencyDistribution slow, double slowRatio) {
+        return random ->
+                random.nextDouble() < slowRatio
+                        ? slow.sampleNanos(random)
+                        : fast.sampleNanos(random);
+    }
+}
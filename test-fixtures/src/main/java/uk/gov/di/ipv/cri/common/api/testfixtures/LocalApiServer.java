@@ -0,0 +1,351 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves Lambda handlers over HTTP the way API Gateway invokes them, so a load generator can drive
+ * several handlers in one long-lived process.
+ *
+ * <p>Each route maps one path to one handler. A request is translated into an {@link
+ * APIGatewayProxyRequestEvent} with lower case header names and decoded query string parameters,
+ * and handled with a fresh {@link LocalContext}. A handler that throws or returns nothing is
+ * answered with a 502, as API Gateway answers a failed Lambda invocation. Requests are handled on
+ * a fixed pool of platform threads, or on a virtual thread each when running on Java 21 or later.
+ * Per-request logging records the method, path, status and duration, never the body.
+ */
+public class LocalApiServer implements AutoCloseable {
+
+    public static final int DEFAULT_THREADS = 64;
+    public static final int DEFAULT_BACKLOG = 1024;
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String INTERNAL_SERVER_ERROR = "{\"message\":\"Internal server error\"}";
+    private static final String NOT_FOUND = "{\"message\":\"Not Found\"}";
+
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final boolean requestLogging;
+    private final Duration timeout;
+
+    private LocalApiServer(Builder builder) throws IOException {
+        this.requestLogging = builder.requestLogging;
+        this.timeout = builder.timeout;
+        this.executor =
+                builder.virtualThreads
+                        ? newVirtualThreadPerTaskExecutor()
+                        : Executors.newFixedThreadPool(builder.threads, new WorkerThreadFactory());
+        this.httpServer =
+                HttpServer.create(new InetSocketAddress(builder.port), builder.backlog);
+        this.httpServer.setExecutor(executor);
+        builder.routes.forEach(
+                (path, route) ->
+                        httpServer.createContext(
+                                path, exchange -> handle(path, route, exchange)));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public LocalApiServer start() {
+        httpServer.start();
+        LOGGER.info("Listening on {}", getBaseUri());
+        return this;
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    public URI getBaseUri() {
+        return URI.create("http://localhost:" + getPort());
+    }
+
+    /** Stops accepting requests and waits a few seconds for those in flight to finish. */
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(String path, Route route, HttpExchange exchange) throws IOException {
+        long startNanos = System.nanoTime();
+        int statusCode;
+        try {
+            if (!path.equals(exchange.getRequestURI().getPath())) {
+                statusCode = 404;
+                send(exchange, statusCode, Map.of(), NOT_FOUND.getBytes(StandardCharsets.UTF_8));
+            } else {
+                statusCode = invoke(route, exchange);
+            }
+        } finally {
+            exchange.close();
+        }
+        if (requestLogging) {
+            LOGGER.info(
+                    "{} {} {} {}ms",
+                    exchange.getRequestMethod(),
+                    exchange.getRequestURI().getPath(),
+                    statusCode,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    private int invoke(Route route, HttpExchange exchange) throws IOException {
+        APIGatewayProxyResponseEvent response;
+        try {
+            response =
+                    route.handler.handleRequest(
+                            translateRequest(exchange), new LocalContext(route.name, timeout));
+        } catch (RuntimeException e) {
+            LOGGER.error("Handler for {} failed", exchange.getRequestURI().getPath(), e);
+            response = null;
+        }
+        if (Objects.isNull(response) || Objects.isNull(response.getStatusCode())) {
+            send(exchange, 502, Map.of(), INTERNAL_SERVER_ERROR.getBytes(StandardCharsets.UTF_8));
+            return 502;
+        }
+
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (Objects.nonNull(response.getMultiValueHeaders())) {
+            headers.putAll(response.getMultiValueHeaders());
+        }
+        if (Objects.nonNull(response.getHeaders())) {
+            response.getHeaders().forEach((name, value) -> headers.put(name, List.of(value)));
+        }
+        String body = response.getBody();
+        byte[] bodyBytes;
+        if (Objects.isNull(body)) {
+            bodyBytes = new byte[0];
+        } else if (Boolean.TRUE.equals(response.getIsBase64Encoded())) {
+            bodyBytes = Base64.getDecoder().decode(body);
+        } else {
+            bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        }
+        send(exchange, response.getStatusCode(), headers, bodyBytes);
+        return response.getStatusCode();
+    }
+
+    static APIGatewayProxyRequestEvent translateRequest(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        String path = exchange.getRequestURI().getPath();
+
+        Map<String, String> headers = new HashMap<>();
+        Map<String, List<String>> multiValueHeaders = new HashMap<>();
+        exchange.getRequestHeaders()
+                .forEach(
+                        (name, values) -> {
+                            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+                            headers.put(lowerCaseName, String.join(", ", values));
+                            multiValueHeaders.put(lowerCaseName, List.copyOf(values));
+                        });
+
+        Map<String, List<String>> queryStringParameters =
+                parseQueryString(exchange.getRequestURI().getRawQuery());
+        Map<String, String> singleValueQueryStringParameters = new HashMap<>();
+        queryStringParameters.forEach(
+                (name, values) ->
+                        singleValueQueryStringParameters.put(name, values.get(values.size() - 1)));
+
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(exchange.getRequestMethod())
+                .withPath(path)
+                .withResource(path)
+                .withHeaders(headers)
+                .withMultiValueHeaders(multiValueHeaders)
+                .withQueryStringParameters(
+                        queryStringParameters.isEmpty() ? null : singleValueQueryStringParameters)
+                .withMultiValueQueryStringParameters(
+                        queryStringParameters.isEmpty() ? null : queryStringParameters)
+                .withBody(body.length == 0 ? null : new String(body, StandardCharsets.UTF_8))
+                .withIsBase64Encoded(false)
+                .withRequestContext(
+                        new APIGatewayProxyRequestEvent.ProxyRequestContext()
+                                .withRequestId(UUID.randomUUID().toString())
+                                .withHttpMethod(exchange.getRequestMethod())
+                                .withPath(path)
+                                .withResourcePath(path)
+                                .withStage("local")
+                                .withIdentity(
+                                        new APIGatewayProxyRequestEvent.RequestIdentity()
+                                                .withSourceIp(
+                                                        exchange.getRemoteAddress()
+                                                                .getAddress()
+                                                                .getHostAddress())));
+    }
+
+    static Map<String, List<String>> parseQueryString(String rawQuery) {
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        if (Objects.isNull(rawQuery) || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters
+                    .computeIfAbsent(
+                            URLDecoder.decode(name, StandardCharsets.UTF_8),
+                            key -> new ArrayList<>())
+                    .add(URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void send(
+            HttpExchange exchange,
+            int statusCode,
+            Map<String, List<String>> headers,
+            byte[] body)
+            throws IOException {
+        Headers responseHeaders = exchange.getResponseHeaders();
+        headers.forEach((name, values) -> responseHeaders.put(name, new ArrayList<>(values)));
+        if (!responseHeaders.containsKey("Content-Type")) {
+            responseHeaders.set("Content-Type", "application/json");
+        }
+        exchange.sendResponseHeaders(statusCode, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService)
+                    Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later", e);
+        }
+    }
+
+    private static final class Route {
+        private final String name;
+        private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>
+                handler;
+
+        private Route(
+                String name,
+                RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>
+                        handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "local-api-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    public static final class Builder {
+        private final Map<String, Route> routes = new LinkedHashMap<>();
+        private int port;
+        private int threads = DEFAULT_THREADS;
+        private int backlog = DEFAULT_BACKLOG;
+        private boolean virtualThreads;
+        private boolean requestLogging;
+        private Duration timeout = LocalContext.DEFAULT_TIMEOUT;
+
+        private Builder() {}
+
+        /** Listens on {@code port}, or on any free port when it is {@code 0}, the default. */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Expected at least one thread, got " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /** The number of connections the server queues while every worker is busy. */
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /** Handles each request on its own virtual thread. Needs Java 21 or later. */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        public Builder requestLogging(boolean requestLogging) {
+            this.requestLogging = requestLogging;
+            return this;
+        }
+
+        /** The function timeout each invocation's {@link Context} counts down from. */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Serves {@code path} with {@code handler}, named {@code functionName} in its context.
+         */
+        public Builder route(
+                String path,
+                String functionName,
+                RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>
+                        handler) {
+            routes.put(path, new Route(functionName, handler));
+            return this;
+        }
+
+        public LocalApiServer build() throws IOException {
+            return new LocalApiServer(this);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@ExtendWith(AllocationBudgetExtension.class)
+class AllocationMeterTest {
+    private static final int ARRAY_BYTES = 64 * 1024;
+
+    private volatile Object sink;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(AllocationMeter.isSupported());
+    }
+
+    @Test
+    void shouldMeasureBytesAllocatedByCall() {
+        long bytes = new AllocationMeter(10, 5).measure(() -> sink = new byte[ARRAY_BYTES]);
+
+        assertTrue(bytes >= ARRAY_BYTES, bytes + " bytes");
+        assertTrue(bytes < 2 * ARRAY_BYTES, bytes + " bytes");
+    }
+
+    @Test
+    void shouldNotCountWhatSetUpAllocates() {
+        long bytes =
+                new AllocationMeter(10, 5)
+                        .measure(() -> new byte[ARRAY_BYTES], array -> sink = array);
+
+        assertTrue(bytes < ARRAY_BYTES, bytes + " bytes");
+    }
+
+    @Test
+    void shouldWarmUpBeforeMeasuring() {
+        List<Integer> calls = new ArrayList<>();
+
+        new AllocationMeter(3, 2).measure(() -> calls.add(calls.size()));
+
+        assertEquals(5, calls.size());
+    }
+
+    @Test
+    void shouldFailWhenOverBudget() {
+        AllocationMeter meter = new AllocationMeter(10, 5);
+        meter.measure(() -> sink = new byte[ARRAY_BYTES]);
+
+        AssertionFailedError error =
+                assertThrows(
+                        AssertionFailedError.class, () -> meter.assertWithinBudget("scenario", 32));
+        assertTrue(error.getMessage().startsWith("scenario allocated 64."), error.getMessage());
+    }
+
+    @Test
+    void shouldFailWhenNothingWasMeasured() {
+        assertThrows(
+                AssertionFailedError.class,
+                () -> new AllocationMeter().assertWithinBudget("scenario", 32));
+    }
+
+    @Test
+    @AllocationBudget(kilobytes = 96, warmupIterations = 10, iterations = 5)
+    void shouldPassWithinBudget(AllocationMeter meter) {
+        meter.measure(() -> sink = new byte[ARRAY_BYTES]);
+    }
+}
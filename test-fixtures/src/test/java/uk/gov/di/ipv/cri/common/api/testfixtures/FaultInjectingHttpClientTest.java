@@ -0,0 +1,167 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.retries.api.BackoffStrategy;
+import software.amazon.awssdk.retries.api.RetryStrategy;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import uk.gov.di.ipv.cri.common.api.util.RequestDeadline;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FaultInjectingHttpClientTest {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final GetItemRequest GET_ITEM_REQUEST =
+            GetItemRequest.builder()
+                    .tableName("session-table")
+                    .key(Map.of("sessionId", AttributeValue.fromS("session-id")))
+                    .build();
+
+    @Mock private Context mockContext;
+
+    private final EmptyItemHttpClient emptyItemHttpClient = new EmptyItemHttpClient();
+
+    @Test
+    void shouldPassRequestsThroughWhenNoFaultIsDrawn() {
+        FaultInjector faultInjector = FaultInjector.builder().build();
+
+        try (DynamoDbClient dynamoDbClient = dynamoDbClient(faultInjector)) {
+            assertFalse(dynamoDbClient.getItem(GET_ITEM_REQUEST).hasItem());
+        }
+        assertEquals(1, emptyItemHttpClient.requests.get());
+    }
+
+    @Test
+    void shouldLetTheSdkRetryInjectedThrottles() {
+        FaultInjector faultInjector = FaultInjector.builder().throttleRate(1).build();
+
+        DynamoDbException exception;
+        try (DynamoDbClient dynamoDbClient = dynamoDbClient(faultInjector)) {
+            exception =
+                    assertThrows(
+                            DynamoDbException.class,
+                            () -> dynamoDbClient.getItem(GET_ITEM_REQUEST));
+        }
+
+        assertTrue(exception.isThrottlingException());
+        assertEquals(FaultInjector.THROTTLING_ERROR_CODE, exception.awsErrorDetails().errorCode());
+        // Every attempt the retry strategy makes reaches the HTTP client
+        assertEquals(MAX_ATTEMPTS, faultInjector.getThrottled());
+        assertEquals(0, emptyItemHttpClient.requests.get());
+    }
+
+    @Test
+    void shouldLetTheSdkTimeOutAtTheRequestDeadline() {
+        // DeadlineInterceptor is registered globally by the common module and turns the 300 ms
+        // left before the deadline into the call's timeouts
+        when(mockContext.getRemainingTimeInMillis()).thenReturn(800);
+        FaultInjector faultInjector =
+                FaultInjector.builder()
+                        .latency(LatencyDistribution.fixed(Duration.ofSeconds(5)))
+                        .build();
+
+        long startNanos = System.nanoTime();
+        try (DynamoDbClient dynamoDbClient = dynamoDbClient(faultInjector)) {
+            assertThrows(
+                    ApiCallTimeoutException.class,
+                    () ->
+                            RequestDeadline.runWithin(
+                                    mockContext, () -> dynamoDbClient.getItem(GET_ITEM_REQUEST)));
+        }
+
+        assertTrue(System.nanoTime() - startNanos < Duration.ofSeconds(1).toNanos());
+        assertEquals(0, emptyItemHttpClient.requests.get());
+    }
+
+    private DynamoDbClient dynamoDbClient(FaultInjector faultInjector) {
+        return DynamoDbClient.builder()
+                .region(Region.EU_WEST_2)
+                .endpointOverride(URI.create("http://localhost:8000"))
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create("access-key", "secret-key")))
+                .httpClient(new FaultInjectingHttpClient(emptyItemHttpClient, faultInjector))
+                .overrideConfiguration(
+                        overrideConfiguration ->
+                                overrideConfiguration.retryStrategy(retryImmediately()))
+                .build();
+    }
+
+    private static RetryStrategy retryImmediately() {
+        return AwsRetryStrategy.standardRetryStrategy()
+                .toBuilder()
+                .maxAttempts(MAX_ATTEMPTS)
+                .backoffStrategy(BackoffStrategy.retryImmediately())
+                .throttlingBackoffStrategy(BackoffStrategy.retryImmediately())
+                .build();
+    }
+
+    // Answers every request as DynamoDB answers a GetItem that finds nothing
+    private static final class EmptyItemHttpClient implements SdkHttpClient {
+        private final AtomicInteger requests = new AtomicInteger();
+
+        @Override
+        public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+            return new ExecutableHttpRequest() {
+                @Override
+                public HttpExecuteResponse call() {
+                    requests.incrementAndGet();
+                    return emptyItemResponse();
+                }
+
+                @Override
+                public void abort() {}
+            };
+        }
+
+        @Override
+        public String clientName() {
+            return "EmptyItem";
+        }
+
+        private static HttpExecuteResponse emptyItemResponse() {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            return HttpExecuteResponse.builder()
+                    .response(
+                            SdkHttpResponse.builder()
+                                    .statusCode(200)
+                                    .putHeader("Content-Type", "application/x-amz-json-1.0")
+                                    .putHeader("Content-Length", String.valueOf(body.length))
+                                    .build())
+                    .responseBody(AbortableInputStream.create(new ByteArrayInputStream(body)))
+                    .build();
+        }
+
+        @Override
+        public void close() {}
+    }
+}
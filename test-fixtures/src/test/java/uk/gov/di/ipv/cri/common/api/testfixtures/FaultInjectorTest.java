@@ -0,0 +1,79 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FaultInjectorTest {
+
+    @Test
+    void shouldRepeatOutcomesForSameSeed() {
+        List<String> first = outcomes(faultInjector(42), 200);
+        List<String> second = outcomes(faultInjector(42), 200);
+
+        assertEquals(first, second);
+        assertTrue(first.contains("ThrottlingException"));
+        assertTrue(first.contains("InternalFailure"));
+        assertTrue(first.contains("ok"));
+    }
+
+    @Test
+    void shouldInjectFaultsAtConfiguredRates() {
+        FaultInjector faultInjector = faultInjector(7);
+
+        outcomes(faultInjector, 10_000);
+
+        assertEquals(10_000, faultInjector.getCalls());
+        assertEquals(2_000, faultInjector.getThrottled(), 200);
+        assertEquals(1_000, faultInjector.getFailed(), 150);
+    }
+
+    @Test
+    void shouldAnswerWithTheStatusCodesTheSdkClassifies() {
+        FaultInjector.Fault throttled = FaultInjector.builder().throttleRate(1).build().next();
+        FaultInjector.Fault failed = FaultInjector.builder().errorRate(1).build().next();
+
+        assertEquals(400, throttled.getStatusCode());
+        assertEquals(FaultInjector.THROTTLING_ERROR_CODE, throttled.getErrorCode());
+        assertEquals(500, failed.getStatusCode());
+        assertEquals(FaultInjector.INTERNAL_ERROR_CODE, failed.getErrorCode());
+    }
+
+    @Test
+    void shouldDrawLatencyForEveryRequest() {
+        FaultInjector faultInjector =
+                FaultInjector.builder()
+                        .latency(LatencyDistribution.fixed(Duration.ofMillis(40)))
+                        .errorRate(1)
+                        .build();
+
+        assertEquals(Duration.ofMillis(40).toNanos(), faultInjector.next().getLatencyNanos());
+    }
+
+    @Test
+    void shouldRejectRatesAboveOne() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> FaultInjector.builder().throttleRate(0.6).errorRate(0.6).build());
+    }
+
+    private static FaultInjector faultInjector(long seed) {
+        return FaultInjector.builder().seed(seed).throttleRate(0.2).errorRate(0.1).build();
+    }
+
+    private static List<String> outcomes(FaultInjector faultInjector, int calls) {
+        List<String> outcomes = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            String errorCode = faultInjector.next().getErrorCode();
+            outcomes.add(Objects.isNull(errorCode) ? "ok" : errorCode);
+        }
+        return outcomes;
+    }
+}
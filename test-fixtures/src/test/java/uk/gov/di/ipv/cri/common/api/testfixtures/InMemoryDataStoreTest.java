@@ -0,0 +1,84 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import uk.gov.di.ipv.cri.common.api.persistence.TableSchemaRegistry;
+import uk.gov.di.ipv.cri.common.library.persistence.item.SessionItem;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryDataStoreTest {
+    private final InMemoryDataStore<SessionItem> dataStore =
+            new InMemoryDataStore<>(TableSchemaRegistry.sessionItemSchema());
+
+    @Test
+    void shouldReturnCopyOfStoredItem() {
+        SessionItem sessionItem = sessionItem("auth-code");
+        dataStore.create(sessionItem);
+
+        SessionItem stored = dataStore.getItem(sessionItem.getSessionId().toString());
+
+        assertNotSame(sessionItem, stored);
+        assertEquals("auth-code", stored.getAuthorizationCode());
+        assertNull(dataStore.getItem(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void shouldFindItemsByIndexAfterUpdates() {
+        SessionItem sessionItem = sessionItem("auth-code");
+        dataStore.create(sessionItem);
+        sessionItem.setAuthorizationCode(null);
+        sessionItem.setAccessToken("access-token");
+        dataStore.update(sessionItem);
+
+        assertTrue(
+                dataStore
+                        .getItemByIndex(SessionItem.AUTHORIZATION_CODE_INDEX, "auth-code")
+                        .isEmpty());
+        List<SessionItem> found =
+                dataStore.getItemByIndex(SessionItem.ACCESS_TOKEN_INDEX, "access-token");
+        assertEquals(1, found.size());
+        assertEquals(sessionItem.getSessionId(), found.get(0).getSessionId());
+    }
+
+    @Test
+    void shouldUpdateOnlyWhenConditionHolds() {
+        SessionItem sessionItem = sessionItem("auth-code");
+        dataStore.create(sessionItem);
+        String sessionId = sessionItem.getSessionId().toString();
+
+        dataStore.updateIf(
+                sessionId,
+                stored -> "auth-code".equals(stored.getAuthorizationCode()),
+                stored -> stored.setAuthorizationCode(null));
+
+        assertNull(dataStore.getItem(sessionId).getAuthorizationCode());
+        assertThrows(
+                ConditionalCheckFailedException.class,
+                () ->
+                        dataStore.updateIf(
+                                sessionId,
+                                stored -> "auth-code".equals(stored.getAuthorizationCode()),
+                                stored -> stored.setAuthorizationCode("another-code")));
+        assertThrows(
+                ConditionalCheckFailedException.class,
+                () ->
+                        dataStore.updateIf(
+                                UUID.randomUUID().toString(), stored -> true, stored -> {}));
+    }
+
+    private static SessionItem sessionItem(String authorizationCode) {
+        SessionItem sessionItem = new SessionItem();
+        sessionItem.setSessionId(UUID.randomUUID());
+        sessionItem.setClientId("ipv-core");
+        sessionItem.setAuthorizationCode(authorizationCode);
+        return sessionItem;
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.kms.model.DecryptRequest;
+import software.amazon.awssdk.services.kms.model.EncryptionAlgorithmSpec;
+import software.amazon.awssdk.services.kms.model.InvalidCiphertextException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.spec.MGF1ParameterSpec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemoryKmsClientTest {
+    private final InMemoryKmsClient kmsClient = new InMemoryKmsClient();
+
+    @Test
+    void shouldDecryptWhatWasEncryptedToKey() throws GeneralSecurityException {
+        String keyId = kmsClient.createKey();
+        Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPPadding");
+        cipher.init(
+                Cipher.ENCRYPT_MODE,
+                kmsClient.getKeyPair(keyId).getPublic(),
+                new OAEPParameterSpec(
+                        "SHA-256", "MGF1", MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT));
+        byte[] ciphertext = cipher.doFinal("content key".getBytes(StandardCharsets.UTF_8));
+
+        byte[] plaintext =
+                kmsClient.decrypt(decryptRequest(keyId, ciphertext)).plaintext().asByteArray();
+
+        assertEquals("content key", new String(plaintext, StandardCharsets.UTF_8));
+        assertThrows(
+                InvalidCiphertextException.class,
+                () -> kmsClient.decrypt(decryptRequest(keyId, new byte[256])));
+    }
+
+    @Test
+    void shouldRejectUnknownKey() {
+        assertThrows(
+                NotFoundException.class,
+                () -> kmsClient.decrypt(decryptRequest("unknown-key", new byte[256])));
+    }
+
+    private static DecryptRequest decryptRequest(String keyId, byte[] ciphertext) {
+        return DecryptRequest.builder()
+                .keyId(keyId)
+                .encryptionAlgorithm(EncryptionAlgorithmSpec.RSAES_OAEP_SHA_256)
+                .ciphertextBlob(SdkBytes.fromByteArray(ciphertext))
+                .build();
+    }
+}
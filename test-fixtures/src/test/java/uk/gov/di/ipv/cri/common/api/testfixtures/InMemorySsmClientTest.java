@@ -0,0 +1,66 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.ssm.model.GetParameterRequest;
+import software.amazon.awssdk.services.ssm.model.GetParametersByPathRequest;
+import software.amazon.awssdk.services.ssm.model.Parameter;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemorySsmClientTest {
+    private final InMemorySsmClient ssmClient =
+            new InMemorySsmClient()
+                    .putParameters(
+                            "/stack/clients/ipv-core/jwtAuthentication",
+                            Map.of("redirectUri", "https://example.com", "issuer", "ipv-core"))
+                    .putParameter("/stack/clients/ipv-core/jwtAuthentication/keys/current", "k1")
+                    .putParameter("/stack/SessionTtl", "3600");
+
+    @Test
+    void shouldReadSingleParameter() {
+        assertEquals(
+                "3600",
+                ssmClient
+                        .getParameter(
+                                GetParameterRequest.builder().name("/stack/SessionTtl").build())
+                        .parameter()
+                        .value());
+        assertThrows(
+                ParameterNotFoundException.class,
+                () -> ssmClient.getParameter(GetParameterRequest.builder().name("/x").build()));
+    }
+
+    @Test
+    void shouldReadPathOneLevelUnlessRecursive() {
+        assertEquals(
+                List.of(
+                        "/stack/clients/ipv-core/jwtAuthentication/issuer",
+                        "/stack/clients/ipv-core/jwtAuthentication/redirectUri"),
+                readPath(false));
+        assertEquals(
+                List.of(
+                        "/stack/clients/ipv-core/jwtAuthentication/issuer",
+                        "/stack/clients/ipv-core/jwtAuthentication/keys/current",
+                        "/stack/clients/ipv-core/jwtAuthentication/redirectUri"),
+                readPath(true));
+    }
+
+    private List<String> readPath(boolean recursive) {
+        return ssmClient
+                .getParametersByPath(
+                        GetParametersByPathRequest.builder()
+                                .path("/stack/clients/ipv-core/jwtAuthentication")
+                                .recursive(recursive)
+                                .build())
+                .parameters()
+                .stream()
+                .map(Parameter::name)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyDistributionTest {
+    private static final int SAMPLES = 10_001;
+
+    @Test
+    void shouldSampleFixedLatency() {
+        assertEquals(
+                5_000_000,
+                LatencyDistribution.fixed(Duration.ofMillis(5)).sampleNanos(new Random(1)));
+    }
+
+    @Test
+    void shouldCentreLogNormalLatencyOnMedian() {
+        long[] samples =
+                sample(LatencyDistribution.logNormal(Duration.ofMillis(10), 0.5), new Random(1));
+
+        assertEquals(10_000_000, samples[SAMPLES / 2], 500_000);
+    }
+
+    @Test
+    void shouldDrawSlowLatencyForSlowRatio() {
+        long[] samples =
+                sample(
+                        LatencyDistribution.bimodal(
+                                LatencyDistribution.fixed(Duration.ofMillis(1)),
+                                LatencyDistribution.fixed(Duration.ofMillis(100)),
+                                0.1),
+                        new Random(1));
+
+        long slow = Arrays.stream(samples).filter(nanos -> nanos == 100_000_000).count();
+        assertEquals(SAMPLES / 10, slow, 150);
+    }
+
+    private static long[] sample(LatencyDistribution latencyDistribution, Random random) {
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = latencyDistribution.sampleNanos(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+}
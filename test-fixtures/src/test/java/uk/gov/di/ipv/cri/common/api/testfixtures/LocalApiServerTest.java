@@ -0,0 +1,208 @@
+package uk.gov.di.ipv.cri.common.api.testfixtures;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalApiServerTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private LocalApiServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void shouldTranslateRequestIntoApiGatewayEvent() throws Exception {
+        AtomicReference<APIGatewayProxyRequestEvent> received = new AtomicReference<>();
+        server =
+                LocalApiServer.builder()
+                        .route(
+                                "/authorization",
+                                "authorization",
+                                (input, context) -> {
+                                    received.set(input);
+                                    return new APIGatewayProxyResponseEvent()
+                                            .withStatusCode(200)
+                                            .withBody("{\"name\":\"café\"}");
+                                })
+                        .build()
+                        .start();
+
+        HttpResponse<String> response =
+                httpClient.send(
+                        HttpRequest.newBuilder(
+                                        uri("/authorization?client_id=ipv-core&scope=a%20b&flag"))
+                                .header("Session-Id", "session-1")
+                                .GET()
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"name\":\"café\"}", response.body());
+        APIGatewayProxyRequestEvent input = received.get();
+        assertEquals("GET", input.getHttpMethod());
+        assertEquals("/authorization", input.getPath());
+        assertEquals("session-1", input.getHeaders().get("session-id"));
+        assertEquals(
+                Map.of("client_id", "ipv-core", "scope", "a b", "flag", ""),
+                input.getQueryStringParameters());
+        assertNull(input.getBody());
+    }
+
+    @Test
+    void shouldPassRequestBodyAndReturnResponseHeaders() throws Exception {
+        server =
+                LocalApiServer.builder()
+                        .route(
+                                "/token",
+                                "token",
+                                (input, context) ->
+                                        new APIGatewayProxyResponseEvent()
+                                                .withStatusCode(201)
+                                                .withHeaders(Map.of("Retry-After", "1"))
+                                                .withBody(input.getBody()))
+                        .build()
+                        .start();
+
+        HttpResponse<String> response =
+                httpClient.send(
+                        HttpRequest.newBuilder(uri("/token"))
+                                .POST(HttpRequest.BodyPublishers.ofString("code=abc"))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(201, response.statusCode());
+        assertEquals("code=abc", response.body());
+        assertEquals("1", response.headers().firstValue("Retry-After").orElseThrow());
+    }
+
+    @Test
+    void shouldAnswerFailedHandlerWithBadGateway() throws Exception {
+        server =
+                LocalApiServer.builder()
+                        .route(
+                                "/session",
+                                "session",
+                                (input, context) -> {
+                                    throw new IllegalStateException("failed");
+                                })
+                        .build()
+                        .start();
+
+        HttpResponse<String> response =
+                httpClient.send(
+                        HttpRequest.newBuilder(uri("/session"))
+                                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(502, response.statusCode());
+    }
+
+    @Test
+    void shouldAnswerUnknownPathWithNotFound() throws Exception {
+        server =
+                LocalApiServer.builder()
+                        .route(
+                                "/session",
+                                "session",
+                                (input, context) ->
+                                        new APIGatewayProxyResponseEvent().withStatusCode(201))
+                        .build()
+                        .start();
+
+        assertEquals(404, get("/sessions").statusCode());
+        assertEquals(404, get("/other").statusCode());
+        assertEquals(201, get("/session").statusCode());
+    }
+
+    @Test
+    void shouldHandleRequestsConcurrently() throws Exception {
+        int threads = 4;
+        CountDownLatch allArrived = new CountDownLatch(threads);
+        server =
+                LocalApiServer.builder()
+                        .threads(threads)
+                        .route(
+                                "/session",
+                                "session",
+                                (input, context) -> {
+                                    allArrived.countDown();
+                                    try {
+                                        allArrived.await(5, TimeUnit.SECONDS);
+                                    } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                    }
+                                    return new APIGatewayProxyResponseEvent()
+                                            .withStatusCode(allArrived.getCount() == 0 ? 200 : 504);
+                                })
+                        .build()
+                        .start();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            responses.add(
+                    httpClient.sendAsync(
+                            HttpRequest.newBuilder(uri("/session")).GET().build(),
+                            HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get(10, TimeUnit.SECONDS).statusCode());
+        }
+    }
+
+    @Test
+    void shouldCountDownRemainingTimeFromTimeout() throws Exception {
+        AtomicReference<Integer> remaining = new AtomicReference<>();
+        server =
+                LocalApiServer.builder()
+                        .route(
+                                "/token",
+                                "token",
+                                (input, context) -> {
+                                    remaining.set(context.getRemainingTimeInMillis());
+                                    return new APIGatewayProxyResponseEvent().withStatusCode(200);
+                                })
+                        .build()
+                        .start();
+
+        get("/token");
+
+        assertTrue(remaining.get() > 0);
+        assertTrue(remaining.get() <= LocalContext.DEFAULT_TIMEOUT.toMillis());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return httpClient.send(
+                HttpRequest.newBuilder(uri(path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String pathAndQuery) {
+        return URI.create(server.getBaseUri() + pathAndQuery);
+    }
+}